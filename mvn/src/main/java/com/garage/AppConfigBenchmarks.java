@@ -0,0 +1,33 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// AppConfig lookups as done on every pool, dispatcher and history-model construction:
+// a variable set in the environment, one that falls through to .env, and an integer parse.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AppConfigBenchmarks {
+
+    @Benchmark
+    public String getFromEnvironment() {
+        return AppConfig.get("PATH");
+    }
+
+    @Benchmark
+    public String getMissing() {
+        return AppConfig.get("JAVA_BENCHMARK_UNSET_KEY");
+    }
+
+    @Benchmark
+    public int getIntWithDefault() {
+        return AppConfig.getInt("JAVA_DB_POOL_SIZE", 5);
+    }
+}
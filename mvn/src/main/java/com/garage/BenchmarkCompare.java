@@ -0,0 +1,112 @@
+package com.garage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compares two JMH JSON result files (-rf json), e.g. from the previous commit and this one,
+// and exits with status 1 if any benchmark got slower by more than the threshold percent:
+//   mvnw -f mvn/pom.xml exec:java@compare -Djmh.baseline=baseline.json [-Djmh.threshold=10]
+public final class BenchmarkCompare {
+
+    // JMH writes one object per benchmark (and parameter combination) with this shape.
+    private static final Pattern RESULT = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\"[\\s\\S]*?\"mode\"\\s*:\\s*\"([^\"]+)\"[\\s\\S]*?"
+                    + "(?:\"params\"\\s*:\\s*\\{([^}]*)\\}[\\s\\S]*?)?"
+                    + "\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*\"?([^\",\\s]+)\"?\\s*,"
+                    + "\\s*\"scoreError\"\\s*:\\s*\"?([^\",\\s]+)\"?[\\s\\S]*?\"scoreUnit\"\\s*:\\s*\"([^\"]+)\"");
+
+    private BenchmarkCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkCompare <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> baseline = read(args[0]);
+        Map<String, Result> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-60s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-60s %14s %14s %9s%n", entry.getKey(), "-", now.describe(), "new");
+                continue;
+            }
+            // Positive means slower: more time per operation, or fewer operations per time unit.
+            double change = now.timeBased()
+                    ? (now.score - before.score) / before.score * 100
+                    : (before.score - now.score) / before.score * 100;
+            // Differences inside the combined error bars are noise, not regressions.
+            boolean significant = Math.abs(now.score - before.score) > now.error + before.error;
+            boolean regressed = significant && change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-60s %14s %14s %+8.1f%%%s%n", entry.getKey(), before.describe(),
+                    now.describe(), change, regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions == 0
+                ? "No regressions above " + threshold + "%"
+                : regressions + " benchmark(s) slower by more than " + threshold + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        Matcher matcher = RESULT.matcher(json);
+        while (matcher.find()) {
+            String params = matcher.group(3) == null ? "" : matcher.group(3).replaceAll("[\\s\"]", "");
+            String key = matcher.group(1).replace("com.garage.", "") + (params.isEmpty() ? "" : " {" + params + "}");
+            results.put(key, new Result(matcher.group(2), parse(matcher.group(4)), parse(matcher.group(5)), matcher.group(6)));
+        }
+        if (results.isEmpty()) {
+            throw new IOException("No JMH results found in " + file);
+        }
+        return results;
+    }
+
+    private static double parse(String number) {
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static final class Result {
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Result(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+        }
+
+        // avgt, sample and ss report time per operation; thrpt reports operations per time.
+        private boolean timeBased() {
+            return !mode.equals("thrpt");
+        }
+
+        private String describe() {
+            return String.format(Locale.ROOT, "%.3f %s", score, unit);
+        }
+    }
+}
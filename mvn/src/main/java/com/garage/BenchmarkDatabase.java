@@ -0,0 +1,110 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An in-memory H2 database in MySQL mode with the tables the benchmarks touch, standing in
+// for the real server so DAO timings measure the application code and JDBC, not the network.
+final class BenchmarkDatabase {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final String[] VEHICLES = {"2 Wheeler", "3 Wheeler", "4 Wheeler"};
+    private static final String[] STATUSES = {"Pending", "Confirmed", "In Progress", "Completed", "Cancelled"};
+
+    private BenchmarkDatabase() {
+    }
+
+    // A fresh database with the given number of bookings, spread over 50 users.
+    static ConnectionPool create(int bookings) throws SQLException {
+        return create(newUrl(), bookings);
+    }
+
+    // The URL of a database no other benchmark uses; it stays open until the JVM exits.
+    static String newUrl() {
+        return "jdbc:h2:mem:garage" + NEXT_ID.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    // As create(bookings), at the given URL (user sa, no password).
+    static ConnectionPool create(String url, int bookings) throws SQLException {
+        ConnectionPool pool = ConnectionPool.create(url, "sa", "");
+        try (Connection conn = pool.getConnection()) {
+            createTables(conn);
+        }
+
+        String insert = "INSERT INTO GarageServiceBookings (user_id, name, email, phone, wheeler_type, service_type, "
+                + "cost, appointment_date, status, notes, booking_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(insert)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < bookings; i++) {
+                stmt.setInt(1, 1 + i % 50);
+                stmt.setString(2, "Customer " + i);
+                stmt.setString(3, "customer" + i + "@example.com");
+                stmt.setString(4, "98765" + String.format("%05d", i % 100_000));
+                stmt.setString(5, VEHICLES[i % VEHICLES.length]);
+                stmt.setString(6, i % 4 == 0 ? "Premium" : "Standard");
+                stmt.setDouble(7, i % 4 == 0 ? 675.0 : 750.0);
+                stmt.setTimestamp(8, Timestamp.valueOf(start.plusHours(i)));
+                stmt.setString(9, STATUSES[i % STATUSES.length]);
+                stmt.setString(10, i % 3 == 0 ? "Check brakes" : null);
+                stmt.setTimestamp(11, Timestamp.valueOf(start.plusMinutes(i)));
+                stmt.addBatch();
+                if (i % 1000 == 999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO BookingStatsCounters (scope_id, total, pending, completed, revenue) "
+                    + "SELECT 0, COUNT(*), SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN status = 'Completed' THEN 1 ELSE 0 END), SUM(cost) FROM GarageServiceBookings");
+        }
+        return pool;
+    }
+
+    // The application tables from sql/setup.sql, without the MySQL-only parts (triggers and the
+    // FULLTEXT index), and with the default prices in Settings.
+    static void createTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS Users (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "username VARCHAR(50) UNIQUE NOT NULL, password VARCHAR(255) NOT NULL, "
+                    + "full_name VARCHAR(100) NOT NULL, email VARCHAR(255) UNIQUE NOT NULL, phone VARCHAR(20), "
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS Settings (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "setting_key VARCHAR(100) UNIQUE NOT NULL, setting_value TEXT NOT NULL, "
+                    + "updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3))");
+            stmt.execute("MERGE INTO Settings (setting_key, setting_value) KEY (setting_key) VALUES "
+                    + "('two_wheeler_cost', '500'), ('three_wheeler_cost', '750'), "
+                    + "('four_wheeler_cost', '1000'), ('premium_discount', '10')");
+            stmt.execute("CREATE TABLE IF NOT EXISTS GarageServiceBookings (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id INT, name VARCHAR(100) NOT NULL, email VARCHAR(255) NOT NULL, phone VARCHAR(20), "
+                    + "wheeler_type VARCHAR(20) NOT NULL, service_type VARCHAR(50) DEFAULT 'Standard', "
+                    + "cost DOUBLE NOT NULL, appointment_date DATETIME, status VARCHAR(20) DEFAULT 'Pending', "
+                    + "notes TEXT, booking_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_user_date ON GarageServiceBookings (user_id, booking_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_date ON GarageServiceBookings (booking_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_status_date ON GarageServiceBookings (status, booking_date)");
+            // InnoDB walks the primary key backwards for ORDER BY id DESC; H2 needs an index for that.
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_id_desc ON GarageServiceBookings (id DESC)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS Notifications (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id INT NOT NULL, booking_id INT NULL, type VARCHAR(50) NOT NULL DEFAULT 'General', "
+                    + "title VARCHAR(255) NOT NULL, message TEXT NOT NULL, actor_id INT NULL, "
+                    + "is_read TINYINT NOT NULL DEFAULT 0, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created "
+                    + "ON Notifications (user_id, is_read, created_at)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS CustomerFeedback (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id INT, name VARCHAR(100), feedback_text TEXT NOT NULL, rating INT, "
+                    + "feedback_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS BookingStatsCounters (scope_id INT PRIMARY KEY, "
+                    + "total INT NOT NULL DEFAULT 0, pending INT NOT NULL DEFAULT 0, completed INT NOT NULL DEFAULT 0, "
+                    + "revenue DECIMAL(15,2) NOT NULL DEFAULT 0)");
+        }
+    }
+}
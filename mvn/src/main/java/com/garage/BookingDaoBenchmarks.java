@@ -0,0 +1,70 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BookingService operations against the in-memory stand-in database: the reads behind the
+// dashboard, the History tab and the API, and a create + delete round trip.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingDaoBenchmarks {
+
+    private static final int BOOKINGS = 20_000;
+
+    private ConnectionPool pool;
+    private BookingService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = BenchmarkDatabase.create(BOOKINGS);
+        SettingsCache settings = new SettingsCache(pool);
+        settings.reload();
+        service = new BookingService(pool, new BookingStatsStore(pool), settings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public Booking getBooking() throws SQLException {
+        return service.getBooking(1 + (next++ % BOOKINGS));
+    }
+
+    @Benchmark
+    public List<Booking> listNewestPage() throws SQLException {
+        return service.listBookings(null, null, null, 20);
+    }
+
+    @Benchmark
+    public List<Booking> recentBookingsForUser() throws SQLException {
+        return service.recentBookings(1 + (next++ % 50), 10);
+    }
+
+    @Benchmark
+    public BookingStats stats() throws SQLException {
+        return service.getStats(null);
+    }
+
+    @Benchmark
+    public boolean createAndDelete() throws SQLException {
+        Booking booking = service.createBooking(new BookingService.BookingRequest(
+                7, "Benchmark Customer", "bench@example.com", "9876500000", "4 Wheeler", true,
+                "2030-01-01 10:00", null), false);
+        return service.deleteBooking(booking.getId());
+    }
+}
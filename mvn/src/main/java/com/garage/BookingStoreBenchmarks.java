@@ -0,0 +1,149 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Sorting and searching a whole booking history held client-side: rows of boxed values in a
+// DefaultTableModel with TableRowSorter (strings made per row, as the tables used to be filled)
+// against BookingStoreTableModel with BookingStoreSorter. Each call sorts or filters all rows;
+// calls alternate between two orders or two search terms so none is a no-op. Bookings are
+// generated, one new String per text cell as a JDBC driver returns them, for rows / 50
+// distinct customers. No database is needed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookingStoreBenchmarks {
+
+    private static final String[] VEHICLES = {"2 Wheeler", "3 Wheeler", "4 Wheeler"};
+    private static final String[] SERVICES = {"Standard", "Premium"};
+    private static final String[] STATUSES = {"Pending", "Confirmed", "In Progress", "Completed", "Cancelled"};
+    private static final String[] SEARCH_TERMS = {"customer 1234", "customer 1235"};
+    private static final long FIRST_APPOINTMENT = 1_700_000_000_000L;
+    private static final int NAME_COLUMN = BookingRow.Column.NAME.ordinal();
+    private static final int COST_COLUMN = BookingRow.Column.COST.ordinal();
+
+    @Param({"100000"})
+    public int rows;
+
+    private TableRowSorter<DefaultTableModel> tableSorter;
+    private TableRowSorter<DefaultTableModel> tableSearch;
+    private BookingStoreSorter storeSorter;
+    private BookingStoreSorter storeSearch;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DefaultTableModel table = vectorModel(rows, Math.max(1, rows / 50));
+        tableSorter = new TableRowSorter<>(table);
+        tableSearch = new TableRowSorter<>(table);
+
+        BookingStoreTableModel store = new BookingStoreTableModel(null);
+        fill(store.getStore(), rows, Math.max(1, rows / 50));
+        storeSorter = new BookingStoreSorter(store);
+        storeSearch = new BookingStoreSorter(store);
+    }
+
+    @Benchmark
+    public int tableRowSorterSortByName() {
+        tableSorter.setSortKeys(nextKeys(NAME_COLUMN));
+        return tableSorter.getViewRowCount();
+    }
+
+    @Benchmark
+    public int tableRowSorterSortByCost() {
+        tableSorter.setSortKeys(nextKeys(COST_COLUMN));
+        return tableSorter.getViewRowCount();
+    }
+
+    @Benchmark
+    public int tableRowSorterSearch() {
+        String term = SEARCH_TERMS[call++ & 1];
+        tableSearch.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(term), 1, 2, 3, 4));
+        return tableSearch.getViewRowCount();
+    }
+
+    @Benchmark
+    public int columnStoreSortByName() {
+        storeSorter.setSortKeys(nextKeys(NAME_COLUMN));
+        return storeSorter.getViewRowCount();
+    }
+
+    @Benchmark
+    public int columnStoreSortByCost() {
+        storeSorter.setSortKeys(nextKeys(COST_COLUMN));
+        return storeSorter.getViewRowCount();
+    }
+
+    @Benchmark
+    public int columnStoreSearch() {
+        storeSearch.setSearchTerm(SEARCH_TERMS[call++ & 1]);
+        return storeSearch.getViewRowCount();
+    }
+
+    private List<RowSorter.SortKey> nextKeys(int column) {
+        SortOrder order = (call++ & 1) == 0 ? SortOrder.ASCENDING : SortOrder.DESCENDING;
+        return List.of(new RowSorter.SortKey(column, order));
+    }
+
+    private static DefaultTableModel vectorModel(int rows, int customers) {
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"ID", "Name", "Email", "Phone", "Vehicle",
+            "Service", "Date", "Status", "Cost"}, 0);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int id = rows; id > 0; id--) {
+            int customer = random.nextInt(customers);
+            model.addRow(new Object[]{
+                id,
+                copy("Customer " + customer),
+                copy("customer" + customer + "@example.test"),
+                copy(phone(customer)),
+                copy(VEHICLES[random.nextInt(VEHICLES.length)]),
+                copy(SERVICES[random.nextInt(SERVICES.length)]),
+                new Timestamp(FIRST_APPOINTMENT + id * 60_000L).toString(),
+                copy(STATUSES[random.nextInt(STATUSES.length)]),
+                String.format("Rs. %.2f", (50_000 + random.nextInt(100_000)) / 100.0)
+            });
+        }
+        return model;
+    }
+
+    // The same bookings as vectorModel, appended the way BookingDao.loadColumns does.
+    private static void fill(BookingColumnStore store, int rows, int customers) {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int id = rows; id > 0; id--) {
+            int customer = random.nextInt(customers);
+            store.add(id, copy("Customer " + customer), copy("customer" + customer + "@example.test"),
+                    copy(phone(customer)), copy(VEHICLES[random.nextInt(VEHICLES.length)]),
+                    copy(SERVICES[random.nextInt(SERVICES.length)]), FIRST_APPOINTMENT + id * 60_000L,
+                    copy(STATUSES[random.nextInt(STATUSES.length)]), 50_000 + random.nextInt(100_000));
+        }
+        store.trimToSize();
+    }
+
+    private static String phone(int customer) {
+        return String.format(Locale.ROOT, "98%08d", customer);
+    }
+
+    // A distinct instance, like a String read from a ResultSet.
+    private static String copy(String value) {
+        return new String(value);
+    }
+}
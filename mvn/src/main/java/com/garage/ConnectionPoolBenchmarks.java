@@ -0,0 +1,85 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// The two commonest front-desk actions, a walk-in booking submit and a refresh of a customer's
+// history, each on its own connection: borrowed from ConnectionPool, or opened with DriverManager
+// as the desktop apps did per click before the pool. Against the in-memory stand-in database
+// opening a connection is far cheaper than a MySQL handshake over the network, so the gap
+// measured here is a lower bound. Submitted rows are deleted after every iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionPoolBenchmarks {
+
+    private static final int BOOKINGS = 5_000;
+    private static final int CUSTOMER = 7;
+    private static final String MARKER = "connection-pool-benchmark";
+
+    private String url;
+    private ConnectionPool pool;
+    private BookingDao bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        url = BenchmarkDatabase.newUrl();
+        pool = BenchmarkDatabase.create(url, BOOKINGS);
+        bookings = new BookingDao(pool);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSubmitted() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM GarageServiceBookings WHERE notes = ?")) {
+            stmt.setString(1, MARKER);
+            stmt.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int pooled() throws SQLException {
+        int id;
+        try (Connection conn = pool.getConnection()) {
+            id = submit(conn);
+        }
+        try (Connection conn = pool.getConnection()) {
+            return id + bookings.loadColumns(conn, CUSTOMER).size();
+        }
+    }
+
+    @Benchmark
+    public int driverManager() throws SQLException {
+        int id;
+        try (Connection conn = DriverManager.getConnection(url, "sa", "")) {
+            id = submit(conn);
+        }
+        try (Connection conn = DriverManager.getConnection(url, "sa", "")) {
+            return id + bookings.loadColumns(conn, CUSTOMER).size();
+        }
+    }
+
+    // A walk-in booking (no customer account), so the refreshed history does not grow.
+    private int submit(Connection conn) throws SQLException {
+        return bookings.insert(conn, null, "Walk-in Customer", "walkin@example.com", "9876500000", "2 Wheeler",
+                "Standard", 500.0, null, MARKER, "Pending");
+    }
+}
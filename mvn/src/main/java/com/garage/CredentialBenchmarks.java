@@ -0,0 +1,54 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+// Sign-in checks per second on one thread, i.e. per core: a bcrypt check at each cost, the
+// same check answered from the verification cache, and a legacy plain-text row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class CredentialBenchmarks {
+
+    private static final String PASSWORD = "front-desk-2024";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private CredentialService uncached;
+    private CredentialService cached;
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        uncached = new CredentialService(1, 16, cost, 250, 0);
+        cached = new CredentialService(1, 16, cost, 250, 900);
+        stored = uncached.hash(PASSWORD);
+        cached.verify(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyHash() {
+        return uncached.verify(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        return cached.verify(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyPlainText() {
+        return uncached.verify(PASSWORD, PASSWORD);
+    }
+}
@@ -0,0 +1,34 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Email body rendering: subject, text and HTML of the emails queued for each booking.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailTemplateBenchmarks {
+
+    private static final String[] NAMES = {"Asha Rao", "Vikram <Singh>", "Meera & Sons", "Rahul O'Neil"};
+
+    private int next;
+
+    @Benchmark
+    public EmailTemplates.RenderedEmail bookingConfirmation() {
+        int i = next++;
+        return EmailTemplates.bookingConfirmation(NAMES[i & 3], "4 Wheeler", "Premium ⭐", "2030-01-01 10:00", 90_000,
+                EmailTemplates.DEFAULT_CONTACT_PHONE, EmailTemplates.DEFAULT_CONTACT_EMAIL);
+    }
+
+    @Benchmark
+    public EmailTemplates.RenderedEmail statusChange() {
+        int i = next++;
+        return EmailTemplates.statusChange(NAMES[i & 3], 1000 + i, "2 Wheeler", "Completed");
+    }
+}
@@ -0,0 +1,28 @@
+package com.garage;
+
+import java.sql.Connection;
+
+// Runs FrontDeskLoadTest against an embedded H2 database in MySQL mode instead of a real
+// server, for trying out mixes and terminal counts without MySQL:
+//   mvnw -f mvn/pom.xml exec:java@frontdesk "-Dexec.args=--users 2000 --bookings 200000 --terminals 20"
+// The tables are created on first use. Set JAVA_STANDIN_URL to keep the data in a file
+// (e.g. jdbc:h2:./target/frontdesk;MODE=MySQL) instead of memory. H2 has no MySQL FULLTEXT,
+// so searches use the LIKE fallback here; search timings are only meaningful on MySQL.
+public final class FrontDeskStandIn {
+
+    private static final String MEMORY_URL = "jdbc:h2:mem:frontdesk;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private FrontDeskStandIn() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = AppConfig.getOrDefault("JAVA_STANDIN_URL", MEMORY_URL);
+        try (ConnectionPool pool = ConnectionPool.create(url, "sa", "");
+             Connection conn = pool.getConnection()) {
+            BenchmarkDatabase.createTables(conn);
+            BookingSearch.useLikeOnly();
+            // The in-memory database lives as long as this connection stays open.
+            FrontDeskLoadTest.run(url, "sa", "", args);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// calculateCost: the PricingEngine lookup the apps use now, next to the string switch over
+// double settings they used before it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmarks {
+
+    private static final String[] LABELS = {"2 Wheeler", "3 Wheeler", "4 Wheeler"};
+    private static final int BATCH = 1000;
+
+    private SettingsCache.Snapshot settings;
+    private PricingEngine engine;
+    private List<PricingEngine.QuoteRequest> batch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        settings = SettingsCache.Snapshot.of(Map.of(
+                "two_wheeler_cost", "500", "three_wheeler_cost", "750",
+                "four_wheeler_cost", "1000", "premium_discount", "10"));
+        engine = new PricingEngine(() -> settings);
+        PricingEngine.VehicleType[] vehicles = PricingEngine.VehicleType.values();
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new PricingEngine.QuoteRequest(vehicles[i % vehicles.length], PricingEngine.ServiceType.of(i % 2 == 0)));
+        }
+    }
+
+    @Benchmark
+    public long quoteByLabel() {
+        int i = next++;
+        return engine.quote(LABELS[i % LABELS.length], (i & 1) == 0);
+    }
+
+    @Benchmark
+    public long[] quoteAllThousand() {
+        return engine.quoteAll(batch);
+    }
+
+    @Benchmark
+    public double legacySwitchCost() {
+        int i = next++;
+        String vehicleType = LABELS[i % LABELS.length];
+        double baseCost = switch (vehicleType) {
+            case "2 Wheeler" -> settings.getDouble("two_wheeler_cost", 500.0);
+            case "3 Wheeler" -> settings.getDouble("three_wheeler_cost", 750.0);
+            case "4 Wheeler" -> settings.getDouble("four_wheeler_cost", 1000.0);
+            default -> 0;
+        };
+        double discount = settings.getDouble("premium_discount", 10.0);
+        return (i & 1) == 0 ? baseCost * (1 - discount / 100) : baseCost;
+    }
+}
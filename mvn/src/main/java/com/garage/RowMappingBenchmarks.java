@@ -0,0 +1,94 @@
+package com.garage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Turning a page of bookings into Booking History table rows. The Object[] variants are how
+// BookingHistoryTableModel used to map rows, with the cost text made per row; pageAsBookingRows
+// is the current mapping, which keeps cost and date primitive until a cell is painted.
+// Scores are rows per second; add -prof gc for bytes allocated per row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(RowMappingBenchmarks.PAGE_SIZE)
+public class RowMappingBenchmarks {
+
+    static final int PAGE_SIZE = 100;
+
+    private static final String PAGE_SQL = "SELECT " + BookingRow.SELECT_COLUMNS
+            + " FROM GarageServiceBookings ORDER BY id DESC LIMIT " + PAGE_SIZE;
+
+    private ConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = BenchmarkDatabase.create(5_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<Object[]> pageWithStringFormat() throws SQLException {
+        return fetchPage(true);
+    }
+
+    @Benchmark
+    public List<Object[]> pageWithPaiseFormat() throws SQLException {
+        return fetchPage(false);
+    }
+
+    @Benchmark
+    public List<BookingRow> pageAsBookingRows() throws SQLException {
+        List<BookingRow> rows = new ArrayList<>(PAGE_SIZE);
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PAGE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(BookingRow.read(rs));
+            }
+        }
+        return rows;
+    }
+
+    private List<Object[]> fetchPage(boolean stringFormat) throws SQLException {
+        List<Object[]> rows = new ArrayList<>(PAGE_SIZE);
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PAGE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                double cost = rs.getDouble("cost");
+                rows.add(new Object[]{
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("email"),
+                    rs.getString("phone"),
+                    rs.getString("wheeler_type"),
+                    rs.getString("service_type"),
+                    rs.getString("appointment_date"),
+                    rs.getString("status"),
+                    stringFormat ? String.format("Rs. %.2f", cost) : PricingEngine.format(PricingEngine.toPaise(cost))
+                });
+            }
+        }
+        return rows;
+    }
+}
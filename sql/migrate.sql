@@ -65,4 +65,124 @@ CREATE TABLE IF NOT EXISTS Notifications (
     FOREIGN KEY (actor_id) REFERENCES Users(id) ON DELETE SET NULL
 );
 
+-- Dashboard statistics counters, kept current by triggers so the desktop dashboard
+-- reads one row instead of aggregating GarageServiceBookings.
+-- scope_id 0 holds the global totals; any other scope_id is a Users.id.
+CREATE TABLE IF NOT EXISTS BookingStatsCounters (
+    scope_id INT PRIMARY KEY,
+    total INT NOT NULL DEFAULT 0,
+    pending INT NOT NULL DEFAULT 0,
+    completed INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(15,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+DROP TRIGGER IF EXISTS trg_bookings_stats_insert;
+DROP TRIGGER IF EXISTS trg_bookings_stats_update;
+DROP TRIGGER IF EXISTS trg_bookings_stats_delete;
+DROP PROCEDURE IF EXISTS apply_booking_stats_delta;
+
+DELIMITER //
+
+CREATE PROCEDURE apply_booking_stats_delta(
+    IN p_scope INT, IN p_total INT, IN p_pending INT, IN p_completed INT, IN p_revenue DECIMAL(15,2))
+BEGIN
+    INSERT INTO BookingStatsCounters (scope_id, total, pending, completed, revenue)
+    VALUES (p_scope, p_total, p_pending, p_completed, p_revenue)
+    ON DUPLICATE KEY UPDATE
+        total = total + p_total,
+        pending = pending + p_pending,
+        completed = completed + p_completed,
+        revenue = revenue + p_revenue;
+END //
+
+CREATE TRIGGER trg_bookings_stats_insert AFTER INSERT ON GarageServiceBookings
+FOR EACH ROW
+BEGIN
+    CALL apply_booking_stats_delta(0, 1, IF(NEW.status = 'Pending', 1, 0), IF(NEW.status = 'Completed', 1, 0), NEW.cost);
+    IF NEW.user_id IS NOT NULL THEN
+        CALL apply_booking_stats_delta(NEW.user_id, 1, IF(NEW.status = 'Pending', 1, 0), IF(NEW.status = 'Completed', 1, 0), NEW.cost);
+    END IF;
+END //
+
+CREATE TRIGGER trg_bookings_stats_update AFTER UPDATE ON GarageServiceBookings
+FOR EACH ROW
+BEGIN
+    IF NOT (OLD.status <=> NEW.status AND OLD.cost <=> NEW.cost AND OLD.user_id <=> NEW.user_id) THEN
+        CALL apply_booking_stats_delta(0, 0,
+            IF(NEW.status = 'Pending', 1, 0) - IF(OLD.status = 'Pending', 1, 0),
+            IF(NEW.status = 'Completed', 1, 0) - IF(OLD.status = 'Completed', 1, 0),
+            NEW.cost - OLD.cost);
+        IF OLD.user_id IS NOT NULL THEN
+            CALL apply_booking_stats_delta(OLD.user_id, -1, -IF(OLD.status = 'Pending', 1, 0), -IF(OLD.status = 'Completed', 1, 0), -OLD.cost);
+        END IF;
+        IF NEW.user_id IS NOT NULL THEN
+            CALL apply_booking_stats_delta(NEW.user_id, 1, IF(NEW.status = 'Pending', 1, 0), IF(NEW.status = 'Completed', 1, 0), NEW.cost);
+        END IF;
+    END IF;
+END //
+
+CREATE TRIGGER trg_bookings_stats_delete AFTER DELETE ON GarageServiceBookings
+FOR EACH ROW
+BEGIN
+    CALL apply_booking_stats_delta(0, -1, -IF(OLD.status = 'Pending', 1, 0), -IF(OLD.status = 'Completed', 1, 0), -OLD.cost);
+    IF OLD.user_id IS NOT NULL THEN
+        CALL apply_booking_stats_delta(OLD.user_id, -1, -IF(OLD.status = 'Pending', 1, 0), -IF(OLD.status = 'Completed', 1, 0), -OLD.cost);
+    END IF;
+END //
+
+DELIMITER ;
+
+-- Seed (or re-seed) the counters from the bookings already in the table.
+INSERT INTO BookingStatsCounters (scope_id, total, pending, completed, revenue)
+SELECT 0, COUNT(*), COALESCE(SUM(status = 'Pending'), 0), COALESCE(SUM(status = 'Completed'), 0), COALESCE(SUM(cost), 0)
+FROM GarageServiceBookings
+ON DUPLICATE KEY UPDATE total = VALUES(total), pending = VALUES(pending), completed = VALUES(completed), revenue = VALUES(revenue);
+
+INSERT INTO BookingStatsCounters (scope_id, total, pending, completed, revenue)
+SELECT user_id, COUNT(*), COALESCE(SUM(status = 'Pending'), 0), COALESCE(SUM(status = 'Completed'), 0), COALESCE(SUM(cost), 0)
+FROM GarageServiceBookings
+WHERE user_id IS NOT NULL
+GROUP BY user_id
+ON DUPLICATE KEY UPDATE total = VALUES(total), pending = VALUES(pending), completed = VALUES(completed), revenue = VALUES(revenue);
+
+-- Millisecond precision on Settings.updated_at so the desktop settings cache sees
+-- two saves within the same second as two versions.
+ALTER TABLE Settings
+    MODIFY updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+-- Outbox for desktop confirmation emails. Rows are written in the same transaction as
+-- the booking and delivered by EmailDispatcher; several desks can dispatch concurrently
+-- because rows are claimed with FOR UPDATE SKIP LOCKED.
+-- status: Pending -> Sending -> Sent, or back to Pending with a later next_attempt_at,
+-- or Dead once the attempt limit is reached. For Sending rows next_attempt_at is the lease expiry.
+CREATE TABLE IF NOT EXISTS EmailOutbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id INT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body MEDIUMTEXT NOT NULL,
+    html_body MEDIUMTEXT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'Pending',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error TEXT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    sent_at TIMESTAMP(3) NULL,
+    INDEX idx_email_outbox_status_next (status, next_attempt_at),
+    FOREIGN KEY (booking_id) REFERENCES GarageServiceBookings(id) ON DELETE SET NULL
+);
+
+SET @col_exists = (SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA='garage' AND TABLE_NAME='EmailOutbox' AND COLUMN_NAME='html_body');
+SET @sql = IF(@col_exists = 0, 'ALTER TABLE EmailOutbox ADD COLUMN html_body MEDIUMTEXT NULL AFTER body', 'SELECT 1');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- ngram FULLTEXT index for the desktop history search (see sql/setup.sql for why stopwords are off).
+-- Building it reads the whole table; on a large table run this outside business hours.
+SET SESSION innodb_ft_enable_stopword = OFF;
+SET @idx_exists = (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA='garage' AND TABLE_NAME='GarageServiceBookings' AND INDEX_NAME='ft_bookings_search');
+SET @sql = IF(@idx_exists = 0, 'ALTER TABLE GarageServiceBookings ADD FULLTEXT INDEX ft_bookings_search (name, email, phone, wheeler_type) WITH PARSER ngram', 'SELECT 1');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+SET SESSION innodb_ft_enable_stopword = ON;
+
 SELECT 'Migration complete!' AS result;
@@ -2,28 +2,45 @@ package com.garage;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+// Settings from the environment, falling back to the .env file in the working directory. Both
+// are resolved once into an immutable Snapshot, so reads are a map lookup. With watchDotEnv()
+// running, an edited .env is read again and swapped in whole, and listeners are told which keys
+// changed; environment variables still win over .env.
 public final class AppConfig {
 
-    private static final Map<String, String> DOT_ENV = loadDotEnv();
+    private static final Path DOT_ENV = Paths.get(".env");
+    // Editors often write a file in several steps; wait for them to finish before reading it.
+    private static final long RELOAD_SETTLE_MS = 250;
+
+    private static volatile Snapshot current = Snapshot.load();
+    private static final List<Consumer<Set<String>>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static Thread watcher;
 
     private AppConfig() {
     }
 
     public static String get(String key) {
-        String value = System.getenv(key);
-        if (value == null || value.isBlank()) {
-            value = DOT_ENV.get(key);
-        }
-        return value == null ? "" : value.trim();
+        return current.get(key);
     }
 
     public static String getOrDefault(String key, String defaultValue) {
@@ -31,6 +48,16 @@ public final class AppConfig {
         return value.isBlank() ? defaultValue : value;
     }
 
+    public static int getInt(String key, int defaultValue) {
+        return current.getInt(key, defaultValue);
+    }
+
+    // "true" (any case) is true; anything else set is false.
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value.isBlank() ? defaultValue : "true".equalsIgnoreCase(value);
+    }
+
     public static List<String> missing(String... keys) {
         List<String> missing = new ArrayList<>();
         for (String key : keys) {
@@ -41,15 +68,101 @@ public final class AppConfig {
         return missing;
     }
 
+    // Called on the watcher thread with the keys whose values changed after .env was reloaded.
+    public static void addListener(Consumer<Set<String>> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<Set<String>> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    // Starts watching .env for edits, once per process, unless JAVA_CONFIG_RELOAD is false.
+    public static synchronized void watchDotEnv() {
+        if (watcher != null || !getBoolean("JAVA_CONFIG_RELOAD", true)) {
+            return;
+        }
+        Path directory = DOT_ENV.toAbsolutePath().getParent();
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException error) {
+            System.err.println("Not watching .env for changes: " + error.getMessage());
+            return;
+        }
+        watcher = new Thread(() -> watch(watchService), "garage-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    // Reads .env again and swaps in the new settings if anything changed.
+    public static void reload() {
+        Set<String> changed;
+        synchronized (AppConfig.class) {
+            Snapshot next = Snapshot.load();
+            changed = current.changedKeys(next);
+            if (changed.isEmpty()) {
+                return;
+            }
+            current = next;
+        }
+        // Names only: values can be passwords.
+        System.out.println("Reloaded .env, changed: " + String.join(", ", changed));
+        for (Consumer<Set<String>> listener : LISTENERS) {
+            try {
+                listener.accept(changed);
+            } catch (RuntimeException error) {
+                System.err.println("Configuration listener failed: " + error.getMessage());
+            }
+        }
+    }
+
+    private static void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean dotEnvChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (DOT_ENV.getFileName().equals(event.context())
+                            || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        dotEnvChanged = true;
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("Stopped watching .env: its directory is no longer accessible");
+                    return;
+                }
+                if (dotEnvChanged) {
+                    Thread.sleep(RELOAD_SETTLE_MS);
+                    drain(watchService);
+                    reload();
+                }
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException error) {
+            // Shutting down.
+        }
+    }
+
+    private static void drain(WatchService watchService) {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
     private static Map<String, String> loadDotEnv() {
-        Path envPath = Paths.get(".env");
-        if (!Files.exists(envPath)) {
+        if (!Files.exists(DOT_ENV)) {
             return Collections.emptyMap();
         }
 
         Map<String, String> values = new HashMap<>();
         try {
-            for (String rawLine : Files.readAllLines(envPath, StandardCharsets.UTF_8)) {
+            for (String rawLine : Files.readAllLines(DOT_ENV, StandardCharsets.UTF_8)) {
                 String line = rawLine.trim();
                 if (line.isEmpty() || line.startsWith("#")) {
                     continue;
@@ -79,4 +192,63 @@ public final class AppConfig {
 
         return values;
     }
+
+    // Every setting, already trimmed, with the environment layered over .env.
+    private static final class Snapshot {
+        private static final Object INVALID = new Object();
+
+        private final Map<String, String> values;
+        // Parsed numbers, so an invalid one is reported once rather than on every read.
+        private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, String> values) {
+            this.values = values;
+        }
+
+        private static Snapshot load() {
+            Map<String, String> values = new HashMap<>();
+            loadDotEnv().forEach((key, value) -> values.put(key, value.trim()));
+            System.getenv().forEach((key, value) -> {
+                if (!value.isBlank()) {
+                    values.put(key, value.trim());
+                }
+            });
+            return new Snapshot(Map.copyOf(values));
+        }
+
+        private String get(String key) {
+            return values.getOrDefault(key, "");
+        }
+
+        private int getInt(String key, int defaultValue) {
+            String value = get(key);
+            if (value.isBlank()) {
+                return defaultValue;
+            }
+            Object number = parsed.computeIfAbsent(key, unused -> {
+                try {
+                    return Integer.parseInt(value);
+                } catch (NumberFormatException error) {
+                    System.err.println("Ignoring invalid number for " + key + ": " + value);
+                    return INVALID;
+                }
+            });
+            return number == INVALID ? defaultValue : (Integer) number;
+        }
+
+        private Set<String> changedKeys(Snapshot next) {
+            Set<String> changed = new TreeSet<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (!entry.getValue().equals(next.values.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : next.values.keySet()) {
+                if (!values.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+            return changed;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.garage;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Runs database and SMTP work on a small worker pool and hands the outcome back to
+// the Swing Event Dispatch Thread, so listeners never block the window.
+public final class BackgroundTasks {
+
+    private static final int DEFAULT_WORKER_THREADS = 4;
+    private static final ExecutorService WORKERS = createWorkers();
+
+    private BackgroundTasks() {
+    }
+
+    public static <T> Future<?> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        return WORKERS.submit(() -> {
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception error) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    SwingUtilities.invokeLater(() -> onFailure.accept(error));
+                }
+                return;
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+            }
+        });
+    }
+
+    private static ExecutorService createWorkers() {
+        int threads = Math.max(1, AppConfig.getInt("JAVA_BACKGROUND_THREADS", DEFAULT_WORKER_THREADS));
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "garage-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.garage;
+
+// One row of GarageServiceBookings as returned by BookingService. Dates are kept as the
+// database's text form ("yyyy-MM-dd HH:mm:ss"), which is what the UI and the JSON API show.
+public final class Booking {
+
+    private final int id;
+    private final Integer userId;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String wheelerType;
+    private final String serviceType;
+    private final double cost;
+    private final String appointmentDate;
+    private final String status;
+    private final String notes;
+    private final String bookingDate;
+
+    public Booking(int id, Integer userId, String name, String email, String phone, String wheelerType,
+                   String serviceType, double cost, String appointmentDate, String status, String notes,
+                   String bookingDate) {
+        this.id = id;
+        this.userId = userId;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.wheelerType = wheelerType;
+        this.serviceType = serviceType;
+        this.cost = cost;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.notes = notes;
+        this.bookingDate = bookingDate;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getWheelerType() {
+        return wheelerType;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public String getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public String getBookingDate() {
+        return bookingDate;
+    }
+}
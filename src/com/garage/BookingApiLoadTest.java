@@ -0,0 +1,201 @@
+package com.garage;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test for BookingApiServer: each simulated client sends its next request as
+// soon as the previous answer arrives, so the number of clients is the number of requests in
+// flight. Clients are asynchronous HttpClient chains rather than threads, so thousands of them
+// are cheap on the client side. The mix is mostly reads (list, stats, quote) plus a share of
+// creates, which are tagged in their notes and deleted again at the end.
+//   java -cp ... com.garage.BookingApiLoadTest http://127.0.0.1:8085 [clients] [seconds] [token]
+public final class BookingApiLoadTest {
+
+    private static final String[] OPERATIONS = {"list", "stats", "quote", "search", "create"};
+    // Cumulative percentages for OPERATIONS.
+    private static final int[] MIX = {50, 65, 80, 90, 100};
+    private static final int WARMUP_SECONDS = 3;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String token;
+    private final String marker = "loadtest-" + Long.toHexString(System.nanoTime());
+    private final Map<String, Queue<Long>> latencies = Map.of(
+            "list", new ConcurrentLinkedQueue<>(), "stats", new ConcurrentLinkedQueue<>(),
+            "quote", new ConcurrentLinkedQueue<>(), "search", new ConcurrentLinkedQueue<>(),
+            "create", new ConcurrentLinkedQueue<>());
+    private final Queue<Integer> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean recording = false;
+    private volatile long stopAtNanos;
+
+    private BookingApiLoadTest(String baseUrl, String token) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.token = token;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BookingApiLoadTest <base url> [clients] [seconds] [token]");
+            System.exit(2);
+        }
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String token = args.length > 3 ? args[3] : AppConfig.get("JAVA_API_TOKEN");
+        new BookingApiLoadTest(args[0], token).run(clients, seconds);
+    }
+
+    private void run(int clients, int seconds) throws Exception {
+        System.out.printf(Locale.ROOT, "%d clients for %d s (after %d s warm-up) against %s%n",
+                clients, seconds, WARMUP_SECONDS, baseUrl);
+        long start = System.nanoTime();
+        stopAtNanos = start + (WARMUP_SECONDS + seconds) * 1_000_000_000L;
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            loop(done);
+            loops.add(done);
+        }
+        Thread.sleep(WARMUP_SECONDS * 1000L);
+        latencies.values().forEach(Queue::clear);
+        errors.set(0);
+        recording = true;
+        long measuredFrom = System.nanoTime();
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture<?>[0])).join();
+        double measured = (System.nanoTime() - measuredFrom) / 1_000_000_000.0;
+
+        report(measured);
+        cleanUp();
+    }
+
+    // Sends one request, then the next from its completion, until the run is over.
+    private void loop(CompletableFuture<Void> done) {
+        if (System.nanoTime() >= stopAtNanos) {
+            done.complete(null);
+            return;
+        }
+        String operation = pickOperation();
+        HttpRequest request = request(operation);
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long elapsed = System.nanoTime() - sent;
+            boolean ok = failure == null && response.statusCode() < 300;
+            if (ok && operation.equals("create")) {
+                createdIds.add(Integer.parseInt(Json.parseObject(response.body()).get("id")));
+            }
+            if (recording && System.nanoTime() < stopAtNanos) {
+                if (ok) {
+                    latencies.get(operation).add(elapsed);
+                } else {
+                    errors.incrementAndGet();
+                    if (errors.get() <= 5) {
+                        System.err.println(operation + " failed: "
+                                + (failure != null ? failure : response.statusCode() + " " + response.body()));
+                    }
+                }
+            }
+            loop(done);
+        });
+    }
+
+    private String pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (int i = 0; i < MIX.length; i++) {
+            if (roll < MIX[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[0];
+    }
+
+    private HttpRequest request(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case "list" -> get("/api/bookings?limit=20");
+            case "stats" -> get("/api/stats");
+            case "quote" -> get("/api/quote?vehicle=" + (2 + random.nextInt(3)) + "+Wheeler&premium=" + random.nextBoolean());
+            case "search" -> get("/api/bookings/search?limit=10&q=" + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26)));
+            default -> {
+                StringBuilder json = new StringBuilder("{\"name\":\"Load Test\",\"email\":\"load@example.com\",");
+                json.append("\"wheeler_type\":\"").append(2 + random.nextInt(3)).append(" Wheeler\",");
+                json.append("\"premium\":").append(random.nextBoolean()).append(',');
+                json.append("\"appointment_date\":\"2030-01-01 10:00\",\"notes\":");
+                Json.appendString(json, marker).append('}');
+                yield builder("/api/bookings")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+        if (token != null && !token.isEmpty()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private void report(double seconds) {
+        long total = 0;
+        System.out.printf(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s%n", "op", "requests", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (String operation : OPERATIONS) {
+            long[] sorted = latencies.get(operation).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            total += sorted.length;
+            System.out.printf(Locale.ROOT, "%-8s %9d %9.0f %9.1f %9.1f %9.1f%n", operation, sorted.length,
+                    sorted.length / seconds, percentile(sorted, 50), percentile(sorted, 99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.printf(Locale.ROOT, "total    %9d %9.0f   errors: %d%n", total, total / seconds, errors.get());
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Deletes the bookings this run created (they are tagged with this run's marker in their notes).
+    private void cleanUp() {
+        int deleted = 0;
+        Integer id;
+        while ((id = createdIds.poll()) != null) {
+            try {
+                HttpResponse<String> response = client.send(builder("/api/bookings/" + id).DELETE().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    deleted++;
+                }
+            } catch (Exception error) {
+                System.err.println("Could not delete booking " + id + " (notes '" + marker + "'): " + error.getMessage());
+            }
+        }
+        System.out.println("Deleted " + deleted + " bookings created by the test (" + marker + ")");
+    }
+}
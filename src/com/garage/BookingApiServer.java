@@ -0,0 +1,448 @@
+package com.garage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless JSON API over BookingService, on the JDK's built-in HTTP server:
+//   GET    /health
+//   GET    /api/bookings?user=&status=&before=&limit=     newest first; before= is the last id seen
+//   GET    /api/bookings/search?q=&user=&limit=
+//   GET    /api/bookings/{id}
+//   POST   /api/bookings                                  {"name", "email", "phone", "wheeler_type",
+//                                                          "premium", "appointment_date", "notes", "user_id"}
+//   PATCH  /api/bookings/{id}/status                      {"status": "Completed"}
+//   DELETE /api/bookings/{id}
+//   GET    /api/stats?user=
+//   GET    /api/quote?vehicle=2 Wheeler&premium=true
+//   GET    /metrics                                       Prometheus text (see Metrics)
+// Each request runs on its own virtual thread when the JVM has them (Java 21+), otherwise on a
+// fixed pool of JAVA_API_THREADS platform threads with at most JAVA_API_QUEUE requests waiting
+// for one; beyond that the server answers 503. Either way the ConnectionPool bounds how many
+// requests are in the database at once; the rest wait for a connection, not for a thread.
+// Start with: java -cp ... com.garage.GarageServiceApp --serve
+public final class BookingApiServer implements AutoCloseable {
+
+    private static final int DEFAULT_PORT = 8085;
+    private static final int DEFAULT_BACKLOG = 1024;
+    private static final int DEFAULT_THREADS = 200;
+    private static final int DEFAULT_QUEUE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int STOP_DELAY_SECONDS = 2;
+    // Set while a request the full platform-thread pool rejected runs on the server's dispatcher
+    // thread; handle() then answers 503 straight away instead of doing the work there.
+    private static final ThreadLocal<Boolean> REJECTED = ThreadLocal.withInitial(() -> false);
+
+    private final BookingService bookingService;
+    private final EmailDispatcher emailDispatcher;
+    private final byte[] token;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private BookingApiServer(BookingService bookingService, EmailDispatcher emailDispatcher, String token,
+                             HttpServer server, ExecutorService executor) {
+        this.bookingService = bookingService;
+        this.emailDispatcher = emailDispatcher;
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+        this.server = server;
+        this.executor = executor;
+    }
+
+    // emailDispatcher may be null, in which case no confirmation emails are queued.
+    public static BookingApiServer start(BookingService bookingService, EmailDispatcher emailDispatcher) throws IOException {
+        String host = AppConfig.getOrDefault("JAVA_API_HOST", "127.0.0.1");
+        int port = AppConfig.getInt("JAVA_API_PORT", DEFAULT_PORT);
+        int backlog = Math.max(1, AppConfig.getInt("JAVA_API_BACKLOG", DEFAULT_BACKLOG));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        ExecutorService executor = newExecutor();
+        BookingApiServer api = new BookingApiServer(bookingService, emailDispatcher,
+                AppConfig.get("JAVA_API_TOKEN"), server, executor);
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> api.handle(exchange, false, api::health));
+        server.createContext("/api/bookings", exchange -> api.handle(exchange, true, api::bookings));
+        server.createContext("/api/stats", exchange -> api.handle(exchange, true, api::stats));
+        server.createContext("/api/quote", exchange -> api.handle(exchange, true, api::quote));
+        server.createContext("/metrics", api::metrics);
+        server.start();
+        return api;
+    }
+
+    public static void main(String[] args) {
+        List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
+        if (!missingDb.isEmpty()) {
+            System.err.println("Missing required database configuration: " + String.join(", ", missingDb));
+            System.exit(1);
+        }
+
+        FlightRecording.startIfConfigured();
+        AppConfig.watchDotEnv();
+        ConnectionPool connectionPool = ConnectionPool.create(
+                AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"), AppConfig.get("JAVA_DB_PASSWORD"));
+        new SchemaMigrator(connectionPool).migrateAtStartup();
+        BookingStatsStore statsStore = new BookingStatsStore(connectionPool);
+        statsStore.scheduleReconciliation(true);
+        SettingsCache settingsCache = new SettingsCache(connectionPool);
+        settingsCache.loadAtStartup();
+        settingsCache.scheduleRefresh();
+        boolean emailEnabled = AppConfig.getBoolean("JAVA_EMAIL_ENABLED", false);
+        EmailDispatcher emailDispatcher = emailEnabled ? EmailDispatcher.start(connectionPool) : null;
+
+        try {
+            BookingApiServer api = start(new BookingService(connectionPool, statsStore, settingsCache), emailDispatcher);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                api.close();
+                if (emailDispatcher != null) {
+                    emailDispatcher.close();
+                }
+                connectionPool.close();
+            }));
+            System.out.println("Booking API listening on http://" + api.server.getAddress().getHostString() + ":"
+                    + api.server.getAddress().getPort() + " (" + api.describeExecutor() + ")");
+        } catch (IOException error) {
+            System.err.println("Could not start the booking API: " + error.getMessage());
+            connectionPool.close();
+            System.exit(1);
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+    }
+
+    // One virtual thread per request where available (Executors.newVirtualThreadPerTaskExecutor,
+    // Java 21+); looked up reflectively so the build keeps targeting Java 17.
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException notAvailable) {
+            int threads = Math.max(1, AppConfig.getInt("JAVA_API_THREADS", DEFAULT_THREADS));
+            int queue = Math.max(1, AppConfig.getInt("JAVA_API_QUEUE", DEFAULT_QUEUE));
+            AtomicInteger counter = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), runnable -> {
+                Thread thread = new Thread(runnable, "garage-api-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, (rejected, pool) -> {
+                if (pool.isShutdown()) {
+                    return;
+                }
+                // The JDK server has no hook for rejected exchanges, so the dispatcher runs this one
+                // itself; with REJECTED set it only reads the request line and sends the 503.
+                REJECTED.set(true);
+                try {
+                    rejected.run();
+                } finally {
+                    REJECTED.set(false);
+                }
+            });
+        }
+    }
+
+    private String describeExecutor() {
+        return executor instanceof ThreadPoolExecutor pool
+                ? pool.getMaximumPoolSize() + " platform threads"
+                : "virtual threads";
+    }
+
+    private void handle(HttpExchange exchange, boolean authenticated, Route route) throws IOException {
+        try (exchange) {
+            if (REJECTED.get()) {
+                sendBusy(exchange);
+                return;
+            }
+            if (authenticated && !authorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, 401, "Missing or invalid bearer token");
+                return;
+            }
+            try {
+                String path = exchange.getRequestURI().getPath();
+                String body = route.handle(exchange, path.endsWith("/") && path.length() > 1
+                        ? path.substring(0, path.length() - 1) : path);
+                send(exchange, exchange.getRequestMethod().equals("POST") ? 201 : 200, body);
+            } catch (ApiException error) {
+                if (error.status == 405) {
+                    exchange.getResponseHeaders().set("Allow", error.getMessage());
+                    sendError(exchange, 405, "Method not allowed");
+                } else {
+                    sendError(exchange, error.status, error.getMessage());
+                }
+            } catch (IllegalArgumentException invalid) {
+                sendError(exchange, 400, invalid.getMessage());
+            } catch (SQLException | RuntimeException error) {
+                System.err.println("Booking API " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath() + " failed: " + error);
+                sendError(exchange, 500, "Internal error");
+            }
+        }
+    }
+
+    // Prometheus text rather than JSON, behind the same bearer token as the API.
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (REJECTED.get()) {
+            try (exchange) {
+                sendBusy(exchange);
+            }
+            return;
+        }
+        if (!authorized(exchange)) {
+            try (exchange) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, 401, "Missing or invalid bearer token");
+            }
+            return;
+        }
+        MetricsEndpoint.serve(exchange);
+    }
+
+    private String health(HttpExchange exchange, String path) {
+        requireMethod(exchange, "GET");
+        return "{\"status\":\"ok\"}";
+    }
+
+    private String bookings(HttpExchange exchange, String path) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        Map<String, String> query = queryParameters(exchange);
+        String[] parts = path.split("/");
+        // parts: "", "api", "bookings", then {id} / "search", then "status"
+        if (parts.length == 3) {
+            if (method.equals("POST")) {
+                return createBooking(exchange);
+            }
+            requireMethod(exchange, "GET, POST");
+            return bookingsJson(bookingService.listBookings(intParameter(query, "user"), query.get("status"),
+                    intParameter(query, "before"), limit(query)));
+        }
+        if (parts.length == 4 && parts[3].equals("search")) {
+            requireMethod(exchange, "GET");
+            return bookingsJson(bookingService.searchBookings(intParameter(query, "user"), query.get("q"), limit(query)));
+        }
+        int bookingId = bookingId(parts);
+        if (parts.length == 4) {
+            if (method.equals("DELETE")) {
+                if (!bookingService.deleteBooking(bookingId)) {
+                    throw new ApiException(404, "No booking " + bookingId);
+                }
+                return "{\"deleted\":" + bookingId + "}";
+            }
+            requireMethod(exchange, "GET, DELETE");
+            Booking booking = bookingService.getBooking(bookingId);
+            if (booking == null) {
+                throw new ApiException(404, "No booking " + bookingId);
+            }
+            return appendBooking(new StringBuilder(512), booking).toString();
+        }
+        if (parts.length == 5 && parts[4].equals("status")) {
+            if (!method.equals("PATCH") && !method.equals("PUT")) {
+                throw new ApiException(405, "PATCH, PUT");
+            }
+            String status = readJson(exchange).get("status");
+            if (!bookingService.updateStatus(bookingId, status)) {
+                throw new ApiException(404, "No booking " + bookingId);
+            }
+            StringBuilder json = new StringBuilder("{\"id\":").append(bookingId).append(",\"status\":");
+            return Json.appendString(json, status).append('}').toString();
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    private String createBooking(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> fields = readJson(exchange);
+        BookingService.BookingRequest request = new BookingService.BookingRequest(
+                fields.get("user_id") == null ? null : parseInt("user_id", fields.get("user_id")),
+                fields.get("name"),
+                fields.get("email"),
+                fields.get("phone"),
+                fields.get("wheeler_type"),
+                "true".equals(fields.get("premium")),
+                fields.get("appointment_date"),
+                fields.get("notes"));
+        Booking booking = bookingService.createBooking(request, emailDispatcher != null);
+        if (emailDispatcher != null) {
+            emailDispatcher.wake();
+        }
+        return appendBooking(new StringBuilder(512), booking).toString();
+    }
+
+    private String stats(HttpExchange exchange, String path) throws SQLException {
+        requireMethod(exchange, "GET");
+        BookingStats stats = bookingService.getStats(intParameter(queryParameters(exchange), "user"));
+        StringBuilder json = new StringBuilder(96).append("{\"total\":").append(stats.getTotal())
+                .append(",\"pending\":").append(stats.getPending())
+                .append(",\"completed\":").append(stats.getCompleted())
+                .append(",\"revenue\":");
+        return PricingEngine.appendAmount(json, stats.getRevenuePaise()).append('}').toString();
+    }
+
+    private String quote(HttpExchange exchange, String path) {
+        requireMethod(exchange, "GET");
+        Map<String, String> query = queryParameters(exchange);
+        String vehicle = query.get("vehicle");
+        boolean premium = "true".equals(query.get("premium"));
+        long cost = bookingService.getPricing().quote(vehicle, premium);
+        StringBuilder json = new StringBuilder("{\"vehicle\":");
+        Json.appendString(json, vehicle).append(",\"premium\":").append(premium).append(",\"cost\":");
+        return PricingEngine.appendAmount(json, cost).append('}').toString();
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        if (token == null) {
+            return true;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void requireMethod(HttpExchange exchange, String allowed) {
+        if (!allowed.equals(exchange.getRequestMethod()) && !allowed.startsWith(exchange.getRequestMethod() + ",")) {
+            throw new ApiException(405, allowed);
+        }
+    }
+
+    private static Map<String, String> readJson(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                if (body.size() + read > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        return Json.parseObject(body.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.put(key, value);
+        }
+        return parameters;
+    }
+
+    private static Integer intParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? null : parseInt(name, value);
+    }
+
+    private static int limit(Map<String, String> query) {
+        Integer limit = intParameter(query, "limit");
+        return limit == null ? DEFAULT_PAGE_SIZE : limit;
+    }
+
+    private static int bookingId(String[] parts) {
+        try {
+            return Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    private static String bookingsJson(List<Booking> bookings) {
+        StringBuilder json = new StringBuilder(64 + bookings.size() * 320).append('[');
+        for (int i = 0; i < bookings.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendBooking(json, bookings.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    private static StringBuilder appendBooking(StringBuilder json, Booking booking) {
+        json.append("{\"id\":").append(booking.getId());
+        json.append(",\"user_id\":").append(booking.getUserId());
+        Json.appendString(json.append(",\"name\":"), booking.getName());
+        Json.appendString(json.append(",\"email\":"), booking.getEmail());
+        Json.appendString(json.append(",\"phone\":"), booking.getPhone());
+        Json.appendString(json.append(",\"wheeler_type\":"), booking.getWheelerType());
+        Json.appendString(json.append(",\"service_type\":"), booking.getServiceType());
+        PricingEngine.appendAmount(json.append(",\"cost\":"), PricingEngine.toPaise(booking.getCost()));
+        Json.appendString(json.append(",\"appointment_date\":"), booking.getAppointmentDate());
+        Json.appendString(json.append(",\"status\":"), booking.getStatus());
+        Json.appendString(json.append(",\"notes\":"), booking.getNotes());
+        Json.appendString(json.append(",\"booking_date\":"), booking.getBookingDate());
+        return json.append('}');
+    }
+
+    private static void sendBusy(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        sendError(exchange, 503, "Server busy, try again shortly");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        send(exchange, status, Json.appendString(json, message).append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface Route {
+        String handle(HttpExchange exchange, String path) throws IOException, SQLException;
+    }
+
+    // An error response with a specific status; for 405 the message is the Allow header.
+    private static final class ApiException extends RuntimeException {
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.garage;
+
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Text for the primitive BookingRow columns, made when a cell is painted rather than for every
+// row loaded. One renderer of each kind is created per table and reused for all its cells.
+public final class BookingCellRenderers {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private BookingCellRenderers() {
+    }
+
+    // columns lists the table model's columns in model order.
+    public static void install(JTable table, BookingRow.Column[] columns) {
+        CostRenderer cost = new CostRenderer();
+        DateRenderer date = new DateRenderer();
+        TableColumnModel columnModel = table.getColumnModel();
+        for (int i = 0; i < columnModel.getColumnCount(); i++) {
+            BookingRow.Column column = columns[columnModel.getColumn(i).getModelIndex()];
+            if (column == BookingRow.Column.COST) {
+                columnModel.getColumn(i).setCellRenderer(cost);
+            } else if (column == BookingRow.Column.DATE) {
+                columnModel.getColumn(i).setCellRenderer(date);
+            }
+        }
+    }
+
+    // Paise as "Rs. 1234.50", right-aligned.
+    private static final class CostRenderer extends DefaultTableCellRenderer {
+        private CostRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            setText(value instanceof Long paise ? PricingEngine.format(paise) : "");
+        }
+    }
+
+    // Epoch milliseconds as local "yyyy-MM-dd HH:mm". Rows repaint often while scrolling, so
+    // the last value is remembered: neighbouring rows frequently share an appointment slot.
+    private static final class DateRenderer extends DefaultTableCellRenderer {
+        private final ZoneId zone = ZoneId.systemDefault();
+        private long lastMillis = BookingRow.NO_DATE;
+        private String lastText = "";
+
+        @Override
+        protected void setValue(Object value) {
+            if (!(value instanceof Long millis)) {
+                setText("");
+                return;
+            }
+            if (millis != lastMillis) {
+                lastText = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone).format(DATE_FORMAT);
+                lastMillis = millis;
+            }
+            setText(lastText);
+        }
+    }
+}
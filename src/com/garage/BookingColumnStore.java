@@ -0,0 +1,392 @@
+package com.garage;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+
+// Bookings held column by column for the in-memory History table: ids, appointment times and
+// costs (paise) in primitive arrays, and each text column as codes into that column's pool of
+// distinct strings, so a customer's name or a status shared by many rows is stored once.
+// Status, vehicle and service have a handful of values and take one byte per row; any text
+// column widens to int codes once it has more than 255 distinct values (names and emails do).
+// That is about 35 bytes per booking plus the distinct strings.
+// Filled by one thread, then handed over to and owned by the Event Dispatch Thread.
+public final class BookingColumnStore {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final Comparator<String> TEXT_ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private int size;
+    private int[] ids;
+    private long[] appointmentMillis;
+    private long[] costPaise;
+    private final CodeColumn names;
+    private final CodeColumn emails;
+    private final CodeColumn phones;
+    private final CodeColumn vehicles;
+    private final CodeColumn services;
+    private final CodeColumn statuses;
+
+    public BookingColumnStore() {
+        this(MIN_CAPACITY);
+    }
+
+    public BookingColumnStore(int capacity) {
+        int initial = Math.max(MIN_CAPACITY, capacity);
+        ids = new int[initial];
+        appointmentMillis = new long[initial];
+        costPaise = new long[initial];
+        names = new CodeColumn(initial);
+        emails = new CodeColumn(initial);
+        phones = new CodeColumn(initial);
+        vehicles = new CodeColumn(initial);
+        services = new CodeColumn(initial);
+        statuses = new CodeColumn(initial);
+    }
+
+    // Appends the current row of a query selecting BookingRow.SELECT_COLUMNS first. Reads by position.
+    public void add(ResultSet rs) throws SQLException {
+        Timestamp appointment = rs.getTimestamp(7);
+        add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6),
+                appointment == null ? BookingRow.NO_DATE : appointment.getTime(),
+                rs.getString(8), PricingEngine.toPaise(rs.getDouble(9)));
+    }
+
+    public void add(int id, String name, String email, String phone, String wheelerType, String serviceType,
+                    long appointment, String status, long cost) {
+        if (size == ids.length) {
+            resize(size + (size >> 1));
+        }
+        ids[size] = id;
+        names.set(size, name);
+        emails.set(size, email);
+        phones.set(size, phone);
+        vehicles.set(size, wheelerType);
+        services.set(size, serviceType);
+        appointmentMillis[size] = appointment;
+        statuses.set(size, status);
+        costPaise[size] = cost;
+        size++;
+    }
+
+    // Drops the spare capacity left by growing, once loading is done.
+    public void trimToSize() {
+        if (size < ids.length) {
+            resize(Math.max(MIN_CAPACITY, size));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public String getName(int row) {
+        return names.value(row);
+    }
+
+    public String getStatus(int row) {
+        return statuses.value(row);
+    }
+
+    public long getAppointmentMillis(int row) {
+        return appointmentMillis[row];
+    }
+
+    public long getCostPaise(int row) {
+        return costPaise[row];
+    }
+
+    // Boxes only the cell asked for; same values as BookingRow.Column.valueOf.
+    public Object valueAt(int row, BookingRow.Column column) {
+        return switch (column) {
+            case ID -> ids[row];
+            case DATE -> appointmentMillis[row] == BookingRow.NO_DATE ? null : appointmentMillis[row];
+            case COST -> costPaise[row];
+            default -> text(column).value(row);
+        };
+    }
+
+    // -1 if no row has the id. A linear scan: only used for single edits.
+    public int indexOfId(int id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public void setStatus(int row, String status) {
+        statuses.set(row, status);
+    }
+
+    public void remove(int row) {
+        int moved = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, moved);
+        System.arraycopy(appointmentMillis, row + 1, appointmentMillis, row, moved);
+        System.arraycopy(costPaise, row + 1, costPaise, row, moved);
+        for (CodeColumn column : textColumns()) {
+            column.remove(row, moved);
+        }
+        size--;
+    }
+
+    // For each of the given rows, an int that orders them as the column's values do, with equal
+    // values getting equal ranks, so sorting compares ints rather than boxed cells. Indexed by row;
+    // other rows are left 0. Text is ranked ignoring case, missing values first.
+    public int[] sortRanks(BookingRow.Column column, int[] rows) {
+        int[] ranks = new int[size];
+        switch (column) {
+            case ID -> {
+                for (int row : rows) {
+                    ranks[row] = ids[row];
+                }
+            }
+            case DATE -> rankValues(appointmentMillis, rows, ranks);
+            case COST -> rankValues(costPaise, rows, ranks);
+            default -> text(column).rankRows(rows, ranks);
+        }
+        return ranks;
+    }
+
+    private static void rankValues(long[] values, int[] rows, int[] ranks) {
+        // Usually the values fit an int once the smallest is subtracted (costs in paise, or
+        // appointments in whole seconds, as DATETIME stores them): that keeps order and ties
+        // without sorting. Otherwise, e.g. with a missing date, rank by sorted distinct value.
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        boolean wholeSeconds = true;
+        for (int row : rows) {
+            long value = values[row];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            wholeSeconds &= value % 1000 == 0;
+        }
+        long step = wholeSeconds ? 1000 : 1;
+        long span = max - min;
+        if (span >= 0 && span / step <= Integer.MAX_VALUE) {
+            for (int row : rows) {
+                ranks[row] = (int) ((values[row] - min) / step);
+            }
+            return;
+        }
+        long[] distinct = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            distinct[i] = values[rows[i]];
+        }
+        Arrays.sort(distinct);
+        int count = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (count == 0 || distinct[i] != distinct[count - 1]) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        for (int row : rows) {
+            ranks[row] = Arrays.binarySearch(distinct, 0, count, values[row]);
+        }
+    }
+
+    // Rows whose name, email, phone or vehicle contains the term, ignoring case: the fields the
+    // database search covers (BookingSearch). Each distinct value is tested once, then rows are
+    // matched by code. Valid until the store changes.
+    public IntPredicate matcher(String term) {
+        String needle = term == null ? "" : term.trim();
+        if (needle.isEmpty()) {
+            return row -> true;
+        }
+        IntPredicate name = names.matcher(needle);
+        IntPredicate email = emails.matcher(needle);
+        IntPredicate phone = phones.matcher(needle);
+        IntPredicate vehicle = vehicles.matcher(needle);
+        return row -> name.test(row) || email.test(row) || phone.test(row) || vehicle.test(row);
+    }
+
+    private CodeColumn text(BookingRow.Column column) {
+        return switch (column) {
+            case NAME -> names;
+            case EMAIL -> emails;
+            case PHONE -> phones;
+            case VEHICLE -> vehicles;
+            case SERVICE -> services;
+            case STATUS -> statuses;
+            default -> throw new IllegalArgumentException(column + " is not a text column");
+        };
+    }
+
+    private CodeColumn[] textColumns() {
+        return new CodeColumn[]{names, emails, phones, vehicles, services, statuses};
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        appointmentMillis = Arrays.copyOf(appointmentMillis, capacity);
+        costPaise = Arrays.copyOf(costPaise, capacity);
+        for (CodeColumn column : textColumns()) {
+            column.resize(capacity);
+        }
+    }
+
+    private static boolean containsIgnoreCase(String value, String needle) {
+        for (int i = 0, last = value.length() - needle.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One text column: a code per row (byte while there are at most 255 distinct values, then
+    // int) and the distinct values by code. Code 0 is null. Values are found by an open
+    // addressing table of codes, so interning a row's string allocates nothing.
+    private static final class CodeColumn {
+        private static final int MAX_BYTE_CODE = 255;
+
+        private byte[] narrowCodes;
+        private int[] wideCodes;
+        private String[] values = new String[16];
+        private int[] slots = new int[32];
+        private int distinct = 1;
+        private int[] ranks;
+
+        private CodeColumn(int capacity) {
+            narrowCodes = new byte[capacity];
+        }
+
+        private int code(int row) {
+            return wideCodes != null ? wideCodes[row] : narrowCodes[row] & 0xFF;
+        }
+
+        private String value(int row) {
+            return values[code(row)];
+        }
+
+        private void set(int row, String value) {
+            int code = intern(value);
+            if (wideCodes == null && code > MAX_BYTE_CODE) {
+                wideCodes = new int[narrowCodes.length];
+                for (int i = 0; i < narrowCodes.length; i++) {
+                    wideCodes[i] = narrowCodes[i] & 0xFF;
+                }
+                narrowCodes = null;
+            }
+            if (wideCodes != null) {
+                wideCodes[row] = code;
+            } else {
+                narrowCodes[row] = (byte) code;
+            }
+        }
+
+        private void resize(int capacity) {
+            if (wideCodes != null) {
+                wideCodes = Arrays.copyOf(wideCodes, capacity);
+            } else {
+                narrowCodes = Arrays.copyOf(narrowCodes, capacity);
+            }
+        }
+
+        private void remove(int row, int moved) {
+            if (wideCodes != null) {
+                System.arraycopy(wideCodes, row + 1, wideCodes, row, moved);
+            } else {
+                System.arraycopy(narrowCodes, row + 1, narrowCodes, row, moved);
+            }
+        }
+
+        private void rankRows(int[] rows, int[] rowRanks) {
+            int[] rankByCode = ranks();
+            if (wideCodes != null) {
+                for (int row : rows) {
+                    rowRanks[row] = rankByCode[wideCodes[row]];
+                }
+            } else {
+                for (int row : rows) {
+                    rowRanks[row] = rankByCode[narrowCodes[row] & 0xFF];
+                }
+            }
+        }
+
+        private IntPredicate matcher(String needle) {
+            boolean[] matches = new boolean[distinct];
+            boolean any = false;
+            for (int code = 1; code < distinct; code++) {
+                matches[code] = containsIgnoreCase(values[code], needle);
+                any |= matches[code];
+            }
+            if (!any) {
+                return row -> false;
+            }
+            if (wideCodes != null) {
+                int[] codes = wideCodes;
+                return row -> matches[codes[row]];
+            }
+            byte[] codes = narrowCodes;
+            return row -> matches[codes[row] & 0xFF];
+        }
+
+        // Sort position of each code's value, recomputed after new values were added.
+        private int[] ranks() {
+            if (ranks == null) {
+                String[] sorted = Arrays.copyOfRange(values, 1, distinct);
+                Arrays.sort(sorted, TEXT_ORDER);
+                int[] rankByCode = new int[distinct];
+                for (int rank = 0; rank < sorted.length; rank++) {
+                    rankByCode[find(sorted[rank])] = rank + 1;
+                }
+                ranks = rankByCode;
+            }
+            return ranks;
+        }
+
+        private int intern(String value) {
+            if (value == null) {
+                return 0;
+            }
+            int slot = slotOf(value);
+            if (slots[slot] != 0) {
+                return slots[slot];
+            }
+            int code = distinct++;
+            if (code == values.length) {
+                values = Arrays.copyOf(values, code * 2);
+            }
+            values[code] = value;
+            slots[slot] = code;
+            ranks = null;
+            if (distinct * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+            return code;
+        }
+
+        private int find(String value) {
+            return slots[slotOf(value)];
+        }
+
+        // The slot holding value's code, or the empty slot where it belongs.
+        private int slotOf(String value) {
+            int mask = slots.length - 1;
+            int hash = value.hashCode();
+            for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+                int code = slots[slot];
+                if (code == 0 || values[code].equals(value)) {
+                    return slot;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            slots = new int[capacity];
+            for (int code = 1; code < distinct; code++) {
+                slots[slotOf(values[code])] = code;
+            }
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Every statement against GarageServiceBookings that BookingService and the History table run.
+// All values are bound as parameters and statements with optional filters are built once per
+// combination, so each call uses one of a fixed set of texts, and the
+// driver's statement cache (see ConnectionPool.withDriverDefaults) prepares it once per pooled
+// connection. Rows come back as Booking objects, or as BookingRows for the History table.
+public final class BookingDao {
+
+    private static final String COLUMNS = "id, user_id, name, email, phone, wheeler_type, service_type, cost, "
+            + "appointment_date, status, notes, booking_date";
+
+    private static final String INSERT_SQL = "INSERT INTO GarageServiceBookings (user_id, name, email, phone, "
+            + "wheeler_type, service_type, cost, appointment_date, notes, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String BY_ID_SQL = "SELECT " + COLUMNS + " FROM GarageServiceBookings WHERE id = ?";
+    private static final String UPDATE_STATUS_SQL = "UPDATE GarageServiceBookings SET status = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM GarageServiceBookings WHERE id = ?";
+    private static final String RECENT_SQL = "SELECT " + COLUMNS + " FROM GarageServiceBookings "
+            + "ORDER BY booking_date DESC LIMIT ?";
+    private static final String RECENT_FOR_USER_SQL = "SELECT " + COLUMNS + " FROM GarageServiceBookings "
+            + "WHERE user_id = ? ORDER BY booking_date DESC LIMIT ?";
+
+    // list(): one statement per combination of filters, indexed by LIST_FOR_USER | LIST_BY_STATUS | LIST_BEFORE_ID.
+    private static final int LIST_FOR_USER = 1;
+    private static final int LIST_BY_STATUS = 2;
+    private static final int LIST_BEFORE_ID = 4;
+    private static final String[] LIST_SQL = listStatements();
+    // search(): indexed by SEARCH_FOR_USER | SEARCH_BY_RELEVANCE (the FULLTEXT index, otherwise LIKE).
+    private static final int SEARCH_FOR_USER = 1;
+    private static final int SEARCH_BY_RELEVANCE = 2;
+    private static final String[] SEARCH_SQL = searchStatements();
+
+    private static final String HISTORY_COLUMNS_SQL = "SELECT " + BookingRow.SELECT_COLUMNS
+            + " FROM GarageServiceBookings ORDER BY booking_date DESC, id DESC";
+    private static final String HISTORY_COLUMNS_FOR_USER_SQL = "SELECT " + BookingRow.SELECT_COLUMNS
+            + " FROM GarageServiceBookings WHERE user_id = ? ORDER BY booking_date DESC, id DESC";
+
+    // Sort keys of the History table's keyset pages: one per BookingRow.Column (by ordinal), then
+    // the default order and search relevance. Nullable columns are coalesced so keyset comparisons
+    // stay well defined.
+    private static final String[] HISTORY_SORT_KEYS = {
+        "id",
+        "name",
+        "email",
+        "COALESCE(phone, '')",
+        "wheeler_type",
+        "COALESCE(service_type, '')",
+        "COALESCE(appointment_date, '1000-01-01 00:00:00')",
+        "COALESCE(status, '')",
+        "cost",
+        "booking_date",
+        // Rounded so the score read back as a keyset position compares equal to the recomputed one.
+        "ROUND(" + BookingSearch.MATCH + ", 6)"
+    };
+    private static final int ID_SORT = BookingRow.Column.ID.ordinal();
+    private static final int DEFAULT_SORT = BookingRow.Column.values().length;
+    private static final int RELEVANCE_SORT = DEFAULT_SORT + 1;
+    private static final int SEARCH_NONE = 0;
+    private static final int SEARCH_FULL_TEXT = 1;
+    private static final int SEARCH_LIKE = 2;
+    // The sort key is selected after BookingRow.SELECT_COLUMNS.
+    private static final int SORT_KEY_COLUMN = BookingRow.Column.values().length + 1;
+    // One statement per page shape (see historyShape), built once; null for relevance without a search.
+    private static final String[] HISTORY_PAGE_SQL = historyPageStatements();
+    // Sample values for plannedQueries.
+    private static final String SAMPLE_TERM = "ra";
+    private static final String SAMPLE_AGAINST = "\"ra\"";
+    private static final Object[] SAMPLE_SORT_KEYS = {
+        Integer.MAX_VALUE, "m", "m", "m", "m", "m", "2030-01-01 00:00:00", "m", 500, "2030-01-01 00:00:00", 1.0
+    };
+
+    private final ConnectionPool connectionPool;
+
+    public BookingDao(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // Runs on the caller's connection, so it can share a transaction; returns the new id.
+    public int insert(Connection conn, Integer userId, String name, String email, String phone, String vehicleType,
+                      String serviceType, double cost, LocalDateTime appointment, String notes, String status)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            if (userId != null) {
+                stmt.setInt(1, userId);
+            } else {
+                stmt.setNull(1, Types.INTEGER);
+            }
+            stmt.setString(2, name);
+            stmt.setString(3, email);
+            stmt.setString(4, phone);
+            stmt.setString(5, vehicleType);
+            stmt.setString(6, serviceType);
+            stmt.setDouble(7, cost);
+            if (appointment != null) {
+                stmt.setTimestamp(8, Timestamp.valueOf(appointment));
+            } else {
+                stmt.setNull(8, Types.TIMESTAMP);
+            }
+            stmt.setString(9, notes);
+            stmt.setString(10, status);
+
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Booking insert returned no id");
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    public Booking findById(int bookingId) throws SQLException {
+        List<Booking> found = query(BY_ID_SQL, bookingId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    public List<Booking> recent(Integer userId, int limit) throws SQLException {
+        return userId == null ? query(RECENT_SQL, limit) : query(RECENT_FOR_USER_SQL, userId, limit);
+    }
+
+    // Newest first by id; each null filter is left out of the statement.
+    public List<Booking> list(Integer userId, String status, Integer beforeId, int limit) throws SQLException {
+        int filters = 0;
+        List<Object> parameters = new ArrayList<>(4);
+        if (userId != null) {
+            filters |= LIST_FOR_USER;
+            parameters.add(userId);
+        }
+        if (status != null) {
+            filters |= LIST_BY_STATUS;
+            parameters.add(status);
+        }
+        if (beforeId != null) {
+            filters |= LIST_BEFORE_ID;
+            parameters.add(beforeId);
+        }
+        parameters.add(limit);
+        return query(LIST_SQL[filters], parameters.toArray());
+    }
+
+    // Best matches first using the FULLTEXT index when against is given, otherwise LIKE on the
+    // term, newest first. See BookingSearch.
+    public List<Booking> search(Integer userId, String term, String against, int limit) throws SQLException {
+        List<Object> parameters = new ArrayList<>(8);
+        if (against != null) {
+            parameters.add(against);
+        } else {
+            for (int i = 0; i < BookingSearch.LIKE_PARAMETERS; i++) {
+                parameters.add(BookingSearch.likePattern(term));
+            }
+        }
+        if (userId != null) {
+            parameters.add(userId);
+        }
+        if (against != null) {
+            parameters.add(against);
+        }
+        parameters.add(limit);
+        int shape = (userId != null ? SEARCH_FOR_USER : 0) | (against != null ? SEARCH_BY_RELEVANCE : 0);
+        return query(SEARCH_SQL[shape], parameters.toArray());
+    }
+
+    // Every booking (of the user, when given) newest first, streamed straight into columns rather
+    // than Booking objects so a whole history fits in memory. See BookingColumnStore.
+    public BookingColumnStore loadColumns(Integer userId) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            return loadColumns(conn, userId);
+        }
+    }
+
+    // As loadColumns(userId), on the caller's connection.
+    public BookingColumnStore loadColumns(Connection conn, Integer userId) throws SQLException {
+        BookingColumnStore store = new BookingColumnStore();
+        try (PreparedStatement stmt = conn.prepareStatement(userId == null ? HISTORY_COLUMNS_SQL : HISTORY_COLUMNS_FOR_USER_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // As in BookingExport: Connector/J only streams row by row with this fetch size.
+            boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+            if (userId != null) {
+                stmt.setInt(1, userId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    store.add(rs);
+                }
+            }
+        }
+        store.trimToSize();
+        return store;
+    }
+
+    // One page of the History table, continuing after startKey (the previous page's last key, or
+    // null for the first page). Without a sortColumn it is newest first, or best match first for a
+    // FULLTEXT search (against is its BOOLEAN MODE query); with a term but no against it searches
+    // with LIKE. The statement is attached to cancellation while it runs.
+    public HistoryPage historyPage(Integer userId, String term, String against, BookingRow.Column sortColumn,
+                                   boolean ascending, Object[] startKey, int limit, QueryCancellation cancellation)
+            throws SQLException {
+        int search = against != null ? SEARCH_FULL_TEXT : term == null || term.isEmpty() ? SEARCH_NONE : SEARCH_LIKE;
+        int sort = sortColumn != null ? sortColumn.ordinal() : search == SEARCH_FULL_TEXT ? RELEVANCE_SORT : DEFAULT_SORT;
+        String sql = HISTORY_PAGE_SQL[historyShape(sort, ascending, userId != null, search, startKey != null)];
+        Object[] parameters = historyPageParameters(sort, userId, term, against, startKey, limit);
+
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            BookingRow[] rows = new BookingRow[limit];
+            int count = 0;
+            Object lastSortKey = null;
+            cancellation.attach(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && count < rows.length) {
+                    rows[count++] = BookingRow.read(rs);
+                    lastSortKey = rs.getObject(SORT_KEY_COLUMN);
+                }
+            } finally {
+                cancellation.detach();
+            }
+            Object[] lastKey = count == 0 ? null : new Object[]{lastSortKey, rows[count - 1].getId()};
+            return new HistoryPage(count == rows.length ? rows : Arrays.copyOf(rows, count), lastKey);
+        }
+    }
+
+    // Every query above with sample parameters, for QueryPlanCheck.
+    static List<PlannedQuery> plannedQueries() {
+        List<PlannedQuery> queries = new ArrayList<>();
+        queries.add(new PlannedQuery("booking by id", BY_ID_SQL, false, 1));
+        queries.add(new PlannedQuery("recent bookings (staff)", RECENT_SQL, false, 5));
+        queries.add(new PlannedQuery("recent bookings (customer)", RECENT_FOR_USER_SQL, false, 1, 5));
+        queries.add(new PlannedQuery("history in memory (staff)", HISTORY_COLUMNS_SQL, true));
+        queries.add(new PlannedQuery("history in memory (customer)", HISTORY_COLUMNS_FOR_USER_SQL, false, 1));
+        for (int filters = 0; filters < LIST_SQL.length; filters++) {
+            List<Object> parameters = new ArrayList<>(4);
+            StringBuilder name = new StringBuilder("list");
+            if ((filters & LIST_FOR_USER) != 0) {
+                name.append(" customer");
+                parameters.add(1);
+            }
+            if ((filters & LIST_BY_STATUS) != 0) {
+                name.append(" status");
+                parameters.add("Pending");
+            }
+            if ((filters & LIST_BEFORE_ID) != 0) {
+                name.append(" before-id");
+                parameters.add(Integer.MAX_VALUE);
+            }
+            parameters.add(100);
+            queries.add(new PlannedQuery(name.toString(), LIST_SQL[filters], false, parameters.toArray()));
+        }
+        for (int shape = 0; shape < SEARCH_SQL.length; shape++) {
+            boolean forUser = (shape & SEARCH_FOR_USER) != 0;
+            boolean byRelevance = (shape & SEARCH_BY_RELEVANCE) != 0;
+            List<Object> parameters = new ArrayList<>(8);
+            if (byRelevance) {
+                parameters.add(SAMPLE_AGAINST);
+            } else {
+                for (int i = 0; i < BookingSearch.LIKE_PARAMETERS; i++) {
+                    parameters.add(BookingSearch.likePattern(SAMPLE_TERM));
+                }
+            }
+            if (forUser) {
+                parameters.add(1);
+            }
+            if (byRelevance) {
+                parameters.add(SAMPLE_AGAINST);
+            }
+            parameters.add(100);
+            queries.add(new PlannedQuery("search " + (byRelevance ? "fulltext" : "like") + (forUser ? " customer" : ""),
+                    SEARCH_SQL[shape], !byRelevance && !forUser, parameters.toArray()));
+        }
+        for (int sort = 0; sort < HISTORY_SORT_KEYS.length; sort++) {
+            for (int search = SEARCH_NONE; search <= SEARCH_LIKE; search++) {
+                if (sort == RELEVANCE_SORT && search != SEARCH_FULL_TEXT) {
+                    continue;
+                }
+                for (int flags = 0; flags < 8; flags++) {
+                    boolean ascending = (flags & 1) != 0;
+                    boolean forUser = (flags & 2) != 0;
+                    boolean nextPage = (flags & 4) != 0;
+                    String sql = HISTORY_PAGE_SQL[historyShape(sort, ascending, forUser, search, nextPage)];
+                    Object[] parameters = historyPageParameters(sort, forUser ? 1 : null,
+                            search == SEARCH_NONE ? "" : SAMPLE_TERM, search == SEARCH_FULL_TEXT ? SAMPLE_AGAINST : null,
+                            nextPage ? new Object[]{SAMPLE_SORT_KEYS[sort], Integer.MAX_VALUE} : null, 100);
+                    // Staff pages in a column order without an index, or searched with LIKE, read every row.
+                    boolean fullScan = !forUser && search != SEARCH_FULL_TEXT
+                            && (search == SEARCH_LIKE || (sort != ID_SORT && sort != DEFAULT_SORT));
+                    String name = "history " + (sort < DEFAULT_SORT ? BookingRow.Column.values()[sort].name().toLowerCase()
+                            : sort == DEFAULT_SORT ? "newest" : "relevance")
+                            + (ascending ? " asc" : " desc") + (forUser ? " customer" : "")
+                            + (search == SEARCH_FULL_TEXT ? " fulltext" : search == SEARCH_LIKE ? " like" : "")
+                            + (nextPage ? " next" : " first");
+                    queries.add(new PlannedQuery(name, sql, fullScan, parameters));
+                }
+            }
+        }
+        return queries;
+    }
+
+    // Returns the number of rows changed: 0 if there is no such booking.
+    public int updateStatus(int bookingId, String status) throws SQLException {
+        return update(UPDATE_STATUS_SQL, status, bookingId);
+    }
+
+    public int delete(int bookingId) throws SQLException {
+        return update(DELETE_SQL, bookingId);
+    }
+
+    private List<Booking> query(String sql, Object... parameters) throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(map(rs));
+                }
+            }
+        }
+        return bookings;
+    }
+
+    private int update(String sql, Object... parameters) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static String[] listStatements() {
+        String[] statements = new String[8];
+        for (int filters = 0; filters < statements.length; filters++) {
+            List<String> conditions = new ArrayList<>(3);
+            if ((filters & LIST_FOR_USER) != 0) {
+                conditions.add("user_id = ?");
+            }
+            if ((filters & LIST_BY_STATUS) != 0) {
+                conditions.add("status = ?");
+            }
+            if ((filters & LIST_BEFORE_ID) != 0) {
+                conditions.add("id < ?");
+            }
+            statements[filters] = "SELECT " + COLUMNS + " FROM GarageServiceBookings"
+                    + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                    + " ORDER BY id DESC LIMIT ?";
+        }
+        return statements;
+    }
+
+    private static String[] searchStatements() {
+        String[] statements = new String[4];
+        for (int shape = 0; shape < statements.length; shape++) {
+            boolean byRelevance = (shape & SEARCH_BY_RELEVANCE) != 0;
+            statements[shape] = "SELECT " + COLUMNS + " FROM GarageServiceBookings WHERE "
+                    + (byRelevance ? BookingSearch.MATCH : BookingSearch.LIKE)
+                    + ((shape & SEARCH_FOR_USER) != 0 ? " AND user_id = ?" : "")
+                    + (byRelevance ? " ORDER BY " + BookingSearch.MATCH + " DESC, id DESC" : " ORDER BY id DESC")
+                    + " LIMIT ?";
+        }
+        return statements;
+    }
+
+    private static int historyShape(int sort, boolean ascending, boolean forUser, int search, boolean nextPage) {
+        return (((sort * 2 + (ascending ? 1 : 0)) * 2 + (forUser ? 1 : 0)) * 3 + search) * 2 + (nextPage ? 1 : 0);
+    }
+
+    private static String[] historyPageStatements() {
+        String[] statements = new String[HISTORY_SORT_KEYS.length * 2 * 2 * 3 * 2];
+        for (int sort = 0; sort < HISTORY_SORT_KEYS.length; sort++) {
+            for (int search = SEARCH_NONE; search <= SEARCH_LIKE; search++) {
+                if (sort == RELEVANCE_SORT && search != SEARCH_FULL_TEXT) {
+                    continue;
+                }
+                for (int flags = 0; flags < 8; flags++) {
+                    boolean ascending = (flags & 1) != 0;
+                    boolean forUser = (flags & 2) != 0;
+                    boolean nextPage = (flags & 4) != 0;
+                    statements[historyShape(sort, ascending, forUser, search, nextPage)] =
+                            historyPageSql(sort, ascending, forUser, search, nextPage);
+                }
+            }
+        }
+        return statements;
+    }
+
+    // Parameters in the order of historyPageParameters.
+    private static String historyPageSql(int sort, boolean ascending, boolean forUser, int search, boolean nextPage) {
+        String key = HISTORY_SORT_KEYS[sort];
+        String direction = ascending ? " ASC" : " DESC";
+        String comparison = ascending ? " > ?" : " < ?";
+        List<String> conditions = new ArrayList<>(3);
+        if (forUser) {
+            conditions.add("user_id = ?");
+        }
+        if (search == SEARCH_FULL_TEXT) {
+            conditions.add(BookingSearch.MATCH);
+        } else if (search == SEARCH_LIKE) {
+            conditions.add(BookingSearch.LIKE);
+        }
+        if (nextPage) {
+            conditions.add(sort == ID_SORT ? "id" + comparison
+                    : "(" + key + comparison + " OR (" + key + " = ? AND id" + comparison + "))");
+        }
+        return "SELECT " + BookingRow.SELECT_COLUMNS + ", " + key + " AS sort_key FROM GarageServiceBookings"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + (sort == ID_SORT ? "" : "sort_key" + direction + ", ") + "id" + direction + " LIMIT ?";
+    }
+
+    private static Object[] historyPageParameters(int sort, Integer userId, String term, String against,
+                                                  Object[] startKey, int limit) {
+        boolean byRelevance = sort == RELEVANCE_SORT;
+        List<Object> parameters = new ArrayList<>(12);
+        if (byRelevance) {
+            parameters.add(against);
+        }
+        if (userId != null) {
+            parameters.add(userId);
+        }
+        if (against != null) {
+            parameters.add(against);
+        } else if (term != null && !term.isEmpty()) {
+            String pattern = BookingSearch.likePattern(term);
+            for (int i = 0; i < BookingSearch.LIKE_PARAMETERS; i++) {
+                parameters.add(pattern);
+            }
+        }
+        if (startKey != null) {
+            if (sort != ID_SORT) {
+                for (int i = 0; i < 2; i++) {
+                    if (byRelevance) {
+                        parameters.add(against);
+                    }
+                    parameters.add(startKey[0]);
+                }
+            }
+            parameters.add(startKey[1]);
+        }
+        parameters.add(limit);
+        return parameters.toArray();
+    }
+
+    private static Booking map(ResultSet rs) throws SQLException {
+        int userId = rs.getInt("user_id");
+        boolean noUser = rs.wasNull();
+        return new Booking(
+                rs.getInt("id"),
+                noUser ? null : userId,
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("wheeler_type"),
+                rs.getString("service_type"),
+                rs.getDouble("cost"),
+                rs.getString("appointment_date"),
+                rs.getString("status"),
+                rs.getString("notes"),
+                rs.getString("booking_date"));
+    }
+
+    // Rows of one History page and the keyset position after its last row (null if it is empty).
+    public static final class HistoryPage {
+        private final BookingRow[] rows;
+        private final Object[] lastKey;
+
+        private HistoryPage(BookingRow[] rows, Object[] lastKey) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+
+        public BookingRow[] getRows() {
+            return rows;
+        }
+
+        public Object[] getLastKey() {
+            return lastKey;
+        }
+    }
+}
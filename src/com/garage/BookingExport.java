@@ -0,0 +1,301 @@
+package com.garage;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+// Exports GarageServiceBookings to CSV or JSON Lines, optionally gzipped (chosen by the file
+// name: .csv, .csv.gz, .jsonl, .jsonl.gz). Rows are streamed from a forward-only result set
+// and written as they arrive, so heap use does not depend on the number of rows. The file is
+// written under a temporary name and only moved into place when the export completes.
+// Used by the History tab and from the command line:
+//   java -cp ... com.garage.GarageServiceApp --export bookings.csv.gz [--from yyyy-MM-dd] [--to yyyy-MM-dd]
+//       [--status Completed] [--user 42]
+public final class BookingExport {
+
+    private static final String[] COLUMNS = {
+        "id", "user_id", "name", "email", "phone", "wheeler_type", "service_type",
+        "cost", "appointment_date", "status", "notes", "booking_date"
+    };
+    private static final int PROGRESS_EVERY_ROWS = 5000;
+
+    private final ConnectionPool connectionPool;
+    private final Filter filter;
+    private final Path target;
+
+    private volatile boolean cancelled = false;
+    private volatile PreparedStatement running;
+
+    public BookingExport(ConnectionPool connectionPool, Filter filter, Path target) {
+        this.connectionPool = connectionPool;
+        this.filter = filter;
+        this.target = target;
+    }
+
+    public static void main(String[] args) {
+        Path target = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        String status = null;
+        Integer userId = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("--") && i + 1 >= args.length) {
+                    throw new IllegalArgumentException(args[i] + " needs a value");
+                }
+                switch (args[i]) {
+                    case "--from" -> from = LocalDate.parse(args[++i]);
+                    case "--to" -> to = LocalDate.parse(args[++i]);
+                    case "--status" -> status = args[++i];
+                    case "--user" -> userId = Integer.valueOf(args[++i]);
+                    default -> target = Paths.get(args[i]);
+                }
+            }
+        } catch (RuntimeException invalid) {
+            System.err.println("Invalid export arguments: " + invalid.getMessage());
+            target = null;
+        }
+        if (target == null) {
+            System.err.println("Usage: --export <file.csv|file.csv.gz|file.jsonl|file.jsonl.gz> "
+                    + "[--from yyyy-MM-dd] [--to yyyy-MM-dd] [--status S] [--user ID]");
+            System.exit(2);
+        }
+
+        List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
+        if (!missingDb.isEmpty()) {
+            System.err.println("Missing required database configuration: " + String.join(", ", missingDb));
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        try (ConnectionPool pool = ConnectionPool.create(
+                AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"), AppConfig.get("JAVA_DB_PASSWORD"))) {
+            BookingExport export = new BookingExport(pool, new Filter(from, to, status, userId), target);
+            long rows = export.run(count -> System.out.println(count + " rows exported"));
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf(Locale.ROOT, "Exported %d rows to %s in %.1f s (%.0f rows/s)%n",
+                    rows, target, seconds, rows / Math.max(seconds, 1e-9));
+        } catch (IOException | SQLException error) {
+            System.err.println("Export failed: " + error.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Stops a running export from another thread; run() then throws CancellationException.
+    public void cancel() {
+        cancelled = true;
+        PreparedStatement stmt = running;
+        if (stmt != null) {
+            // The driver opens a connection to kill the query, so keep that off the caller's (EDT) thread.
+            Thread canceller = new Thread(() -> {
+                try {
+                    stmt.cancel();
+                } catch (SQLException | RuntimeException ignored) {
+                    // Already finished or closed.
+                }
+            }, "garage-export-cancel");
+            canceller.setDaemon(true);
+            canceller.start();
+        }
+    }
+
+    // Writes the file and returns the number of rows. progress receives the running row count
+    // every few thousand rows (on the calling thread).
+    public long run(LongConsumer progress) throws SQLException, IOException {
+        String name = target.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        boolean json = name.endsWith(".jsonl") || name.endsWith(".jsonl.gz")
+                || name.endsWith(".ndjson") || name.endsWith(".ndjson.gz");
+
+        Path parent = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+        try {
+            long rows;
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024);
+                 OutputStream out = gzip ? new GZIPOutputStream(file, 64 * 1024) : file;
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+                rows = write(writer, json, progress);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private long write(Writer writer, boolean json, LongConsumer progress) throws SQLException, IOException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildQuery(parameters);
+
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams row by row only with this fetch size; otherwise it buffers the whole result.
+            boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            if (!json) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write("\r\n");
+            }
+
+            long rows = 0;
+            running = stmt;
+            try {
+                if (cancelled) {
+                    throw new CancellationException("Export cancelled");
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (cancelled) {
+                            throw new CancellationException("Export cancelled");
+                        }
+                        if (json) {
+                            writeJson(writer, rs);
+                        } else {
+                            writeCsv(writer, rs);
+                        }
+                        rows++;
+                        if (rows % PROGRESS_EVERY_ROWS == 0) {
+                            progress.accept(rows);
+                        }
+                    }
+                }
+            } catch (SQLException error) {
+                if (cancelled) {
+                    throw new CancellationException("Export cancelled");
+                }
+                throw error;
+            } finally {
+                running = null;
+            }
+            progress.accept(rows);
+            return rows;
+        }
+    }
+
+    private String buildQuery(List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS))
+                .append(" FROM GarageServiceBookings WHERE 1 = 1");
+        if (filter.from != null) {
+            sql.append(" AND booking_date >= ?");
+            parameters.add(Timestamp.valueOf(filter.from.atStartOfDay()));
+        }
+        if (filter.to != null) {
+            sql.append(" AND booking_date < ?");
+            parameters.add(Timestamp.valueOf(filter.to.plusDays(1).atStartOfDay()));
+        }
+        if (filter.status != null) {
+            sql.append(" AND status = ?");
+            parameters.add(filter.status);
+        }
+        if (filter.userId != null) {
+            sql.append(" AND user_id = ?");
+            parameters.add(filter.userId);
+        }
+        // Primary key order needs no sort, so the first rows arrive as soon as the scan starts.
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws SQLException, IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = rs.getString(i + 1);
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+            } else {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeJson(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write('{');
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(COLUMNS[i]);
+            writer.write("\":");
+
+            String value = rs.getString(i + 1);
+            String column = COLUMNS[i];
+            if (value == null) {
+                writer.write("null");
+            } else if (column.equals("id") || column.equals("user_id") || column.equals("cost")) {
+                writer.write(value);
+            } else {
+                writeJsonString(writer, value);
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    // Which bookings to export; null fields do not filter. Dates are inclusive booking dates.
+    public static final class Filter {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final String status;
+        private final Integer userId;
+
+        public Filter(LocalDate from, LocalDate to, String status, Integer userId) {
+            this.from = from;
+            this.to = to;
+            this.status = status;
+            this.userId = userId;
+        }
+    }
+}
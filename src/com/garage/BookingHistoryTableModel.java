@@ -0,0 +1,347 @@
+package com.garage;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Booking History table that only holds the pages the user has scrolled to.
+// Pages are fetched with keyset pagination (sort value + id of the previous page's
+// last row, see BookingDao.historyPage), so the cost of a page does not grow with its
+// position, and sorting is done by the database. Only a bounded number of pages is cached; an evicted page is
+// fetched again from its remembered start key when it scrolls back into view.
+// All state is owned by the Event Dispatch Thread; queries run on BackgroundTasks.
+// Searches use the ngram FULLTEXT index on name/email/phone/vehicle (sql/setup.sql) and,
+// unless the user picked a sort column, are ordered by relevance. A reload cancels the
+// queries of the previous search, so typing does not queue up superseded scans.
+public final class BookingHistoryTableModel extends AbstractTableModel {
+
+    private static final BookingRow.Column[] COLUMNS = BookingRow.Column.values();
+
+    private static final int NO_SORT_COLUMN = -1;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_CACHED_PAGES = 20;
+    private static final OperationMetrics HISTORY_METRICS = Metrics.operation(Metrics.HISTORY_LOAD);
+    private static final OperationMetrics SEARCH_METRICS = Metrics.operation(Metrics.SEARCH);
+
+    private static final ExecutorService CANCELLER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "garage-query-cancel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BookingDao bookings;
+    private final int pageSize;
+    private final Map<Integer, BookingDao.HistoryPage> cache;
+    // startKeys.get(p) is the keyset position page p starts after (null for the first page).
+    // Keys are kept for every page seen, so evicted pages can be fetched again directly.
+    private final List<Object[]> startKeys = new ArrayList<>();
+    private final Map<Integer, PageRequest> pagesInFlight = new HashMap<>();
+
+    private Integer userId;
+    private String searchTerm = "";
+    private int sortColumn = NO_SORT_COLUMN;
+    private boolean ascending = false;
+
+    private int rowCount = 0;
+    private boolean hasMore = true;
+    private int generation = 0;
+    private String lastError = null;
+    private Runnable stateListener = () -> { };
+
+    public BookingHistoryTableModel(ConnectionPool connectionPool) {
+        this.bookings = new BookingDao(connectionPool);
+        this.pageSize = Math.max(10, AppConfig.getInt("JAVA_HISTORY_PAGE_SIZE", DEFAULT_PAGE_SIZE));
+        int cachedPages = Math.max(2, AppConfig.getInt("JAVA_HISTORY_CACHED_PAGES", DEFAULT_CACHED_PAGES));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BookingDao.HistoryPage> eldest) {
+                return size() > cachedPages;
+            }
+        };
+    }
+
+    public void setStateListener(Runnable stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    // Does nothing when the term is unchanged, so a debounced search field can call it freely.
+    public void setSearchTerm(String searchTerm) {
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (term.equals(this.searchTerm)) {
+            return;
+        }
+        this.searchTerm = term;
+        reload();
+    }
+
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    // Clicking the same column flips the direction; a new column starts ascending.
+    public void toggleSort(int column) {
+        if (column < 0 || column >= COLUMNS.length) {
+            return;
+        }
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        reload();
+    }
+
+    public void reload() {
+        generation++;
+        cancelSupersededQueries();
+        cache.clear();
+        startKeys.clear();
+        rowCount = 0;
+        hasMore = true;
+        lastError = null;
+        startKeys.add(null);
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    public boolean isLoading() {
+        return !pagesInFlight.isEmpty();
+    }
+
+    public boolean hasMoreRows() {
+        return hasMore;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    // Model order, for BookingCellRenderers.install.
+    public BookingRow.Column[] getColumns() {
+        return COLUMNS.clone();
+    }
+
+    // Returns -1 when the row's page is not currently loaded.
+    public int getBookingId(int row) {
+        BookingRow loaded = loadedRow(row);
+        return loaded == null ? -1 : loaded.getId();
+    }
+
+    public void updateStatus(int bookingId, String newStatus) {
+        int statusColumn = BookingRow.Column.STATUS.ordinal();
+        for (Map.Entry<Integer, BookingDao.HistoryPage> entry : cache.entrySet()) {
+            BookingRow[] rows = entry.getValue().getRows();
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i].getId() == bookingId) {
+                    rows[i] = rows[i].withStatus(newStatus);
+                    int row = entry.getKey() * pageSize + i;
+                    fireTableCellUpdated(row, statusColumn);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column != sortColumn) {
+            return COLUMNS[column].getTitle();
+        }
+        return COLUMNS[column].getTitle() + (ascending ? " ▲" : " ▼");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMNS[column].getType();
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / pageSize;
+        BookingRow loaded = loadedRow(row);
+
+        // Prefetch the next page as soon as the last loaded page becomes visible.
+        if (hasMore && page + 1 == startKeys.size() - 1) {
+            requestPage(page + 1);
+        }
+
+        if (loaded == null) {
+            requestPage(page);
+            return column == BookingRow.Column.NAME.ordinal() ? "Loading…" : null;
+        }
+        return COLUMNS[column].valueOf(loaded);
+    }
+
+    private BookingRow loadedRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        BookingDao.HistoryPage page = cache.get(row / pageSize);
+        int offset = row % pageSize;
+        if (page == null || offset >= page.getRows().length) {
+            return null;
+        }
+        return page.getRows()[offset];
+    }
+
+    private void requestPage(int page) {
+        // After a failure nothing is fetched automatically until the next reload.
+        if (page >= startKeys.size() || lastError != null
+                || pagesInFlight.containsKey(page) || cache.containsKey(page)) {
+            return;
+        }
+
+        int requestGeneration = generation;
+        QueryCancellation cancellation = new QueryCancellation();
+        PageQuery query = new PageQuery(cancellation, userId, searchTerm, sortColumn, ascending,
+                startKeys.get(page), pageSize);
+        Future<?> task = BackgroundTasks.run(
+                () -> fetchPage(query),
+                loaded -> onPageLoaded(requestGeneration, page, loaded),
+                error -> onPageFailed(requestGeneration, page, error));
+        pagesInFlight.put(page, new PageRequest(task, cancellation));
+        stateListener.run();
+    }
+
+    // Called after generation moved on, so every page in flight is superseded: queued ones are
+    // dropped, and statements already running are cancelled on the server (off the EDT, since the
+    // driver opens a connection for it). QueryCancellation only cancels a statement its fetch still owns.
+    private void cancelSupersededQueries() {
+        for (PageRequest pending : pagesInFlight.values()) {
+            pending.task.cancel(false);
+            CANCELLER.execute(pending.cancellation::cancel);
+        }
+        pagesInFlight.clear();
+    }
+
+    private void onPageLoaded(int requestGeneration, int page, BookingDao.HistoryPage loaded) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pagesInFlight.remove(page);
+        cache.put(page, loaded);
+
+        int firstRow = page * pageSize;
+        int lastRow = firstRow + loaded.getRows().length;
+        if (page == startKeys.size() - 1) {
+            hasMore = loaded.getRows().length == pageSize;
+            if (hasMore) {
+                startKeys.add(loaded.getLastKey());
+            }
+        }
+        if (lastRow > rowCount) {
+            int previousCount = rowCount;
+            rowCount = lastRow;
+            if (previousCount > firstRow) {
+                fireTableRowsUpdated(firstRow, previousCount - 1);
+            }
+            fireTableRowsInserted(previousCount, rowCount - 1);
+        } else if (loaded.getRows().length > 0) {
+            fireTableRowsUpdated(firstRow, lastRow - 1);
+        }
+        stateListener.run();
+    }
+
+    private void onPageFailed(int requestGeneration, int page, Exception error) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pagesInFlight.remove(page);
+        lastError = error.getMessage() == null ? error.toString() : error.getMessage();
+        error.printStackTrace();
+        stateListener.run();
+    }
+
+    // Timed as a search when there is a search term, otherwise as a history load. Queries cancelled
+    // because a newer search superseded them are counted as cancelled, not as errors.
+    private BookingDao.HistoryPage fetchPage(PageQuery query) throws SQLException {
+        OperationMetrics metrics = query.searchTerm.isEmpty() ? HISTORY_METRICS : SEARCH_METRICS;
+        long started = metrics.begin();
+        boolean ok = false;
+        try {
+            BookingDao.HistoryPage page = fetchPageWithFallback(query);
+            ok = true;
+            return page;
+        } finally {
+            if (!ok && query.cancellation.isCancelled()) {
+                metrics.endCancelled(started);
+            } else {
+                metrics.end(started, ok);
+            }
+        }
+    }
+
+    private BookingDao.HistoryPage fetchPageWithFallback(PageQuery query) throws SQLException {
+        String against = query.searchTerm.isEmpty() ? null : BookingSearch.fullTextQuery(query.searchTerm);
+        try {
+            return fetchPage(query, against);
+        } catch (SQLException error) {
+            // A relevance keyset cannot be continued without the index, so only a first page falls back.
+            if (against == null || query.startKey != null || !BookingSearch.fallBackToLike(error)) {
+                throw error;
+            }
+            return fetchPage(query, null);
+        }
+    }
+
+    // against is the BOOLEAN MODE query for the FULLTEXT index, or null to search with LIKE.
+    private BookingDao.HistoryPage fetchPage(PageQuery query, String against) throws SQLException {
+        BookingRow.Column sortColumn = query.sortColumn == NO_SORT_COLUMN ? null : COLUMNS[query.sortColumn];
+        return bookings.historyPage(query.userId, query.searchTerm, against, sortColumn, query.ascending,
+                query.startKey, query.pageSize, query.cancellation);
+    }
+
+    private static final class PageRequest {
+        private final Future<?> task;
+        private final QueryCancellation cancellation;
+
+        private PageRequest(Future<?> task, QueryCancellation cancellation) {
+            this.task = task;
+            this.cancellation = cancellation;
+        }
+    }
+
+    private static final class PageQuery {
+        private final QueryCancellation cancellation;
+        private final Integer userId;
+        private final String searchTerm;
+        private final int sortColumn;
+        private final boolean ascending;
+        private final Object[] startKey;
+        private final int pageSize;
+
+        private PageQuery(QueryCancellation cancellation, Integer userId, String searchTerm, int sortColumn, boolean ascending,
+                          Object[] startKey, int pageSize) {
+            this.cancellation = cancellation;
+            this.userId = userId;
+            this.searchTerm = searchTerm;
+            this.sortColumn = sortColumn;
+            this.ascending = ascending;
+            this.startKey = startKey;
+            this.pageSize = pageSize;
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package com.garage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Bulk import of bookings from another branch or a legacy spreadsheet:
+//   java -cp ... com.garage.GarageServiceApp --import bookings.csv [--format csv|jsonl] [--dry-run] [--start-line N]
+// The file is streamed record by record (CSV with a header row, or one JSON object per line),
+// so memory stays constant however large it is. Each row is validated and priced with the
+// cost rules from the Settings table, then written with batched multi-row INSERTs inside
+// transactions of JAVA_IMPORT_CHUNK_ROWS rows. A bad row is reported and skipped; the rest of
+// the file still loads. If the load stops early, --start-line resumes after the last committed line.
+public final class BookingImport {
+
+    private static final int DEFAULT_BATCH_ROWS = 500;
+    private static final int DEFAULT_CHUNK_ROWS = 5000;
+
+    private static final String INSERT_SQL = "INSERT INTO GarageServiceBookings (name, email, phone, wheeler_type, "
+            + "service_type, cost, appointment_date, status, notes, booking_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
+
+    private static final String[] STATUSES = {"Pending", "Confirmed", "In Progress", "Completed", "Cancelled"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd[[' ']['T']HH:mm[:ss]]");
+
+    // Spreadsheet headers seen in the wild, mapped to booking columns.
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+            "vehicle", "wheeler_type",
+            "vehicle_type", "wheeler_type",
+            "service", "service_type",
+            "service_package", "service_type",
+            "package", "service_type",
+            "appointment", "appointment_date",
+            "date", "appointment_date"
+    );
+
+    private final ConnectionPool connectionPool;
+    private final int batchRows;
+    private final int chunkRows;
+    private final boolean dryRun;
+
+    private PricingEngine pricing;
+
+    private long imported = 0;
+    private long rejected = 0;
+    private long lastCommittedLine = 0;
+
+    private BookingImport(ConnectionPool connectionPool, int batchRows, int chunkRows, boolean dryRun) {
+        this.connectionPool = connectionPool;
+        this.batchRows = batchRows;
+        this.chunkRows = chunkRows;
+        this.dryRun = dryRun;
+    }
+
+    public static void main(String[] args) {
+        Path file = null;
+        String format = null;
+        boolean dryRun = false;
+        long startLine = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format" -> format = i + 1 < args.length ? args[++i].toLowerCase(Locale.ROOT) : null;
+                case "--dry-run" -> dryRun = true;
+                case "--start-line" -> startLine = i + 1 < args.length ? Long.parseLong(args[++i]) : 0;
+                default -> file = Paths.get(args[i]);
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: --import <file.csv|file.jsonl> [--format csv|jsonl] [--dry-run] [--start-line N]");
+            System.exit(2);
+        }
+        if (format == null) {
+            String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            format = fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson") ? "jsonl" : "csv";
+        }
+
+        List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
+        if (!missingDb.isEmpty()) {
+            System.err.println("Missing required database configuration: " + String.join(", ", missingDb));
+            System.exit(1);
+        }
+
+        try (ConnectionPool pool = ConnectionPool.create(
+                AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"), AppConfig.get("JAVA_DB_PASSWORD"));
+             BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            BookingImport importer = new BookingImport(pool,
+                    Math.max(1, AppConfig.getInt("JAVA_IMPORT_BATCH_ROWS", DEFAULT_BATCH_ROWS)),
+                    Math.max(1, AppConfig.getInt("JAVA_IMPORT_CHUNK_ROWS", DEFAULT_CHUNK_ROWS)),
+                    dryRun);
+            RecordSource source = "jsonl".equals(format) ? new JsonLinesSource(reader) : new CsvSource(reader);
+            boolean complete = importer.run(source, startLine);
+            System.exit(complete ? 0 : 1);
+        } catch (IOException | SQLException error) {
+            System.err.println("Import failed: " + error.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Returns false when the load stopped before the end of the file.
+    private boolean run(RecordSource source, long startLine) throws SQLException {
+        loadPricing();
+
+        long start = System.nanoTime();
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                List<ImportRow> batch = new ArrayList<>(batchRows);
+                long rowsInChunk = 0;
+                long line = 0;
+
+                while (true) {
+                    Map<String, String> record;
+                    try {
+                        record = source.next();
+                    } catch (IllegalArgumentException malformed) {
+                        if (source.getLineNumber() >= startLine) {
+                            reject(source.getLineNumber(), malformed.getMessage());
+                        }
+                        if (!source.canContinue()) {
+                            break;
+                        }
+                        continue;
+                    }
+                    if (record == null) {
+                        break;
+                    }
+                    line = source.getLineNumber();
+                    if (line < startLine) {
+                        continue;
+                    }
+
+                    ImportRow row;
+                    try {
+                        row = toBooking(line, record);
+                    } catch (IllegalArgumentException invalid) {
+                        reject(line, invalid.getMessage());
+                        continue;
+                    }
+
+                    batch.add(row);
+                    rowsInChunk++;
+                    if (batch.size() >= batchRows) {
+                        flush(conn, stmt, batch);
+                    }
+                    if (rowsInChunk >= chunkRows) {
+                        flush(conn, stmt, batch);
+                        commit(conn, line);
+                        rowsInChunk = 0;
+                        reportProgress(start);
+                    }
+                }
+
+                flush(conn, stmt, batch);
+                commit(conn, line);
+            } catch (SQLException | IOException | RuntimeException error) {
+                conn.rollback();
+                System.err.println("Import stopped: " + error.getMessage());
+                System.err.println("Rows up to line " + lastCommittedLine + " are committed; rerun with --start-line "
+                        + (lastCommittedLine + 1) + " to continue.");
+                reportSummary(start);
+                return false;
+            }
+        }
+        reportSummary(start);
+        return true;
+    }
+
+    private void flush(Connection conn, PreparedStatement stmt, List<ImportRow> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (dryRun) {
+            imported += batch.size();
+            batch.clear();
+            return;
+        }
+
+        // rewriteBatchedStatements (see ConnectionPool) sends the batch as multi-row INSERTs.
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            for (ImportRow row : batch) {
+                bind(stmt, row);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            imported += batch.size();
+        } catch (SQLException batchError) {
+            // One row the database refused fails its whole multi-row statement:
+            // undo the batch and insert row by row to find and reject just the bad ones.
+            stmt.clearBatch();
+            conn.rollback(savepoint);
+            for (ImportRow row : batch) {
+                Savepoint rowSavepoint = conn.setSavepoint();
+                try {
+                    bind(stmt, row);
+                    stmt.executeUpdate();
+                    imported++;
+                } catch (SQLException rowError) {
+                    conn.rollback(rowSavepoint);
+                    reject(row.line, rowError.getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void commit(Connection conn, long line) throws SQLException {
+        conn.commit();
+        lastCommittedLine = line;
+    }
+
+    private static void bind(PreparedStatement stmt, ImportRow row) throws SQLException {
+        stmt.setString(1, row.name);
+        stmt.setString(2, row.email);
+        stmt.setString(3, row.phone);
+        stmt.setString(4, row.wheelerType);
+        stmt.setString(5, row.serviceType);
+        stmt.setDouble(6, row.cost);
+        setTimestamp(stmt, 7, row.appointmentDate);
+        stmt.setString(8, row.status);
+        stmt.setString(9, row.notes);
+        setTimestamp(stmt, 10, row.bookingDate);
+    }
+
+    private static void setTimestamp(PreparedStatement stmt, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            stmt.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            stmt.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    // Same prices as the booking form (PricingEngine), from the settings as they are when the import starts.
+    private void loadPricing() throws SQLException {
+        SettingsCache.Snapshot settings = new SettingsCache(connectionPool).reload();
+        pricing = new PricingEngine(() -> settings);
+    }
+
+    private ImportRow toBooking(long line, Map<String, String> record) {
+        String name = required(record, "name", 100);
+        String email = required(record, "email", 255);
+        if (email.indexOf('@') <= 0 || email.indexOf('@') == email.length() - 1) {
+            throw new IllegalArgumentException("invalid email '" + email + "'");
+        }
+        String phone = optional(record, "phone", 20);
+        String wheelerType = wheelerType(required(record, "wheeler_type", 20));
+
+        String service = optional(record, "service_type", 50);
+        boolean premium;
+        if (service == null || service.equalsIgnoreCase("Standard")) {
+            premium = false;
+        } else if (service.equalsIgnoreCase("Premium")) {
+            premium = true;
+        } else {
+            throw new IllegalArgumentException("unknown service_type '" + service + "' (expected Standard or Premium)");
+        }
+
+        String status = optional(record, "status", 20);
+        if (status == null) {
+            status = "Pending";
+        } else {
+            status = canonicalStatus(status);
+        }
+
+        return new ImportRow(line, name, email, phone, wheelerType, premium ? "Premium" : "Standard",
+                PricingEngine.toRupees(pricing.quote(wheelerType, premium)),
+                dateTime(record, "appointment_date"), status, optional(record, "notes", 65535),
+                dateTime(record, "booking_date"));
+    }
+
+    private static String required(Map<String, String> record, String column, int maxLength) {
+        String value = optional(record, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> record, String column, int maxLength) {
+        String value = record.get(column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    // Accepts "2 Wheeler", "2", "2-wheeler", "2W" and the like.
+    private static String wheelerType(String value) {
+        String compact = value.toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+        if (compact.length() >= 1 && "234".indexOf(compact.charAt(0)) >= 0) {
+            String rest = compact.substring(1);
+            if (rest.isEmpty() || rest.equals("w") || rest.equals("wheeler") || rest.equals("wheelers")) {
+                return compact.charAt(0) + " Wheeler";
+            }
+        }
+        throw new IllegalArgumentException("unknown wheeler_type '" + value + "' (expected 2, 3 or 4 Wheeler)");
+    }
+
+    private static String canonicalStatus(String value) {
+        for (String status : STATUSES) {
+            if (status.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("unknown status '" + value + "'");
+    }
+
+    private static LocalDateTime dateTime(Map<String, String> record, String column) {
+        String value = optional(record, column, 40);
+        if (value == null) {
+            return null;
+        }
+        try {
+            TemporalAccessor parsed = DATE_FORMAT.parseBest(value, LocalDateTime::from, LocalDate::from);
+            return parsed instanceof LocalDate date ? date.atStartOfDay() : (LocalDateTime) parsed;
+        } catch (DateTimeParseException error) {
+            throw new IllegalArgumentException(column + " '" + value + "' is not yyyy-MM-dd[ HH:mm[:ss]]");
+        }
+    }
+
+    private void reject(long line, String reason) {
+        rejected++;
+        System.err.println("Rejected line " + line + ": " + reason);
+    }
+
+    private void reportProgress(long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf(Locale.ROOT, "%d rows imported, %d rejected (%.0f rows/s)%n",
+                imported, rejected, imported / Math.max(seconds, 1e-9));
+    }
+
+    private void reportSummary(long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf(Locale.ROOT, "%s %d rows, rejected %d, in %.1f s (%.0f rows/s)%n",
+                dryRun ? "Validated" : "Imported", imported, rejected, seconds, imported / Math.max(seconds, 1e-9));
+    }
+
+    private static String columnName(String header) {
+        String column = header.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+        return COLUMN_ALIASES.getOrDefault(column, column);
+    }
+
+    // A stream of records keyed by booking column. next() returns null at the end of the input
+    // and throws IllegalArgumentException for a malformed record.
+    private interface RecordSource {
+        Map<String, String> next() throws IOException;
+
+        // Line where the last record returned (or rejected) started.
+        long getLineNumber();
+
+        // Whether reading can go on after a malformed record.
+        boolean canContinue();
+    }
+
+    // RFC 4180 CSV: the first record is the header, quoted fields may contain commas, quotes ("")
+    // and line breaks.
+    private static final class CsvSource implements RecordSource {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private String[] columns;
+        private long line = 1;
+        private long recordLine = 1;
+        private boolean brokenQuote = false;
+        private int peeked = -2;
+
+        private CsvSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (columns == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+                columns = new String[header.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = columnName(header.get(i));
+                }
+            }
+
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty());
+
+            if (values.size() != columns.length) {
+                throw new IllegalArgumentException("expected " + columns.length + " fields but found " + values.size());
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                record.put(columns[i], values.get(i));
+            }
+            return record;
+        }
+
+        @Override
+        public long getLineNumber() {
+            return recordLine;
+        }
+
+        @Override
+        public boolean canContinue() {
+            return !brokenQuote;
+        }
+
+        private List<String> readRecord() throws IOException {
+            recordLine = line;
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+
+            List<String> values = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        brokenQuote = true;
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c < 0) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    values.add(field.toString());
+                    return values;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c = peeked != -2 ? peeked : reader.read();
+            peeked = -2;
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = reader.read();
+            }
+            return peeked;
+        }
+    }
+
+    // One flat JSON object per line: string, number, boolean or null values.
+    private static final class JsonLinesSource implements RecordSource {
+        private final BufferedReader reader;
+        private long line = 0;
+
+        private JsonLinesSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            Map<String, String> record = new HashMap<>();
+            Json.parseObject(text).forEach((key, value) -> record.put(columnName(key), value));
+            return record;
+        }
+
+        @Override
+        public long getLineNumber() {
+            return line;
+        }
+
+        @Override
+        public boolean canContinue() {
+            return true;
+        }
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final String name;
+        private final String email;
+        private final String phone;
+        private final String wheelerType;
+        private final String serviceType;
+        private final double cost;
+        private final LocalDateTime appointmentDate;
+        private final String status;
+        private final String notes;
+        private final LocalDateTime bookingDate;
+
+        private ImportRow(long line, String name, String email, String phone, String wheelerType, String serviceType,
+                           double cost, LocalDateTime appointmentDate, String status, String notes,
+                           LocalDateTime bookingDate) {
+            this.line = line;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+            this.wheelerType = wheelerType;
+            this.serviceType = serviceType;
+            this.cost = cost;
+            this.appointmentDate = appointmentDate;
+            this.status = status;
+            this.notes = notes;
+            this.bookingDate = bookingDate;
+        }
+    }
+}
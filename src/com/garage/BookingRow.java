@@ -0,0 +1,139 @@
+package com.garage;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// One booking as shown in the desktop tables. Cost (paise) and appointment (epoch milliseconds)
+// are kept as primitives and only turned into text by BookingCellRenderers for visible cells,
+// which also lets a row sorter order them numerically and chronologically.
+public final class BookingRow {
+
+    // Read in this order by read(ResultSet); queries may add further columns after these.
+    public static final String SELECT_COLUMNS = "id, name, email, phone, wheeler_type, service_type, "
+            + "appointment_date, status, cost";
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final DateTimeFormatter BOOKING_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.S]");
+
+    public enum Column {
+        ID("ID", Integer.class),
+        NAME("Name", String.class),
+        EMAIL("Email", String.class),
+        PHONE("Phone", String.class),
+        VEHICLE("Vehicle", String.class),
+        SERVICE("Service", String.class),
+        DATE("Date", Long.class),
+        STATUS("Status", String.class),
+        COST("Cost", Long.class);
+
+        private final String title;
+        private final Class<?> type;
+
+        Column(String title, Class<?> type) {
+            this.title = title;
+            this.type = type;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        // Boxes only the cell asked for, i.e. visible cells while painting.
+        public Object valueOf(BookingRow row) {
+            return switch (this) {
+                case ID -> row.id;
+                case NAME -> row.name;
+                case EMAIL -> row.email;
+                case PHONE -> row.phone;
+                case VEHICLE -> row.wheelerType;
+                case SERVICE -> row.serviceType;
+                case DATE -> row.appointmentMillis == NO_DATE ? null : row.appointmentMillis;
+                case STATUS -> row.status;
+                case COST -> row.costPaise;
+            };
+        }
+    }
+
+    private final int id;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String wheelerType;
+    private final String serviceType;
+    private final long appointmentMillis;
+    private final String status;
+    private final long costPaise;
+
+    public BookingRow(int id, String name, String email, String phone, String wheelerType, String serviceType,
+                      long appointmentMillis, String status, long costPaise) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.wheelerType = wheelerType;
+        this.serviceType = serviceType;
+        this.appointmentMillis = appointmentMillis;
+        this.status = status;
+        this.costPaise = costPaise;
+    }
+
+    // The current row of a query selecting SELECT_COLUMNS first. Reads by position.
+    public static BookingRow read(ResultSet rs) throws SQLException {
+        Timestamp appointment = rs.getTimestamp(7);
+        return new BookingRow(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                appointment == null ? NO_DATE : appointment.getTime(),
+                rs.getString(8),
+                PricingEngine.toPaise(rs.getDouble(9)));
+    }
+
+    public static BookingRow of(Booking booking) {
+        return new BookingRow(booking.getId(), booking.getName(), booking.getEmail(), booking.getPhone(),
+                booking.getWheelerType(), booking.getServiceType(), parseMillis(booking.getAppointmentDate()),
+                booking.getStatus(), PricingEngine.toPaise(booking.getCost()));
+    }
+
+    public BookingRow withStatus(String newStatus) {
+        return new BookingRow(id, name, email, phone, wheelerType, serviceType, appointmentMillis, newStatus, costPaise);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getAppointmentMillis() {
+        return appointmentMillis;
+    }
+
+    public long getCostPaise() {
+        return costPaise;
+    }
+
+    private static long parseMillis(String databaseText) {
+        if (databaseText == null || databaseText.isBlank()) {
+            return NO_DATE;
+        }
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(databaseText.trim(), BOOKING_DATE_FORMAT)).getTime();
+        } catch (DateTimeParseException error) {
+            return NO_DATE;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.garage;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+// A fixed list of BookingRows shown with the given columns, e.g. the dashboard's recent
+// bookings. Column classes are the primitives' wrappers, so setAutoCreateRowSorter sorts
+// cost numerically and dates chronologically. EDT only.
+public final class BookingRowTableModel extends AbstractTableModel {
+
+    private final BookingRow.Column[] columns;
+    private List<BookingRow> rows = List.of();
+
+    public BookingRowTableModel(BookingRow.Column... columns) {
+        this.columns = columns.clone();
+    }
+
+    public BookingRow.Column[] getColumns() {
+        return columns.clone();
+    }
+
+    public void setRows(List<BookingRow> rows) {
+        this.rows = new ArrayList<>(rows);
+        fireTableDataChanged();
+    }
+
+    public BookingRow getRow(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].getTitle();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns[column].getType();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns[column].valueOf(rows.get(row));
+    }
+}
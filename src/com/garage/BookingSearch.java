@@ -0,0 +1,62 @@
+package com.garage;
+
+import java.sql.SQLException;
+
+// Shared pieces of the booking search: the FULLTEXT match over name/email/phone/vehicle
+// (ngram index ft_bookings_search, see sql/setup.sql) and the fallback to LIKE when that
+// index has not been created yet. Used by the History tab and by BookingService.
+public final class BookingSearch {
+
+    public static final String MATCH = "MATCH(name, email, phone, wheeler_type) AGAINST (? IN BOOLEAN MODE)";
+    public static final String LIKE = "(name LIKE ? OR email LIKE ? OR phone LIKE ? OR wheeler_type LIKE ?)";
+    public static final int LIKE_PARAMETERS = 4;
+
+    // ER_FT_MATCHING_KEY_NOT_FOUND: the FULLTEXT index has not been created yet (sql/migrate.sql).
+    private static final int MISSING_FULLTEXT_INDEX = 1191;
+    private static final String BOOLEAN_MODE_OPERATORS = "+-<>()~*@\"";
+
+    private static volatile boolean fullTextAvailable = true;
+
+    private BookingSearch() {
+    }
+
+    // Builds the BOOLEAN MODE query matching the term anywhere in a column, like LIKE '%term%' did:
+    // the ngram parser turns a quoted phrase into consecutive ngrams, and a single character
+    // (shorter than ngram_token_size) becomes a prefix over the ngrams. Returns null when the index
+    // is unavailable or nothing searchable is left after removing operator characters.
+    public static String fullTextQuery(String term) {
+        if (!fullTextAvailable) {
+            return null;
+        }
+        String phrase = term.replace("\"", " ").trim();
+        if (phrase.isEmpty()) {
+            return null;
+        }
+        if (phrase.length() == 1) {
+            return BOOLEAN_MODE_OPERATORS.indexOf(phrase.charAt(0)) >= 0 ? null : phrase + "*";
+        }
+        return "\"" + phrase + "\"";
+    }
+
+    public static String likePattern(String term) {
+        return "%" + term + "%";
+    }
+
+    // For databases without MySQL FULLTEXT at all, such as the H2 stand-in used by the load tests.
+    public static void useLikeOnly() {
+        fullTextAvailable = false;
+    }
+
+    // True if the query failed only because the index is missing; later searches then use LIKE.
+    public static boolean fallBackToLike(SQLException error) {
+        if (error.getErrorCode() != MISSING_FULLTEXT_INDEX) {
+            return false;
+        }
+        if (fullTextAvailable) {
+            fullTextAvailable = false;
+            System.err.println("GarageServiceBookings has no FULLTEXT search index (run sql/migrate.sql); "
+                    + "falling back to LIKE searches.");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,250 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Booking operations without any UI: pricing, creating a booking (with its confirmation email
+// in the same transaction), listing, searching, status changes, deletes and the dashboard
+// statistics. Used by ModernGarageApp and served over HTTP by BookingApiServer.
+// Invalid input throws IllegalArgumentException; database problems are left as SQLException.
+public final class BookingService {
+
+    public static final List<String> STATUSES = List.of("Pending", "Confirmed", "In Progress", "Completed", "Cancelled");
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final DateTimeFormatter APPOINTMENT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd[' ']['T']HH:mm[:ss]");
+    private static final DateTimeFormatter DATABASE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String UNSCHEDULED = "To be scheduled";
+
+    private static final OperationMetrics INSERT_METRICS = Metrics.operation(Metrics.BOOKING_INSERT);
+    private static final OperationMetrics STATUS_METRICS = Metrics.operation(Metrics.BOOKING_STATUS);
+    private static final OperationMetrics HISTORY_METRICS = Metrics.operation(Metrics.HISTORY_LOAD);
+    private static final OperationMetrics SEARCH_METRICS = Metrics.operation(Metrics.SEARCH);
+
+    private final ConnectionPool connectionPool;
+    private final BookingDao bookings;
+    private final BookingStatsStore statsStore;
+    private final SettingsCache settingsCache;
+    private final PricingEngine pricing;
+
+    public BookingService(ConnectionPool connectionPool, BookingStatsStore statsStore, SettingsCache settingsCache) {
+        this.connectionPool = connectionPool;
+        this.bookings = new BookingDao(connectionPool);
+        this.statsStore = statsStore;
+        this.settingsCache = settingsCache;
+        this.pricing = new PricingEngine(settingsCache::current);
+    }
+
+    // Price of a service in rupees from the current settings (see PricingEngine).
+    public double calculateCost(String vehicleType, boolean premium) {
+        return PricingEngine.toRupees(pricing.quote(vehicleType, premium));
+    }
+
+    public PricingEngine getPricing() {
+        return pricing;
+    }
+
+    // Inserts a Pending booking and returns it. With sendConfirmation the confirmation email is
+    // queued in EmailOutbox in the same transaction, so it is sent only if the booking exists.
+    public Booking createBooking(BookingRequest request, boolean sendConfirmation) throws SQLException {
+        if (isBlank(request.name) || isBlank(request.email)) {
+            throw new IllegalArgumentException("Name and Email are required!");
+        }
+        LocalDateTime appointment = request.unscheduled ? null : parseAppointment(request.appointmentDate);
+        // Without a snapshot every price would be PricingEngine's built-in default.
+        if (!settingsCache.current().isLoaded()) {
+            throw new SQLException("Prices have not been loaded from Settings yet; try again shortly");
+        }
+        long price = pricing.quote(request.vehicleType, request.premium);
+        double cost = PricingEngine.toRupees(price);
+        String service = request.premium ? "Premium" : "Standard";
+        EmailTemplates.RenderedEmail confirmationEmail = sendConfirmation
+                ? EmailTemplates.bookingConfirmation(request.name, request.vehicleType,
+                        request.premium ? "Premium ⭐" : "Standard",
+                        request.unscheduled ? UNSCHEDULED : request.appointmentDate, price,
+                        settingsCache.getString("business_phone", EmailTemplates.DEFAULT_CONTACT_PHONE),
+                        settingsCache.getString("business_email", EmailTemplates.DEFAULT_CONTACT_EMAIL))
+                : null;
+
+        long started = INSERT_METRICS.begin();
+        boolean ok = false;
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int bookingId = bookings.insert(conn, request.userId, request.name, request.email, request.phone,
+                        request.vehicleType, service, cost, appointment, request.notes, "Pending");
+                if (confirmationEmail != null) {
+                    EmailOutbox.enqueue(conn, bookingId, request.email, confirmationEmail);
+                }
+                conn.commit();
+                ok = true;
+                return new Booking(bookingId, request.userId, request.name, request.email, request.phone,
+                        request.vehicleType, service, cost,
+                        appointment == null ? null : appointment.format(DATABASE_FORMAT), "Pending",
+                        request.notes, null);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            INSERT_METRICS.end(started, ok);
+        }
+    }
+
+    public List<Booking> recentBookings(Integer userId, int limit) throws SQLException {
+        return bookings.recent(userId, pageSize(limit));
+    }
+
+    // Newest first by id. beforeId continues a listing after the last id of the previous page.
+    public List<Booking> listBookings(Integer userId, String status, Integer beforeId, int limit) throws SQLException {
+        String checkedStatus = status == null ? null : checkStatus(status);
+        int pageSize = pageSize(limit);
+        long started = HISTORY_METRICS.begin();
+        boolean ok = false;
+        try {
+            List<Booking> page = bookings.list(userId, checkedStatus, beforeId, pageSize);
+            ok = true;
+            return page;
+        } finally {
+            HISTORY_METRICS.end(started, ok);
+        }
+    }
+
+    // The whole history in memory, for the History tab with JAVA_HISTORY_IN_MEMORY=true.
+    public BookingColumnStore loadHistoryColumns(Integer userId) throws SQLException {
+        long started = HISTORY_METRICS.begin();
+        boolean ok = false;
+        try {
+            BookingColumnStore store = bookings.loadColumns(userId);
+            ok = true;
+            return store;
+        } finally {
+            HISTORY_METRICS.end(started, ok);
+        }
+    }
+
+    // Best matches first, using the FULLTEXT index (or LIKE without it, newest first).
+    public List<Booking> searchBookings(Integer userId, String term, int limit) throws SQLException {
+        if (isBlank(term)) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        String against = BookingSearch.fullTextQuery(term.trim());
+        long started = SEARCH_METRICS.begin();
+        boolean ok = false;
+        try {
+            List<Booking> found = null;
+            if (against != null) {
+                try {
+                    found = bookings.search(userId, term.trim(), against, pageSize(limit));
+                } catch (SQLException error) {
+                    if (!BookingSearch.fallBackToLike(error)) {
+                        throw error;
+                    }
+                }
+            }
+            if (found == null) {
+                found = bookings.search(userId, term.trim(), null, pageSize(limit));
+            }
+            ok = true;
+            return found;
+        } finally {
+            SEARCH_METRICS.end(started, ok);
+        }
+    }
+
+    public Booking getBooking(int bookingId) throws SQLException {
+        return bookings.findById(bookingId);
+    }
+
+    // Returns false if there is no such booking.
+    public boolean updateStatus(int bookingId, String status) throws SQLException {
+        String checked = checkStatus(status);
+        long started = STATUS_METRICS.begin();
+        boolean ok = false;
+        try {
+            boolean found = bookings.updateStatus(bookingId, checked) > 0;
+            ok = true;
+            return found;
+        } finally {
+            STATUS_METRICS.end(started, ok);
+        }
+    }
+
+    // Returns false if there is no such booking.
+    public boolean deleteBooking(int bookingId) throws SQLException {
+        return bookings.delete(bookingId) > 0;
+    }
+
+    public BookingStats getStats(Integer userId) throws SQLException {
+        return statsStore.read(userId);
+    }
+
+    private static LocalDateTime parseAppointment(String value) {
+        if (isBlank(value)) {
+            throw new IllegalArgumentException("Appointment date is required");
+        }
+        try {
+            return LocalDateTime.parse(value.trim(), APPOINTMENT_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Appointment date must look like yyyy-MM-dd HH:mm: " + value);
+        }
+    }
+
+    private static String checkStatus(String status) {
+        if (status == null || !STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+        return status;
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // A new booking as entered in the Book Service form or posted to the API, or a walk-in
+    // booking from GarageServiceApp, which has no appointment yet (see unscheduled).
+    public static final class BookingRequest {
+        private final Integer userId;
+        private final String name;
+        private final String email;
+        private final String phone;
+        private final String vehicleType;
+        private final boolean premium;
+        private final String appointmentDate;
+        private final String notes;
+        private final boolean unscheduled;
+
+        public BookingRequest(Integer userId, String name, String email, String phone, String vehicleType,
+                              boolean premium, String appointmentDate, String notes) {
+            this(userId, name, email, phone, vehicleType, premium, appointmentDate, notes, false);
+        }
+
+        private BookingRequest(Integer userId, String name, String email, String phone, String vehicleType,
+                               boolean premium, String appointmentDate, String notes, boolean unscheduled) {
+            this.userId = userId;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+            this.vehicleType = vehicleType;
+            this.premium = premium;
+            this.appointmentDate = appointmentDate;
+            this.notes = notes;
+            this.unscheduled = unscheduled;
+        }
+
+        public static BookingRequest unscheduled(String name, String email, String vehicleType, boolean premium) {
+            return new BookingRequest(null, name, email, null, vehicleType, premium, null, null, true);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.garage;
+
+// Dashboard numbers for one scope (all bookings, or one user's bookings).
+public final class BookingStats {
+
+    public static final BookingStats EMPTY = new BookingStats(0, 0, 0, 0);
+
+    private final long total;
+    private final long pending;
+    private final long completed;
+    // Whole paise, so stored counters and a fresh aggregate compare exactly.
+    private final long revenuePaise;
+
+    public BookingStats(long total, long pending, long completed, long revenuePaise) {
+        this.total = total;
+        this.pending = pending;
+        this.completed = completed;
+        this.revenuePaise = revenuePaise;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRevenuePaise() {
+        return revenuePaise;
+    }
+
+    public boolean matches(BookingStats other) {
+        return total == other.total
+                && pending == other.pending
+                && completed == other.completed
+                && revenuePaise == other.revenuePaise;
+    }
+
+    @Override
+    public String toString() {
+        return "total=" + total + ", pending=" + pending + ", completed=" + completed
+                + ", revenue=" + PricingEngine.format(revenuePaise);
+    }
+}
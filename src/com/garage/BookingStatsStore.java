@@ -0,0 +1,258 @@
+package com.garage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Reads the dashboard statistics from BookingStatsCounters, which the triggers in
+// sql/setup.sql keep in step with every insert, status change and delete.
+// reconcile() re-derives the counters from GarageServiceBookings and repairs any
+// drift (for example after users are deleted: ON DELETE SET NULL does not fire triggers).
+public final class BookingStatsStore {
+
+    private static final int GLOBAL_SCOPE = 0;
+    private static final int DEFAULT_RECONCILE_MINUTES = 60;
+    private static final String MISSING_TABLE_STATE = "42S02";
+    private static final String RECONCILE_LOCK = "garage_stats_reconcile";
+
+    private static final String AGGREGATE_COLUMNS = "COUNT(*) AS total, "
+            + "COALESCE(SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END), 0) AS pending, "
+            + "COALESCE(SUM(CASE WHEN status = 'Completed' THEN 1 ELSE 0 END), 0) AS completed, "
+            + "COALESCE(SUM(cost), 0) AS revenue";
+
+    private static final String COUNTERS_SQL =
+            "SELECT total, pending, completed, revenue FROM BookingStatsCounters WHERE scope_id = ?";
+    private static final String ALL_COUNTERS_SQL = "SELECT scope_id, total, pending, completed, revenue FROM BookingStatsCounters";
+    private static final String AGGREGATE_SQL = "SELECT " + AGGREGATE_COLUMNS + " FROM GarageServiceBookings";
+    private static final String AGGREGATE_FOR_USER_SQL = AGGREGATE_SQL + " WHERE user_id = ?";
+    private static final String AGGREGATE_PER_USER_SQL = "SELECT user_id, " + AGGREGATE_COLUMNS
+            + " FROM GarageServiceBookings WHERE user_id IS NOT NULL GROUP BY user_id";
+
+    private static final OperationMetrics READ_METRICS = Metrics.operation(Metrics.STATS);
+
+    private final ConnectionPool connectionPool;
+    private ScheduledExecutorService reconciler;
+
+    public BookingStatsStore(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // For QueryPlanCheck. Reconciliation reads the whole bookings table by design.
+    static List<PlannedQuery> plannedQueries() {
+        return List.of(
+                new PlannedQuery("dashboard counters", COUNTERS_SQL, false, GLOBAL_SCOPE),
+                new PlannedQuery("stats aggregate (customer)", AGGREGATE_FOR_USER_SQL, false, 1),
+                new PlannedQuery("stats reconcile (all)", AGGREGATE_SQL, true),
+                new PlannedQuery("stats reconcile (per customer)", AGGREGATE_PER_USER_SQL, true),
+                new PlannedQuery("stats reconcile (counters)", ALL_COUNTERS_SQL, true));
+    }
+
+    public BookingStats read(Integer userId) throws SQLException {
+        long started = READ_METRICS.begin();
+        boolean ok = false;
+        try {
+            BookingStats stats = readCounters(userId);
+            ok = true;
+            return stats;
+        } finally {
+            READ_METRICS.end(started, ok);
+        }
+    }
+
+    private BookingStats readCounters(Integer userId) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNTERS_SQL)) {
+
+            stmt.setInt(1, scopeOf(userId));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? readStats(rs) : BookingStats.EMPTY;
+            }
+        } catch (SQLException error) {
+            if (!MISSING_TABLE_STATE.equals(error.getSQLState())) {
+                throw error;
+            }
+            // Database not migrated yet: fall back to aggregating the bookings table.
+            return aggregate(userId);
+        }
+    }
+
+    // Compares every scope's counters with the bookings table and rewrites the ones that drifted.
+    // Returns the number of scopes repaired.
+    public int reconcile() throws SQLException {
+        Map<Integer, BookingStats> expected = new HashMap<>();
+        Map<Integer, BookingStats> counters = new HashMap<>();
+
+        try (Connection conn = connectionPool.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(AGGREGATE_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    expected.put(GLOBAL_SCOPE, readStats(rs));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(AGGREGATE_PER_USER_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expected.put(rs.getInt("user_id"), readStats(rs));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(ALL_COUNTERS_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counters.put(rs.getInt("scope_id"), readStats(rs));
+                }
+            }
+        }
+
+        Set<Integer> scopes = new HashSet<>(expected.keySet());
+        scopes.addAll(counters.keySet());
+
+        int repaired = 0;
+        for (int scope : scopes) {
+            BookingStats actual = expected.getOrDefault(scope, BookingStats.EMPTY);
+            BookingStats stored = counters.getOrDefault(scope, BookingStats.EMPTY);
+            // The snapshot above was taken without locks, so a mismatch is re-checked under lock before repairing.
+            if (!actual.matches(stored) && repairScope(scope)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    // Reconciliation scans the whole bookings table, so it runs only where JAVA_STATS_RECONCILE
+    // is on (desks default to off, the API server to on), first after a full interval, and only
+    // in the one process holding the RECONCILE_LOCK at that moment.
+    public synchronized void scheduleReconciliation(boolean enabledByDefault) {
+        if (reconciler != null || !AppConfig.getBoolean("JAVA_STATS_RECONCILE", enabledByDefault)) {
+            return;
+        }
+        long intervalMinutes = Math.max(1, AppConfig.getInt("JAVA_STATS_RECONCILE_MINUTES", DEFAULT_RECONCILE_MINUTES));
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "garage-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcileIfUnlocked();
+            } catch (SQLException error) {
+                System.err.println("Could not reconcile booking statistics: " + error.getMessage());
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private void reconcileIfUnlocked() throws SQLException {
+        try (Connection lock = connectionPool.getConnection()) {
+            try (PreparedStatement stmt = lock.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                stmt.setString(1, RECONCILE_LOCK);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        return;
+                    }
+                }
+            }
+            try {
+                int repaired = reconcile();
+                if (repaired > 0) {
+                    System.out.println("Booking statistics reconciled: " + repaired + " scope(s) repaired.");
+                }
+            } finally {
+                try (PreparedStatement stmt = lock.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    stmt.setString(1, RECONCILE_LOCK);
+                    stmt.executeQuery().close();
+                }
+            }
+        }
+    }
+
+    // Locking the counter row first makes concurrent booking triggers wait, so the
+    // aggregate read afterwards and the rewrite describe the same set of bookings.
+    private boolean repairScope(int scope) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO BookingStatsCounters (scope_id) VALUES (?)")) {
+                stmt.setInt(1, scope);
+                stmt.executeUpdate();
+            }
+
+            BookingStats stored;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT total, pending, completed, revenue FROM BookingStatsCounters WHERE scope_id = ? FOR UPDATE")) {
+                stmt.setInt(1, scope);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    stored = readStats(rs);
+                }
+            }
+
+            BookingStats actual = aggregate(conn, scope == GLOBAL_SCOPE ? null : scope);
+            if (actual.matches(stored)) {
+                conn.commit();
+                return false;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE BookingStatsCounters SET total = ?, pending = ?, completed = ?, revenue = ? WHERE scope_id = ?")) {
+                stmt.setLong(1, actual.getTotal());
+                stmt.setLong(2, actual.getPending());
+                stmt.setLong(3, actual.getCompleted());
+                stmt.setBigDecimal(4, BigDecimal.valueOf(actual.getRevenuePaise(), 2));
+                stmt.setInt(5, scope);
+                stmt.executeUpdate();
+            }
+            conn.commit();
+
+            System.out.println("Repaired booking statistics for scope " + scope
+                    + ": counters had " + stored + ", bookings have " + actual);
+            return true;
+        }
+    }
+
+    private BookingStats aggregate(Integer userId) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            return aggregate(conn, userId);
+        }
+    }
+
+    private static BookingStats aggregate(Connection conn, Integer userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(userId != null ? AGGREGATE_FOR_USER_SQL : AGGREGATE_SQL)) {
+            if (userId != null) {
+                stmt.setInt(1, userId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? readStats(rs) : BookingStats.EMPTY;
+            }
+        }
+    }
+
+    private static int scopeOf(Integer userId) {
+        return userId == null ? GLOBAL_SCOPE : userId;
+    }
+
+    private static BookingStats readStats(ResultSet rs) throws SQLException {
+        return new BookingStats(
+                rs.getLong("total"),
+                rs.getLong("pending"),
+                rs.getLong("completed"),
+                toPaise(rs.getBigDecimal("revenue"))
+        );
+    }
+
+    // The counters column is DECIMAL(15,2); SUM over the DOUBLE cost column can carry binary
+    // noise (73125.00000000001), which rounding to whole paise removes.
+    private static long toPaise(BigDecimal rupees) {
+        return rupees == null ? 0 : rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
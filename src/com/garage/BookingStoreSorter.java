@@ -0,0 +1,245 @@
+package com.garage;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Sorting and search for BookingStoreTableModel. The visible rows are an int[] of model rows,
+// filtered with BookingColumnStore.matcher and ordered by its per-row sortRanks, so unlike
+// TableRowSorter no cell is boxed through getValueAt and no Collator runs per comparison.
+// Clicking a header sorts by it ascending, then descending; up to three columns are kept as
+// tie-breakers, and rows that still tie keep the store's order (newest first). EDT only.
+public final class BookingStoreSorter extends RowSorter<BookingStoreTableModel> {
+
+    private static final int MAX_SORT_KEYS = 3;
+    // Runs this short are sorted by insertion before merging.
+    private static final int INSERTION_SORT_RUN = 32;
+
+    private final BookingStoreTableModel model;
+    private List<SortKey> sortKeys = List.of();
+    private String searchTerm = "";
+    private int[] viewToModel = new int[0];
+    // Built on first use after each sort; -1 for rows the search hides.
+    private int[] modelToView;
+
+    public BookingStoreSorter(BookingStoreTableModel model) {
+        this.model = model;
+        sort();
+    }
+
+    // Does nothing when the term is unchanged, so a debounced search field can call it freely.
+    public void setSearchTerm(String searchTerm) {
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (term.equals(this.searchTerm)) {
+            return;
+        }
+        this.searchTerm = term;
+        sort();
+    }
+
+    @Override
+    public BookingStoreTableModel getModel() {
+        return model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        List<SortKey> keys = new ArrayList<>(sortKeys);
+        SortOrder order = SortOrder.ASCENDING;
+        if (!keys.isEmpty() && keys.get(0).getColumn() == column) {
+            order = keys.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+        }
+        keys.removeIf(key -> key.getColumn() == column);
+        keys.add(0, new SortKey(column, order));
+        setSortKeys(keys.size() > MAX_SORT_KEYS ? keys.subList(0, MAX_SORT_KEYS) : keys);
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> copy = keys == null ? List.of() : List.copyOf(keys);
+        if (copy.equals(sortKeys)) {
+            return;
+        }
+        sortKeys = copy;
+        fireSortOrderChanged();
+        sort();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (index < 0 || index >= viewToModel.length) {
+            throw new IndexOutOfBoundsException("Invalid view row " + index);
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (index < 0 || index >= model.getRowCount()) {
+            throw new IndexOutOfBoundsException("Invalid model row " + index);
+        }
+        if (modelToView == null) {
+            int[] rows = new int[model.getRowCount()];
+            Arrays.fill(rows, -1);
+            for (int view = 0; view < viewToModel.length; view++) {
+                rows[viewToModel[view]] = view;
+            }
+            modelToView = rows;
+        }
+        return index < modelToView.length ? modelToView[index] : -1;
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        sort();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        sort();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        sort();
+    }
+
+    // The search never looks at the columns that can be edited (status), so such an update
+    // only needs a new order when the table is sorted by that column.
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        for (SortKey key : sortKeys) {
+            if (key.getColumn() == column) {
+                sort();
+                return;
+            }
+        }
+    }
+
+    private void sort() {
+        BookingColumnStore store = model.getStore();
+        IntPredicate visible = store.matcher(searchTerm);
+        int rowCount = store.size();
+        int[] rows = new int[rowCount];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (visible.test(row)) {
+                rows[count++] = row;
+            }
+        }
+        if (count < rowCount) {
+            rows = Arrays.copyOf(rows, count);
+        }
+        sortRows(store, rows);
+
+        int[] previous = viewToModel;
+        viewToModel = rows;
+        modelToView = null;
+        fireRowSorterChanged(previous);
+    }
+
+    // Rows tied on every key keep their model order, i.e. the store's (newest first).
+    private void sortRows(BookingColumnStore store, int[] rows) {
+        BookingRow.Column[] modelColumns = model.getColumns();
+        int[][] ranks = new int[sortKeys.size()][];
+        boolean[] reversed = new boolean[sortKeys.size()];
+        int keys = 0;
+        for (SortKey key : sortKeys) {
+            if (key.getSortOrder() != SortOrder.UNSORTED) {
+                ranks[keys] = store.sortRanks(modelColumns[key.getColumn()], rows);
+                reversed[keys] = key.getSortOrder() == SortOrder.DESCENDING;
+                keys++;
+            }
+        }
+        if (keys == 0) {
+            return;
+        }
+        if (keys == 1) {
+            sortByOneKey(rows, ranks[0], reversed[0]);
+        } else {
+            mergeSort(rows.clone(), rows, 0, rows.length, Arrays.copyOf(ranks, keys), reversed);
+        }
+    }
+
+    // The usual case, a single header clicked: each row's rank and number packed into one long,
+    // so a primitive sort orders by rank and then by row. ~rank reverses the order without overflow.
+    private static void sortByOneKey(int[] rows, int[] ranks, boolean reversed) {
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int rank = reversed ? ~ranks[rows[i]] : ranks[rows[i]];
+            packed[i] = (long) rank << 32 | rows[i];
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (int) packed[i];
+        }
+    }
+
+    // Stable merge sort of source[from, to) into target[from, to); both start with the same rows.
+    private static void mergeSort(int[] source, int[] target, int from, int to, int[][] ranks, boolean[] reversed) {
+        if (to - from <= INSERTION_SORT_RUN) {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i - 1;
+                while (j >= from && compare(target[j], row, ranks, reversed) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, ranks, reversed);
+        mergeSort(target, source, middle, to, ranks, reversed);
+        if (compare(source[middle - 1], source[middle], ranks, reversed) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right >= to || left < middle && compare(source[left], source[right], ranks, reversed) <= 0) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+
+    private static int compare(int row, int otherRow, int[][] ranks, boolean[] reversed) {
+        for (int i = 0; i < ranks.length; i++) {
+            int result = Integer.compare(ranks[i][row], ranks[i][otherRow]);
+            if (result != 0) {
+                return reversed[i] ? -result : result;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.garage;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.concurrent.Future;
+
+// Booking History table that holds all of the user's bookings client-side in a
+// BookingColumnStore (JAVA_HISTORY_IN_MEMORY=true), for sorting and searching without a query
+// per click or keystroke; pair it with BookingStoreSorter. Cells are read straight from the
+// store's columns. The whole history is loaded on BackgroundTasks by reload(); a newer reload
+// cancels an older one. All other state is owned by the Event Dispatch Thread.
+public final class BookingStoreTableModel extends AbstractTableModel {
+
+    private static final BookingRow.Column[] COLUMNS = BookingRow.Column.values();
+
+    private final BookingService bookingService;
+
+    private BookingColumnStore store = new BookingColumnStore();
+    private Integer userId;
+    private Future<?> loading;
+    private int generation = 0;
+    private String lastError = null;
+    private Runnable stateListener = () -> { };
+
+    public BookingStoreTableModel(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    public void setStateListener(Runnable stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public void reload() {
+        if (loading != null) {
+            loading.cancel(true);
+        }
+        lastError = null;
+        int requestGeneration = ++generation;
+        Integer loadUserId = userId;
+        loading = BackgroundTasks.run(
+                () -> bookingService.loadHistoryColumns(loadUserId),
+                loaded -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading = null;
+                    setStore(loaded);
+                    stateListener.run();
+                },
+                error -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading = null;
+                    lastError = error.getMessage() == null ? error.toString() : error.getMessage();
+                    error.printStackTrace();
+                    stateListener.run();
+                });
+        stateListener.run();
+    }
+
+    public boolean isLoading() {
+        return loading != null;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    private void setStore(BookingColumnStore store) {
+        this.store = store;
+        fireTableDataChanged();
+    }
+
+    public BookingColumnStore getStore() {
+        return store;
+    }
+
+    // Model order, for BookingCellRenderers.install.
+    public BookingRow.Column[] getColumns() {
+        return COLUMNS.clone();
+    }
+
+    public int getBookingId(int row) {
+        return store.getId(row);
+    }
+
+    public void updateStatus(int bookingId, String newStatus) {
+        int row = store.indexOfId(bookingId);
+        if (row >= 0) {
+            store.setStatus(row, newStatus);
+            fireTableCellUpdated(row, BookingRow.Column.STATUS.ordinal());
+        }
+    }
+
+    public void removeBooking(int bookingId) {
+        int row = store.indexOfId(bookingId);
+        if (row >= 0) {
+            store.remove(row);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return store.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column].getTitle();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMNS[column].getType();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return store.valueAt(row, COLUMNS[column]);
+    }
+}
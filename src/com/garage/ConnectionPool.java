@@ -0,0 +1,364 @@
+package com.garage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Bounded JDBC pool shared by the desktop apps. close() on a borrowed connection
+// hands it back to the pool, so existing try-with-resources blocks work unchanged.
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final int DEFAULT_POOL_SIZE = 5;
+    private static final int DEFAULT_TIMEOUT_MS = 10000;
+    private static final int DEFAULT_IDLE_TIMEOUT_MS = 300000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    // Connections returned within this window are handed out again without a validation round trip.
+    private static final long VALIDATION_GRACE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final List<String> RESTART_KEYS = List.of(
+            "JAVA_DB_URL", "JAVA_DB_USER", "JAVA_DB_PASSWORD", "JAVA_DB_POOL_SIZE", "JAVA_DB_POOL_IDLE_TIMEOUT_MS");
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    // These three follow .env edits (see reconfigure); the rest need a new pool.
+    private volatile long timeoutMs;
+    private volatile String validationQuery;
+    private volatile long leakDetectionMs;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private final Consumer<Set<String>> configListener = this::reconfigure;
+    private volatile boolean closed;
+
+    private ConnectionPool(
+            String url,
+            String user,
+            String password,
+            int maxSize,
+            long timeoutMs,
+            long idleTimeoutMs,
+            String validationQuery,
+            long leakDetectionMs
+    ) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.timeoutMs = timeoutMs;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.validationQuery = validationQuery;
+        this.leakDetectionMs = leakDetectionMs;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "garage-db-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(1000, idleTimeoutMs / 2);
+        housekeeper.scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+        AppConfig.addListener(configListener);
+    }
+
+    public static ConnectionPool create(String url, String user, String password) {
+        int size = Math.max(1, AppConfig.getInt("JAVA_DB_POOL_SIZE", DEFAULT_POOL_SIZE));
+        int idleTimeoutMs = Math.max(1000, AppConfig.getInt("JAVA_DB_POOL_IDLE_TIMEOUT_MS", DEFAULT_IDLE_TIMEOUT_MS));
+
+        return new ConnectionPool(withDriverDefaults(url), user, password, size, configuredTimeoutMs(), idleTimeoutMs,
+                configuredValidationQuery(), configuredLeakDetectionMs());
+    }
+
+    private static int configuredTimeoutMs() {
+        return Math.max(0, AppConfig.getInt("JAVA_DB_POOL_TIMEOUT_MS", DEFAULT_TIMEOUT_MS));
+    }
+
+    private static String configuredValidationQuery() {
+        return AppConfig.get("JAVA_DB_POOL_VALIDATION_QUERY");
+    }
+
+    private static int configuredLeakDetectionMs() {
+        return Math.max(0, AppConfig.getInt("JAVA_DB_POOL_LEAK_DETECTION_MS", 0));
+    }
+
+    // Called when .env is reloaded. Connections already open are unaffected either way.
+    private void reconfigure(Set<String> changed) {
+        timeoutMs = configuredTimeoutMs();
+        validationQuery = configuredValidationQuery();
+        leakDetectionMs = configuredLeakDetectionMs();
+        for (String key : RESTART_KEYS) {
+            if (changed.contains(key)) {
+                System.err.println(key + " changed in .env; restart the app to use it");
+            }
+        }
+    }
+
+    // Connector/J sends a JDBC batch as one multi-row statement only with rewriteBatchedStatements,
+    // otherwise every addBatch() entry is still its own round trip. The statement settings make
+    // each pooled connection prepare a given SQL text on the server once and keep it: the DAOs
+    // bind every value, so their statements repeat exactly. Explicit URL settings win.
+    static String withDriverDefaults(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        String tuned = withUrlParameter(url, "rewriteBatchedStatements", "true");
+        tuned = withUrlParameter(tuned, "useServerPrepStmts", "true");
+        tuned = withUrlParameter(tuned, "cachePrepStmts", "true");
+        tuned = withUrlParameter(tuned, "prepStmtCacheSize", "250");
+        // The default of 256 characters leaves out the booking queries with their column lists.
+        return withUrlParameter(tuned, "prepStmtCacheSqlLimit", "2048");
+    }
+
+    private static String withUrlParameter(String url, String name, String value) {
+        if (url.contains("?" + name + "=") || url.contains("&" + name + "=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + name + "=" + value;
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long timeoutMs = this.timeoutMs;
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + timeoutMs + " ms waiting for a database connection"
+                                + " (pool size " + maxSize + ")"
+                );
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", error);
+        }
+
+        try {
+            return lease(takeIdleOrOpen());
+        } catch (SQLException | RuntimeException error) {
+            permits.release();
+            throw error;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        AppConfig.removeListener(configListener);
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (IdleConnection entry : idle) {
+                closeQuietly(entry.connection);
+            }
+            idle.clear();
+        }
+    }
+
+    private Connection takeIdleOrOpen() throws SQLException {
+        while (true) {
+            IdleConnection entry;
+            synchronized (idle) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return DriverManager.getConnection(url, user, password);
+            }
+
+            long idleNanos = System.nanoTime() - entry.returnedAt;
+            if (idleNanos >= idleTimeoutNanos || (idleNanos >= VALIDATION_GRACE_NANOS && !isUsable(entry.connection))) {
+                closeQuietly(entry.connection);
+                continue;
+            }
+            return entry.connection;
+        }
+    }
+
+    private boolean isUsable(Connection connection) {
+        String validationQuery = this.validationQuery;
+        try {
+            if (validationQuery.isBlank()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                statement.execute(validationQuery);
+            }
+            return true;
+        } catch (SQLException error) {
+            return false;
+        }
+    }
+
+    private Connection lease(Connection physical) {
+        ScheduledFuture<?> leakWarning = null;
+        long leakDetectionMs = this.leakDetectionMs;
+        if (leakDetectionMs > 0) {
+            Exception borrowSite = new Exception("Connection borrowed here");
+            String threadName = Thread.currentThread().getName();
+            leakWarning = housekeeper.schedule(() -> {
+                System.err.println("Possible connection leak: connection taken by thread " + threadName
+                        + " has not been returned after " + leakDetectionMs + " ms");
+                borrowSite.printStackTrace();
+            }, leakDetectionMs, TimeUnit.MILLISECONDS);
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnection(physical, leakWarning)
+        );
+    }
+
+    private void release(Connection physical) {
+        try {
+            if (closed || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+            }
+        } catch (SQLException error) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        synchronized (idle) {
+            Iterator<IdleConnection> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                IdleConnection entry = iterator.next();
+                if (now - entry.returnedAt >= idleTimeoutNanos) {
+                    iterator.remove();
+                    closeQuietly(entry.connection);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // The connection is being discarded anyway.
+        }
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long returnedAt;
+
+        private IdleConnection(Connection connection, long returnedAt) {
+            this.connection = connection;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection physical;
+        private final ScheduledFuture<?> leakWarning;
+        private boolean returned;
+
+        private PooledConnection(Connection physical, ScheduledFuture<?> leakWarning) {
+            this.physical = physical;
+            this.leakWarning = leakWarning;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    if (leakWarning != null) {
+                        leakWarning.cancel(false);
+                    }
+                    release(physical);
+                    return null;
+                }
+                case "isClosed" -> {
+                    synchronized (this) {
+                        if (returned) {
+                            return true;
+                        }
+                    }
+                    return physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + physical + "]";
+                }
+                default -> {
+                    synchronized (this) {
+                        if (returned) {
+                            throw new SQLException("Connection has already been returned to the pool");
+                        }
+                    }
+                }
+            }
+
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException error) {
+                throw error.getCause();
+            }
+            // Statements are only wrapped while a flight recording wants DatabaseStatement events.
+            if (result instanceof Statement statement && RecordedStatement.isEnabled()) {
+                return RecordedStatement.wrap(statement,
+                        args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.garage;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Password hashing for the Users table. Hashes are bcrypt, the format api-server.js writes with
+// bcryptjs, so an account works in both apps. bcrypt is slow on purpose (a few hundred ms of CPU),
+// so the work runs on a small bounded pool: callers wait for it (never call this on the EDT), and
+// when JAVA_AUTH_QUEUE sign-ins are already waiting, further ones are turned away rather than
+// piling onto the CPU.
+//  - Rows still holding a plain-text password are accepted once and rehashed (see needsRehash);
+//    so are hashes cheaper than the current cost.
+//  - The cost is JAVA_AUTH_BCRYPT_COST, or if unset the highest one that hashes within
+//    JAVA_AUTH_TARGET_MS on this machine, never below the 10 the web app uses.
+//  - Unknown and locked accounts are checked against a throwaway hash at the current cost, so
+//    how long a sign-in takes does not reveal which usernames exist.
+//  - A successful check is remembered for JAVA_AUTH_CACHE_SECONDS as a keyed SHA-256 of the
+//    password, so signing in again after a logout costs microseconds. Failures are never cached,
+//    so guessing always pays the full cost.
+public final class CredentialService {
+
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 15;
+    private static final int DEFAULT_TARGET_MS = 250;
+    private static final int DEFAULT_QUEUE = 16;
+    private static final int DEFAULT_CACHE_SECONDS = 900;
+    private static final int CACHE_ENTRIES = 256;
+    // A stored password starting with this is a locked account, e.g. SyntheticDataset's users.
+    private static final String LOCKED_PREFIX = "!";
+
+    private static final OperationMetrics HASH_METRICS = Metrics.operation(Metrics.PASSWORD_HASH);
+
+    private final ThreadPoolExecutor hashers;
+    private final int configuredCost;
+    private final int targetMs;
+    private final long cacheNanos;
+    private final SecretKeySpec cacheKey;
+    private final Map<String, CachedCheck> recentChecks = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCheck> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+    private volatile int cost;
+    private volatile String unknownUserHash;
+
+    public CredentialService() {
+        this(AppConfig.getInt("JAVA_AUTH_THREADS", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                AppConfig.getInt("JAVA_AUTH_QUEUE", DEFAULT_QUEUE),
+                AppConfig.getInt("JAVA_AUTH_BCRYPT_COST", 0),
+                AppConfig.getInt("JAVA_AUTH_TARGET_MS", DEFAULT_TARGET_MS),
+                AppConfig.getInt("JAVA_AUTH_CACHE_SECONDS", DEFAULT_CACHE_SECONDS));
+    }
+
+    // cost 0 means tune it to targetMs on first use.
+    CredentialService(int threads, int queue, int cost, int targetMs, int cacheSeconds) {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.hashers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queue)), runnable -> {
+                    Thread thread = new Thread(runnable, "garage-auth-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.configuredCost = cost <= 0 ? 0 : Math.min(MAX_COST, Math.max(MIN_COST, cost));
+        this.targetMs = Math.max(1, targetMs);
+        this.cacheNanos = TimeUnit.SECONDS.toNanos(Math.max(0, cacheSeconds));
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    public String hash(String password) {
+        return await(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost())));
+    }
+
+    // stored is null when the account does not exist.
+    public boolean verify(String password, String stored) {
+        if (stored == null || stored.isEmpty() || stored.startsWith(LOCKED_PREFIX)) {
+            await(() -> BCrypt.checkpw(password, unknownUserHash()));
+            return false;
+        }
+        if (!isBcrypt(stored)) {
+            if (MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+            // A wrong password for a not yet migrated row costs a hash check like any other
+            // failure, so response time does not show which accounts still hold plain text.
+            await(() -> BCrypt.checkpw(password, unknownUserHash()));
+            return false;
+        }
+
+        byte[] fingerprint = fingerprint(password);
+        if (fingerprint != null && isCached(stored, fingerprint)) {
+            return true;
+        }
+        // jBCrypt only knows the $2a$ prefix; $2b$ and $2y$ hashes are computed the same way.
+        String comparable = stored.charAt(2) == 'a' ? stored : "$2a" + stored.substring(3);
+        boolean matches = await(() -> BCrypt.checkpw(password, comparable));
+        if (matches && fingerprint != null) {
+            remember(stored, fingerprint);
+        }
+        return matches;
+    }
+
+    // True for plain-text rows and for hashes made with a lower cost than the current one.
+    public boolean needsRehash(String stored) {
+        if (stored == null || stored.startsWith(LOCKED_PREFIX)) {
+            return false;
+        }
+        if (!isBcrypt(stored)) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(stored.substring(4, 6)) < cost();
+        } catch (NumberFormatException error) {
+            return true;
+        }
+    }
+
+    public int cost() {
+        int current = cost;
+        if (current == 0) {
+            synchronized (this) {
+                if (cost == 0) {
+                    cost = configuredCost > 0 ? configuredCost : tuneCost(targetMs);
+                    Metrics.setGauge(Metrics.BCRYPT_COST, cost);
+                }
+                current = cost;
+            }
+        }
+        return current;
+    }
+
+    // Every step up doubles the work, so time the minimum cost and double from there.
+    private static int tuneCost(int targetMs) {
+        BCrypt.hashpw("warm-up", BCrypt.gensalt(4));
+        long started = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST));
+        double millis = (System.nanoTime() - started) / 1e6;
+        int tuned = MIN_COST;
+        while (tuned < MAX_COST && millis * 2 <= targetMs) {
+            tuned++;
+            millis *= 2;
+        }
+        return tuned;
+    }
+
+    // A hash of a random password at the current cost, made once (on a hasher thread).
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            synchronized (this) {
+                if (unknownUserHash == null) {
+                    byte[] password = new byte[16];
+                    new SecureRandom().nextBytes(password);
+                    unknownUserHash = BCrypt.hashpw(HexFormat.of().formatHex(password), BCrypt.gensalt(cost()));
+                }
+                hash = unknownUserHash;
+            }
+        }
+        return hash;
+    }
+
+    private static boolean isBcrypt(String stored) {
+        return stored.length() == 60 && stored.startsWith("$2") && stored.charAt(3) == '$';
+    }
+
+    private <T> T await(Callable<T> work) {
+        Future<T> result;
+        try {
+            result = hashers.submit(() -> {
+                long started = HASH_METRICS.begin();
+                boolean ok = false;
+                try {
+                    T value = work.call();
+                    ok = true;
+                    return value;
+                } finally {
+                    HASH_METRICS.end(started, ok);
+                }
+            });
+        } catch (RejectedExecutionException error) {
+            throw new IllegalStateException("Too many sign-ins in progress, please try again in a moment", error);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException error) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the password", error);
+        } catch (ExecutionException error) {
+            Throwable cause = error.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        }
+    }
+
+    private byte[] fingerprint(String password) {
+        if (cacheNanos == 0) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException error) {
+            return null;
+        }
+    }
+
+    private boolean isCached(String stored, byte[] fingerprint) {
+        CachedCheck check;
+        synchronized (recentChecks) {
+            check = recentChecks.get(stored);
+        }
+        return check != null && System.nanoTime() - check.checkedAt < cacheNanos
+                && MessageDigest.isEqual(check.fingerprint, fingerprint);
+    }
+
+    private void remember(String stored, byte[] fingerprint) {
+        synchronized (recentChecks) {
+            recentChecks.put(stored, new CachedCheck(fingerprint, System.nanoTime()));
+        }
+    }
+
+    private static final class CachedCheck {
+        private final byte[] fingerprint;
+        private final long checkedAt;
+
+        private CachedCheck(byte[] fingerprint, long checkedAt) {
+            this.fingerprint = fingerprint;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
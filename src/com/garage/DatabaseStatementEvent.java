@@ -0,0 +1,36 @@
+package com.garage;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One JDBC statement execution through ConnectionPool (see RecordedStatement). For queries the
+// event lasts until the ResultSet is closed, so it covers fetching the rows as well.
+@Name("com.garage.DatabaseStatement")
+@Label("Database Statement")
+@Category({"Garage", "Database"})
+@Description("A JDBC statement executed through the application's connection pool")
+@StackTrace(false)
+final class DatabaseStatementEvent extends Event {
+
+    @Label("SQL Id")
+    @Description("Short hash of the SQL text, for grouping executions of the same statement")
+    String sqlId;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Method")
+    @Description("executeQuery, executeUpdate, executeBatch or execute")
+    String method;
+
+    @Label("Rows")
+    @Description("Rows read by a query, or rows changed by an update or batch")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,233 @@
+package com.garage;
+
+import java.awt.EventQueue;
+import java.awt.Window;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+// Watches the Swing event dispatch thread for stalls. A daemon thread posts a heartbeat to the
+// EventQueue every JAVA_EDT_HEARTBEAT_MS and waits for it to run; the wait is the EDT's dispatch
+// delay (metric edt.dispatch). If it is still waiting after JAVA_EDT_STALL_MS the EDT's stack is
+// captured, and once the heartbeat finally runs the stall is:
+//  - recorded in the edt.stall metric (JMX, /metrics and the Settings tab's diagnostics),
+//  - written with its stack to a rolling log (JAVA_EDT_STALL_LOG, 5 files of 1 MB),
+//  - added to a per-call-site summary, keyed by the first application frame on the stack, which
+//    is logged, biggest total first, every JAVA_EDT_SUMMARY_MINUTES and when the app exits.
+public final class EdtWatchdog {
+
+    private static final int DEFAULT_STALL_MS = 500;
+    private static final int DEFAULT_HEARTBEAT_MS = 100;
+    private static final int DEFAULT_SUMMARY_MINUTES = 10;
+    private static final int LOG_FILE_BYTES = 1024 * 1024;
+    private static final int LOG_FILES = 5;
+    private static final int LOGGED_FRAMES = 40;
+    private static final String APP_PACKAGE = "com.garage.";
+
+    private static final OperationMetrics DISPATCH_METRICS = Metrics.operation(Metrics.EDT_DISPATCH);
+    private static final OperationMetrics STALL_METRICS = Metrics.operation(Metrics.EDT_STALL);
+
+    private static EdtWatchdog instance;
+
+    private final long stallNanos;
+    private final long heartbeatNanos;
+    private final long summaryNanos;
+    private final Logger log;
+    private final ConcurrentMap<String, CallSite> callSites = new ConcurrentHashMap<>();
+    private Thread watcher;
+    // Written by the heartbeat on the EDT, read by the watcher.
+    private volatile long servedPost;
+    private volatile long servedAt;
+    private volatile Thread dispatchThread;
+    private boolean newStallsSinceSummary;
+
+    private EdtWatchdog(long stallNanos, long heartbeatNanos, long summaryNanos, Logger log) {
+        this.stallNanos = stallNanos;
+        this.heartbeatNanos = heartbeatNanos;
+        this.summaryNanos = summaryNanos;
+        this.log = log;
+    }
+
+    // Starts the watchdog once per process, unless JAVA_EDT_STALL_MS is 0.
+    public static synchronized void startIfConfigured() {
+        int stallMs = AppConfig.getInt("JAVA_EDT_STALL_MS", DEFAULT_STALL_MS);
+        if (instance != null || stallMs <= 0) {
+            return;
+        }
+        int heartbeatMs = Math.max(10, AppConfig.getInt("JAVA_EDT_HEARTBEAT_MS", DEFAULT_HEARTBEAT_MS));
+        int summaryMinutes = Math.max(1, AppConfig.getInt("JAVA_EDT_SUMMARY_MINUTES", DEFAULT_SUMMARY_MINUTES));
+        instance = new EdtWatchdog(TimeUnit.MILLISECONDS.toNanos(stallMs), TimeUnit.MILLISECONDS.toNanos(heartbeatMs),
+                TimeUnit.MINUTES.toNanos(summaryMinutes), openLog(AppConfig.getOrDefault("JAVA_EDT_STALL_LOG", "edt-stalls.%g.log")));
+        instance.start();
+    }
+
+    private void start() {
+        watcher = new Thread(this::watch, "garage-edt-watchdog");
+        watcher.setDaemon(true);
+        watcher.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::logSummary));
+    }
+
+    private void watch() {
+        long nextSummary = System.nanoTime() + summaryNanos;
+        while (!Thread.currentThread().isInterrupted()) {
+            if (!anyWindowDisplayable()) {
+                // Posting events would restart the EDT and keep AWT from shutting the JVM down.
+                LockSupport.parkNanos(this, heartbeatNanos);
+                continue;
+            }
+            long posted = System.nanoTime();
+            EventQueue.invokeLater(() -> heartbeat(posted));
+
+            StackTraceElement[] stallStack = null;
+            while (servedPost != posted) {
+                long waited = System.nanoTime() - posted;
+                if (stallStack == null && waited >= stallNanos) {
+                    Thread edt = dispatchThread;
+                    stallStack = edt == null ? new StackTraceElement[0] : edt.getStackTrace();
+                }
+                // Woken early by the heartbeat; otherwise check again at the threshold or every heartbeat.
+                LockSupport.parkNanos(this, stallStack == null ? stallNanos - waited : heartbeatNanos);
+            }
+            long delay = servedAt - posted;
+            DISPATCH_METRICS.record(delay, true);
+            if (stallStack != null) {
+                recordStall(delay, stallStack);
+            }
+
+            if (System.nanoTime() >= nextSummary) {
+                nextSummary = System.nanoTime() + summaryNanos;
+                if (newStallsSinceSummary) {
+                    newStallsSinceSummary = false;
+                    logSummary();
+                }
+            }
+            LockSupport.parkNanos(this, heartbeatNanos);
+        }
+    }
+
+    private static boolean anyWindowDisplayable() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void heartbeat(long posted) {
+        dispatchThread = Thread.currentThread();
+        servedAt = System.nanoTime();
+        servedPost = posted;
+        LockSupport.unpark(watcher);
+    }
+
+    private void recordStall(long nanos, StackTraceElement[] stack) {
+        STALL_METRICS.record(nanos, true);
+        String site = callSite(stack);
+        callSites.computeIfAbsent(site, CallSite::new).add(nanos);
+        newStallsSinceSummary = true;
+
+        StringBuilder message = new StringBuilder(256 + stack.length * 80);
+        message.append(String.format(Locale.ROOT, "EDT stalled for %d ms in %s", TimeUnit.NANOSECONDS.toMillis(nanos), site));
+        for (int i = 0; i < stack.length && i < LOGGED_FRAMES; i++) {
+            message.append(System.lineSeparator()).append("\tat ").append(stack[i]);
+        }
+        if (stack.length > LOGGED_FRAMES) {
+            message.append(System.lineSeparator()).append("\t... ").append(stack.length - LOGGED_FRAMES).append(" more");
+        }
+        log.warning(message.toString());
+    }
+
+    // The first frame in the app's own code is the call that blocked (a query, an SMTP send);
+    // frames above it are the JDBC driver or JDK. Falls back to the top frame.
+    private static String callSite(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith(APP_PACKAGE)) {
+                return frame.toString();
+            }
+        }
+        return stack.length > 0 ? stack[0].toString() : "(stack not captured)";
+    }
+
+    private List<String> describeCallSites() {
+        List<CallSite> sites = new ArrayList<>(callSites.values());
+        sites.sort(Comparator.comparingLong(CallSite::totalNanos).reversed());
+        List<String> lines = new ArrayList<>(sites.size());
+        for (CallSite site : sites) {
+            lines.add(site.describe());
+        }
+        return lines;
+    }
+
+    private void logSummary() {
+        List<String> lines = describeCallSites();
+        if (lines.isEmpty()) {
+            return;
+        }
+        log.info("EDT stalls by call site (total ms, count, max ms):" + System.lineSeparator() + "\t"
+                + String.join(System.lineSeparator() + "\t", lines));
+    }
+
+    // Writes to rolling files; if they cannot be opened the stalls still go to System.err.
+    private static Logger openLog(String pattern) {
+        Logger logger = Logger.getLogger("com.garage.edt");
+        logger.setUseParentHandlers(false);
+        Handler handler;
+        try {
+            handler = new FileHandler(pattern, LOG_FILE_BYTES, LOG_FILES, true);
+        } catch (IOException | RuntimeException error) {
+            System.err.println("Could not open the EDT stall log " + pattern + ": " + error.getMessage());
+            handler = new ConsoleHandler();
+        }
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return Instant.ofEpochMilli(record.getMillis()) + " " + record.getMessage() + System.lineSeparator();
+            }
+        });
+        handler.setLevel(Level.ALL);
+        logger.addHandler(handler);
+        return logger;
+    }
+
+    private static final class CallSite {
+        private final String frame;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private CallSite(String frame) {
+            this.frame = frame;
+        }
+
+        private synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        private synchronized String describe() {
+            return String.format(Locale.ROOT, "%8d ms %6d x %8d ms max  %s", TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                    count, TimeUnit.NANOSECONDS.toMillis(maxNanos), frame);
+        }
+    }
+}
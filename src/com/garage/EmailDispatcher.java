@@ -0,0 +1,278 @@
+package com.garage;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Delivers EmailOutbox rows in the background. A single poller thread leases due rows and
+// splits them into one batch per SMTP worker; each batch goes out over a single pooled
+// connection (EmailService.sendBatch). Failures are retried with exponential backoff
+// (plus jitter) until JAVA_EMAIL_MAX_ATTEMPTS, after which the row is marked Dead.
+// Delivery is at-least-once: if a desk dies after sending but before markSent, the lease
+// expires and another dispatcher sends the message again.
+public final class EmailDispatcher implements AutoCloseable {
+
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int DEFAULT_BATCH_SIZE = 10;
+    private static final int DEFAULT_POLL_MS = 2000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 8;
+    private static final int DEFAULT_BACKOFF_BASE_SECONDS = 30;
+    private static final int DEFAULT_BACKOFF_MAX_SECONDS = 3600;
+    private static final int LEASE_SECONDS = 300;
+    private static final int METRICS_INTERVAL_SECONDS = 60;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutbox outbox;
+    private final int capacity;
+    private final int maxAttempts;
+    private final int backoffBaseSeconds;
+    private final int backoffMaxSeconds;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean pollQueued = new AtomicBoolean();
+    private volatile boolean backlog = false;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private long reportedSent = 0;
+    private long reportedRetried = 0;
+    private long reportedDead = 0;
+    private long reportedSendNanos = 0;
+
+    private EmailDispatcher(EmailOutbox outbox, int workerCount, int batchSize, int maxAttempts,
+                            int backoffBaseSeconds, int backoffMaxSeconds) {
+        this.outbox = outbox;
+        // At most one full batch per worker is leased at a time; a backlog is drained batch by batch.
+        this.capacity = workerCount * batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseSeconds = backoffBaseSeconds;
+        this.backoffMaxSeconds = backoffMaxSeconds;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "garage-email-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "garage-email-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static EmailDispatcher start(ConnectionPool connectionPool) {
+        EmailDispatcher dispatcher = new EmailDispatcher(
+                new EmailOutbox(connectionPool),
+                Math.max(1, AppConfig.getInt("JAVA_EMAIL_WORKERS", DEFAULT_WORKERS)),
+                Math.max(1, AppConfig.getInt("JAVA_EMAIL_BATCH_SIZE", DEFAULT_BATCH_SIZE)),
+                Math.max(1, AppConfig.getInt("JAVA_EMAIL_MAX_ATTEMPTS", DEFAULT_MAX_ATTEMPTS)),
+                Math.max(1, AppConfig.getInt("JAVA_EMAIL_BACKOFF_BASE_SECONDS", DEFAULT_BACKOFF_BASE_SECONDS)),
+                Math.max(1, AppConfig.getInt("JAVA_EMAIL_BACKOFF_MAX_SECONDS", DEFAULT_BACKOFF_MAX_SECONDS))
+        );
+        long pollMs = Math.max(100, AppConfig.getInt("JAVA_EMAIL_POLL_MS", DEFAULT_POLL_MS));
+        dispatcher.scheduler.scheduleWithFixedDelay(dispatcher::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+        dispatcher.scheduler.scheduleAtFixedRate(dispatcher::reportMetrics,
+                METRICS_INTERVAL_SECONDS, METRICS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        return dispatcher;
+    }
+
+    // Polls right away instead of waiting for the next tick, e.g. after a booking committed an email.
+    public void wake() {
+        if (pollQueued.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    pollQueued.set(false);
+                    poll();
+                });
+            } catch (RuntimeException rejected) {
+                pollQueued.set(false);
+            }
+        }
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getRetryCount() {
+        return retried.sum();
+    }
+
+    public long getDeadCount() {
+        return dead.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    private void poll() {
+        int free = capacity - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+
+        List<EmailOutbox.Message> claimed;
+        try {
+            claimed = outbox.claim(free, LEASE_SECONDS);
+        } catch (SQLException error) {
+            System.err.println("Could not read the email outbox: " + error.getMessage());
+            return;
+        }
+
+        backlog = claimed.size() == free;
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        int batchSize = (claimed.size() + workers.getCorePoolSize() - 1) / workers.getCorePoolSize();
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<EmailOutbox.Message> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            inFlight.addAndGet(batch.size());
+            workers.execute(() -> deliver(batch));
+        }
+    }
+
+    private void deliver(List<EmailOutbox.Message> batch) {
+        try {
+            List<EmailService.OutgoingEmail> emails = new ArrayList<>(batch.size());
+            for (EmailOutbox.Message message : batch) {
+                emails.add(new EmailService.OutgoingEmail(
+                        message.getRecipient(), message.getSubject(), message.getBody(), message.getHtmlBody()));
+            }
+
+            List<RuntimeException> failures;
+            long start = System.nanoTime();
+            try {
+                failures = EmailService.sendBatch(emails);
+            } catch (RuntimeException error) {
+                // Nothing was sent (e.g. SMTP settings missing), so the whole batch failed the same way.
+                failures = Collections.nCopies(batch.size(), error);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            for (int i = 0; i < batch.size(); i++) {
+                EmailOutbox.Message message = batch.get(i);
+                RuntimeException failure = failures.get(i);
+                if (failure != null) {
+                    fail(message, failure);
+                    continue;
+                }
+                try {
+                    if (outbox.markSent(message)) {
+                        sent.increment();
+                    } else {
+                        leaseLost(message);
+                    }
+                } catch (SQLException error) {
+                    System.err.println("Email " + message.getId() + " was sent but could not be marked as sent: " + error.getMessage());
+                }
+            }
+            sendNanos.add(elapsed);
+        } finally {
+            inFlight.addAndGet(-batch.size());
+            if (backlog) {
+                wake();
+            }
+        }
+    }
+
+    private void fail(EmailOutbox.Message message, RuntimeException error) {
+        String reason = describe(error);
+        try {
+            if (message.getAttempt() >= maxAttempts) {
+                if (!outbox.markDead(message, reason)) {
+                    leaseLost(message);
+                    return;
+                }
+                dead.increment();
+                System.err.println("Email " + message.getId() + " to " + message.getRecipient()
+                        + " gave up after " + message.getAttempt() + " attempts: " + reason);
+            } else if (outbox.markRetry(message, reason, backoffSeconds(message.getAttempt()))) {
+                retried.increment();
+            } else {
+                leaseLost(message);
+            }
+        } catch (SQLException markError) {
+            System.err.println("Could not record email failure for " + message.getId() + ": " + markError.getMessage());
+        }
+    }
+
+    // The lease expired during the send and another worker claimed the row, which now owns its state.
+    private static void leaseLost(EmailOutbox.Message message) {
+        System.err.println("Email " + message.getId() + " to " + message.getRecipient() + ": lease on attempt "
+                + message.getAttempt() + " expired before its result was recorded; another worker has it now.");
+    }
+
+    // base * 2^(attempt - 1), capped, with up to 20% jitter so desks that failed together do not retry together.
+    private int backoffSeconds(int attempt) {
+        long delay = (long) backoffBaseSeconds << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return (int) (delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1));
+    }
+
+    private void reportMetrics() {
+        long sentNow = sent.sum();
+        long retriedNow = retried.sum();
+        long deadNow = dead.sum();
+        long sendNanosNow = sendNanos.sum();
+
+        long sentDelta = sentNow - reportedSent;
+        long retriedDelta = retriedNow - reportedRetried;
+        long deadDelta = deadNow - reportedDead;
+        long nanosDelta = sendNanosNow - reportedSendNanos;
+
+        reportedSent = sentNow;
+        reportedRetried = retriedNow;
+        reportedDead = deadNow;
+        reportedSendNanos = sendNanosNow;
+
+        if (sentDelta + retriedDelta + deadDelta == 0) {
+            return;
+        }
+        System.out.printf(Locale.ROOT,
+                "Email outbox: %d sent, %d retried, %d dead in the last %d s (%.2f/s, %.0f ms SMTP time per sent email)%n",
+                sentDelta, retriedDelta, deadDelta, METRICS_INTERVAL_SECONDS,
+                sentDelta / (double) METRICS_INTERVAL_SECONDS,
+                sentDelta == 0 ? 0.0 : nanosDelta / (double) sentDelta / 1_000_000.0);
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cursor = error;
+        while (cursor.getCause() != null && cursor.getCause() != cursor) {
+            cursor = cursor.getCause();
+        }
+
+        String message = cursor.getMessage();
+        if (message == null || message.isBlank()) {
+            message = error.getMessage();
+        }
+        if (message == null || message.isBlank()) {
+            message = error.getClass().getSimpleName();
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
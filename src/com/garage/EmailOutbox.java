@@ -0,0 +1,195 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Data access for the EmailOutbox table (see sql/setup.sql for the status life cycle).
+// enqueue() runs on the caller's connection so the email commits or rolls back with the booking.
+public final class EmailOutbox {
+
+    private static final String INSERT_SQL = "INSERT INTO EmailOutbox (booking_id, recipient, subject, body, html_body) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CLAIMABLE_SQL = "SELECT id, recipient, subject, body, html_body, attempts FROM EmailOutbox "
+            + "WHERE status IN ('Pending', 'Sending') AND next_attempt_at <= CURRENT_TIMESTAMP(3) "
+            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_SQL = "UPDATE EmailOutbox SET status = 'Sending', attempts = attempts + 1, "
+            + "next_attempt_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)) WHERE id = ?";
+
+    private static final String SENT_SQL = "UPDATE EmailOutbox SET status = 'Sent', sent_at = CURRENT_TIMESTAMP(3), "
+            + "last_error = NULL WHERE id = ? AND status = 'Sending' AND attempts = ?";
+
+    private static final String RETRY_SQL = "UPDATE EmailOutbox SET status = 'Pending', last_error = ?, "
+            + "next_attempt_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)) WHERE id = ? AND status = 'Sending' AND attempts = ?";
+
+    private static final String DEAD_SQL = "UPDATE EmailOutbox SET status = 'Dead', last_error = ? "
+            + "WHERE id = ? AND status = 'Sending' AND attempts = ?";
+
+    private final ConnectionPool connectionPool;
+
+    public EmailOutbox(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // For QueryPlanCheck.
+    static List<PlannedQuery> plannedQueries() {
+        return List.of(new PlannedQuery("email outbox claim", CLAIMABLE_SQL, false, 20));
+    }
+
+    public static long enqueue(Connection conn, Integer bookingId, String recipient, EmailTemplates.RenderedEmail email)
+            throws SQLException {
+        return enqueue(conn, bookingId, recipient, email.getSubject(), email.getText(), email.getHtml());
+    }
+
+    // htmlBody may be null for a plain-text only email.
+    public static long enqueue(Connection conn, Integer bookingId, String recipient, String subject, String body,
+                               String htmlBody) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            if (bookingId != null) {
+                stmt.setInt(1, bookingId);
+            } else {
+                stmt.setNull(1, Types.INTEGER);
+            }
+            stmt.setString(2, recipient);
+            stmt.setString(3, subject);
+            stmt.setString(4, body);
+            stmt.setString(5, htmlBody);
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getLong(1) : -1;
+            }
+        }
+    }
+
+    // Leases up to limit due messages to the caller. A lease that is not resolved with
+    // markSent/markRetry/markDead before it expires (e.g. the desk crashed) makes the row claimable again.
+    // The attempts value written by the lease identifies it: those updates only apply while the row
+    // still carries it, so a worker whose lease expired and was re-claimed cannot overwrite the row.
+    public List<Message> claim(int limit, int leaseSeconds) throws SQLException {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Message> claimed = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(CLAIMABLE_SQL)) {
+                    stmt.setInt(1, limit);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            claimed.add(new Message(
+                                    rs.getLong("id"),
+                                    rs.getString("recipient"),
+                                    rs.getString("subject"),
+                                    rs.getString("body"),
+                                    rs.getString("html_body"),
+                                    rs.getInt("attempts") + 1
+                            ));
+                        }
+                    }
+                }
+
+                if (!claimed.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(LEASE_SQL)) {
+                        for (Message message : claimed) {
+                            stmt.setInt(1, leaseSeconds);
+                            stmt.setLong(2, message.getId());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                return claimed;
+            } catch (SQLException | RuntimeException error) {
+                conn.rollback();
+                throw error;
+            }
+        }
+    }
+
+    // Each of these returns false when the lease was lost: it expired and another worker claimed the row.
+    public boolean markSent(Message message) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SENT_SQL)) {
+            stmt.setLong(1, message.getId());
+            stmt.setInt(2, message.getAttempt());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean markRetry(Message message, String error, int delaySeconds) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RETRY_SQL)) {
+            stmt.setString(1, error);
+            stmt.setInt(2, delaySeconds);
+            stmt.setLong(3, message.getId());
+            stmt.setInt(4, message.getAttempt());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean markDead(Message message, String error) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DEAD_SQL)) {
+            stmt.setString(1, error);
+            stmt.setLong(2, message.getId());
+            stmt.setInt(3, message.getAttempt());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    // One leased outbox row. attempt counts the delivery that is about to be made (1 = first try);
+    // it is also the attempts value the lease wrote.
+    public static final class Message {
+        private final long id;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final String htmlBody;
+        private final int attempt;
+
+        private Message(long id, String recipient, String subject, String body, String htmlBody, int attempt) {
+            this.id = id;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.htmlBody = htmlBody;
+            this.attempt = attempt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getHtmlBody() {
+            return htmlBody;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.garage;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One message handed to the SMTP server by EmailService, including a reconnect if one was needed.
+@Name("com.garage.EmailSend")
+@Label("Email Send")
+@Category({"Garage", "Email"})
+@StackTrace(false)
+final class EmailSendEvent extends Event {
+
+    // Only the domain, to keep customer addresses out of recordings.
+    @Label("Recipient Domain")
+    String recipientDomain;
+
+    @Label("Subject")
+    String subject;
+
+    @Label("Failure")
+    String failure;
+}
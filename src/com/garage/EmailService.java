@@ -4,37 +4,174 @@ import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.SendFailedException;
 import jakarta.mail.Session;
 import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+// SMTP connections are expensive (TCP + STARTTLS + AUTH), so the Session is built once and
+// connected Transports are kept in a small pool and reused across messages and batches.
 public class EmailService {
 
     private static final String DEFAULT_SMTP_HOST = "smtp-relay.brevo.com";
     private static final String DEFAULT_SMTP_PORT = "587";
     private static final String SMTP_TIMEOUT_MS = "15000";
+    private static final int DEFAULT_TRANSPORT_POOL_SIZE = 2;
+    private static final int DEFAULT_TRANSPORT_IDLE_SECONDS = 60;
+    // A pooled connection idle for longer than this is checked with NOOP before it is reused.
+    private static final long NOOP_CHECK_AFTER_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final OperationMetrics SEND_METRICS = Metrics.operation(Metrics.EMAIL_SEND);
+
+    private static final Object POOL_LOCK = new Object();
+    private static volatile TransportPool transportPool;
+
+    static {
+        // Edited SMTP settings in .env take effect from the next message.
+        AppConfig.addListener(changed -> {
+            if (changed.stream().anyMatch(key -> key.startsWith("SMTP_") || key.startsWith("JAVA_SMTP_"))) {
+                resetConnections();
+            }
+        });
+    }
 
     public static void sendEmail(String toEmail, String subject, String body) {
-        SmtpConfig smtp = readSmtpConfig();
-        Session session = createSession(smtp);
+        RuntimeException failure = sendBatch(List.of(new OutgoingEmail(toEmail, subject, body))).get(0);
+        if (failure != null) {
+            throw failure;
+        }
+        System.out.println("Email sent successfully!");
+    }
+
+    // Sends every message over one pooled connection. The result list lines up with the input:
+    // null for a message that was accepted, otherwise the reason it failed. Missing SMTP
+    // configuration is thrown as IllegalStateException before anything is sent.
+    public static List<RuntimeException> sendBatch(List<OutgoingEmail> emails) {
+        TransportPool pool = transportPool();
+        List<RuntimeException> results = new ArrayList<>(emails.size());
+        PooledTransport transport = null;
 
         try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(smtp.from));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
-            message.setSubject(subject);
-            message.setText(body);
+            for (OutgoingEmail email : emails) {
+                long started = SEND_METRICS.begin();
+                int index = results.size();
+                EmailSendEvent event = new EmailSendEvent();
+                event.begin();
+                boolean ok = false;
+                try {
+                    MimeMessage message = createMessage(pool.session, pool.smtp, email);
+                    if (transport == null) {
+                        transport = pool.borrow();
+                    }
+                    try {
+                        transport.send(message);
+                    } catch (MessagingException error) {
+                        if (error instanceof SendFailedException || transport.isConnected()) {
+                            throw error;
+                        }
+                        // The server dropped the connection (idle timeout, restart): retry once on a fresh one.
+                        pool.discard(transport);
+                        transport = null; // not released again if the reconnect below fails
+                        transport = pool.borrow();
+                        transport.send(message);
+                    }
+                    results.add(null);
+                    ok = true;
+                } catch (MessagingException error) {
+                    results.add(new RuntimeException(buildEmailFailureMessage(error), error));
+                } catch (RuntimeException error) {
+                    results.add(error);
+                } finally {
+                    SEND_METRICS.end(started, ok);
+                    recordSend(event, email, results.size() > index ? results.get(index) : null);
+                }
+            }
+        } finally {
+            if (transport != null) {
+                pool.release(transport);
+            }
+        }
+        return results;
+    }
 
-            Transport.send(message);
-            System.out.println("Email sent successfully!");
-        } catch (MessagingException error) {
-            throw new RuntimeException(buildEmailFailureMessage(error), error);
+    private static void recordSend(EmailSendEvent event, OutgoingEmail email, RuntimeException failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            int at = email.to == null ? -1 : email.to.lastIndexOf('@');
+            event.recipientDomain = at < 0 ? null : email.to.substring(at + 1);
+            event.subject = email.subject;
+            event.failure = failure == null ? null : failure.getMessage();
+            event.commit();
+        }
+    }
+
+    // Drops the cached session and closes pooled connections, e.g. after the SMTP settings changed.
+    public static void resetConnections() {
+        TransportPool previous;
+        synchronized (POOL_LOCK) {
+            previous = transportPool;
+            transportPool = null;
+        }
+        if (previous != null) {
+            previous.close();
         }
     }
 
+    private static TransportPool transportPool() {
+        TransportPool pool = transportPool;
+        if (pool != null) {
+            return pool;
+        }
+        synchronized (POOL_LOCK) {
+            if (transportPool == null) {
+                SmtpConfig smtp = readSmtpConfig();
+                transportPool = new TransportPool(
+                        smtp,
+                        createSession(smtp),
+                        Math.max(1, AppConfig.getInt("JAVA_SMTP_POOL_SIZE", DEFAULT_TRANSPORT_POOL_SIZE)),
+                        Math.max(1, AppConfig.getInt("JAVA_SMTP_IDLE_SECONDS", DEFAULT_TRANSPORT_IDLE_SECONDS))
+                );
+            }
+            return transportPool;
+        }
+    }
+
+    private static MimeMessage createMessage(Session session, SmtpConfig smtp, OutgoingEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(smtp.from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.to));
+        message.setSubject(email.subject, StandardCharsets.UTF_8.name());
+
+        if (email.html == null) {
+            message.setText(email.body, StandardCharsets.UTF_8.name());
+        } else {
+            // Clients show the last alternative they understand, so the HTML part goes last.
+            MimeBodyPart textPart = new MimeBodyPart();
+            textPart.setText(email.body, StandardCharsets.UTF_8.name());
+            MimeBodyPart htmlPart = new MimeBodyPart();
+            htmlPart.setContent(email.html, "text/html; charset=UTF-8");
+
+            MimeMultipart alternatives = new MimeMultipart("alternative");
+            alternatives.addBodyPart(textPart);
+            alternatives.addBodyPart(htmlPart);
+            message.setContent(alternatives);
+        }
+        message.saveChanges();
+        return message;
+    }
+
     private static Session createSession(SmtpConfig smtp) {
         Properties props = new Properties();
         props.put("mail.smtp.host", smtp.host);
@@ -163,6 +300,140 @@ public class EmailService {
         }
     }
 
+    public static final class OutgoingEmail {
+        private final String to;
+        private final String subject;
+        private final String body;
+        private final String html;
+
+        public OutgoingEmail(String to, String subject, String body) {
+            this(to, subject, body, null);
+        }
+
+        // html may be null for a plain-text only message.
+        public OutgoingEmail(String to, String subject, String body, String html) {
+            this.to = to;
+            this.subject = subject;
+            this.body = body;
+            this.html = html;
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        // SMTPTransport answers this with a NOOP round trip.
+        private boolean isConnected() {
+            try {
+                return transport.isConnected();
+            } catch (RuntimeException error) {
+                return false;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // Already broken; nothing to clean up.
+            }
+        }
+    }
+
+    // At most maxSize connections exist at once; callers beyond that wait for one to be released.
+    private static final class TransportPool {
+        private final SmtpConfig smtp;
+        private final Session session;
+        private final Semaphore permits;
+        private final long idleTimeoutNanos;
+        private final Deque<PooledTransport> idle = new ArrayDeque<>();
+        // Set by resetConnections; guarded by idle. Connections still borrowed are closed on release.
+        private boolean closed;
+
+        private TransportPool(SmtpConfig smtp, Session session, int maxSize, int idleTimeoutSeconds) {
+            this.smtp = smtp;
+            this.session = session;
+            this.permits = new Semaphore(maxSize, true);
+            this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        }
+
+        private PooledTransport borrow() throws MessagingException {
+            try {
+                permits.acquire();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted while waiting for an SMTP connection", error);
+            }
+
+            try {
+                PooledTransport pooled;
+                while ((pooled = pollIdle()) != null) {
+                    long idleNanos = System.nanoTime() - pooled.lastUsedNanos;
+                    if (idleNanos <= idleTimeoutNanos
+                            && (idleNanos < NOOP_CHECK_AFTER_NANOS || pooled.isConnected())) {
+                        return pooled;
+                    }
+                    pooled.closeQuietly();
+                }
+
+                Transport transport = session.getTransport("smtp");
+                transport.connect(smtp.host, Integer.parseInt(smtp.port), smtp.user, smtp.pass);
+                return new PooledTransport(transport);
+            } catch (MessagingException | RuntimeException error) {
+                permits.release();
+                throw error;
+            }
+        }
+
+        private void release(PooledTransport transport) {
+            transport.lastUsedNanos = System.nanoTime();
+            List<PooledTransport> expired = new ArrayList<>();
+            synchronized (idle) {
+                if (closed) {
+                    expired.add(transport);
+                } else {
+                    idle.addFirst(transport);
+                }
+                // Most recently used first, so expired connections collect at the tail.
+                while (!idle.isEmpty() && System.nanoTime() - idle.peekLast().lastUsedNanos > idleTimeoutNanos) {
+                    expired.add(idle.pollLast());
+                }
+            }
+            permits.release();
+            expired.forEach(PooledTransport::closeQuietly);
+        }
+
+        private void discard(PooledTransport transport) {
+            transport.closeQuietly();
+            permits.release();
+        }
+
+        private void close() {
+            List<PooledTransport> closing;
+            synchronized (idle) {
+                closed = true;
+                closing = new ArrayList<>(idle);
+                idle.clear();
+            }
+            closing.forEach(PooledTransport::closeQuietly);
+        }
+
+        private PooledTransport pollIdle() {
+            synchronized (idle) {
+                return idle.pollFirst();
+            }
+        }
+    }
+
     private static final class SmtpConfig {
         private final String host;
         private final String port;
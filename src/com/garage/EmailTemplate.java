@@ -0,0 +1,179 @@
+package com.garage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A template compiled once into alternating literal and variable segments. Placeholders are
+// written {{name}} and must be one of the variables declared at compile time, so a typo fails
+// at startup instead of producing a half-filled email. Values are passed positionally in the
+// declared order; HTML templates escape them as they are appended.
+public final class EmailTemplate {
+
+    private static final int MAX_REUSED_BUFFER = 64 * 1024;
+    // A StringBuilder that has held a non-Latin-1 character keeps two bytes per char for good,
+    // so templates with emoji get their own buffer and the Latin-1 one stays compact.
+    private static final ThreadLocal<StringBuilder> LATIN1_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+    private static final ThreadLocal<StringBuilder> UTF16_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private final String name;
+    private final boolean html;
+    private final String[] literals;
+    // slots[i] is the variable rendered after literals[i]; literals has one more entry than slots.
+    private final int[] slots;
+    private final int variableCount;
+    private final int literalLength;
+    private final ThreadLocal<StringBuilder> buffer;
+
+    private EmailTemplate(String name, boolean html, String[] literals, int[] slots, int variableCount) {
+        this.name = name;
+        this.html = html;
+        this.literals = literals;
+        this.slots = slots;
+        this.variableCount = variableCount;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+        this.buffer = isLatin1(literals) ? LATIN1_BUFFER : UTF16_BUFFER;
+    }
+
+    public static EmailTemplate text(String name, String source, String... variables) {
+        return compile(name, source, false, variables);
+    }
+
+    public static EmailTemplate html(String name, String source, String... variables) {
+        return compile(name, source, true, variables);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    // Renders into a reused per-thread buffer, so the only allocation is the returned String.
+    public String render(String... values) {
+        StringBuilder out = buffer.get();
+        out.setLength(0);
+        renderTo(out, values);
+        String result = out.toString();
+        if (out.capacity() > MAX_REUSED_BUFFER || (buffer == LATIN1_BUFFER && !isLatin1(values))) {
+            buffer.remove();
+        }
+        return result;
+    }
+
+    // Appends to a caller-owned builder, for writing many emails into one buffer or stream.
+    public void renderTo(StringBuilder out, String... values) {
+        checkValueCount(values);
+
+        out.ensureCapacity(out.length() + literalLength + 32 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values[slots[i]];
+            if (html) {
+                appendEscaped(out, value);
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private void checkValueCount(String[] values) {
+        if (values.length != variableCount) {
+            throw new IllegalArgumentException("Template " + name + " expects " + variableCount
+                    + " values but got " + values.length);
+        }
+    }
+
+    private static EmailTemplate compile(String name, String source, boolean html, String[] variables) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> declared = Arrays.asList(variables);
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Template " + name + ": unclosed {{ at offset " + open);
+            }
+
+            String variable = source.substring(open + 2, close).trim();
+            int slot = declared.indexOf(variable);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Template " + name + ": unknown variable {{" + variable + "}}");
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + 2;
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new EmailTemplate(name, html, literals.toArray(new String[0]), slotArray, variables.length);
+    }
+
+    private static boolean isLatin1(String[] parts) {
+        for (String part : parts) {
+            if (part == null) {
+                continue;
+            }
+            for (int i = 0; i < part.length(); i++) {
+                if (part.charAt(i) > 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int first = firstEscapedChar(value);
+        if (first < 0) {
+            out.append(value);
+            return;
+        }
+        out.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                case '\n' -> out.append("<br>");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static int firstEscapedChar(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case '<', '>', '&', '"', '\'', '\n' -> {
+                    return i;
+                }
+                default -> {
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,181 @@
+package com.garage;
+
+// The customer emails sent by the desktop apps. Every template is compiled once when this
+// class loads; each email has a plain-text and an HTML variant, sent as multipart/alternative.
+public final class EmailTemplates {
+
+    public static final String DEFAULT_CONTACT_PHONE = "+91 9876543210";
+    public static final String DEFAULT_CONTACT_EMAIL = "support@garageservices.com";
+
+    private static final String RULE = "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━";
+
+    private static final String[] CONFIRMATION_VARIABLES = {
+        "name", "vehicle", "service_package", "appointment", "cost", "contact_phone", "contact_email"
+    };
+    private static final String[] STATUS_VARIABLES = {"name", "booking_id", "vehicle", "status"};
+    private static final String[] REMINDER_VARIABLES = {"name", "vehicle", "service_package", "appointment", "contact_phone"};
+
+    private static final EmailTemplate CONFIRMATION_SUBJECT = EmailTemplate.text("confirmation-subject",
+            "🎉 Your Garage Service Booking is Confirmed!", CONFIRMATION_VARIABLES);
+
+    private static final EmailTemplate CONFIRMATION_TEXT = EmailTemplate.text("confirmation-text", """
+            🚗 Welcome to Our Garage Services! 🚗
+
+            Dear {{name}},
+
+            Great news! Your service booking has been confirmed.
+
+            %1$s
+            📋 BOOKING DETAILS
+            %1$s
+            Vehicle Type: {{vehicle}}
+            Service Package: {{service_package}}
+            Appointment: {{appointment}}
+            Total Cost: {{cost}}
+            %1$s
+
+            ✨ What's Next?
+            • Our team will contact you shortly to confirm your appointment
+            • Please bring your vehicle at the scheduled time
+            • Our expert technicians will take care of everything!
+
+            💡 Need to reschedule or have questions?
+            Feel free to reach out to us anytime.
+
+            Our contact details:
+            📞 Phone: {{contact_phone}}
+            📧 Email: {{contact_email}}
+
+            Thank you for choosing our services! We look forward to serving you.
+
+            Best regards,
+            Your Garage Services Team
+            %1$s""".formatted(RULE), CONFIRMATION_VARIABLES);
+
+    private static final EmailTemplate CONFIRMATION_HTML = EmailTemplate.html("confirmation-html", """
+            <html><body style="font-family: Segoe UI, Arial, sans-serif; color: #2c3e50;">
+            <h2>🚗 Welcome to Our Garage Services!</h2>
+            <p>Dear {{name}},</p>
+            <p>Great news! Your service booking has been confirmed.</p>
+            <table style="border-collapse: collapse;">
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Vehicle Type</b></td><td>{{vehicle}}</td></tr>
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Service Package</b></td><td>{{service_package}}</td></tr>
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Appointment</b></td><td>{{appointment}}</td></tr>
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Total Cost</b></td><td>{{cost}}</td></tr>
+            </table>
+            <h3>✨ What's Next?</h3>
+            <ul>
+            <li>Our team will contact you shortly to confirm your appointment</li>
+            <li>Please bring your vehicle at the scheduled time</li>
+            <li>Our expert technicians will take care of everything!</li>
+            </ul>
+            <p>Need to reschedule or have questions? Call us on {{contact_phone}} or write to {{contact_email}}.</p>
+            <p>Best regards,<br>Your Garage Services Team</p>
+            </body></html>""", CONFIRMATION_VARIABLES);
+
+    private static final EmailTemplate STATUS_SUBJECT = EmailTemplate.text("status-subject",
+            "🔧 Booking #{{booking_id}} is now {{status}}", STATUS_VARIABLES);
+
+    private static final EmailTemplate STATUS_TEXT = EmailTemplate.text("status-text", """
+            Dear {{name}},
+
+            The status of your booking #{{booking_id}} ({{vehicle}}) has changed to: {{status}}.
+
+            Best regards,
+            Your Garage Services Team""", STATUS_VARIABLES);
+
+    private static final EmailTemplate STATUS_HTML = EmailTemplate.html("status-html", """
+            <html><body style="font-family: Segoe UI, Arial, sans-serif; color: #2c3e50;">
+            <p>Dear {{name}},</p>
+            <p>The status of your booking #{{booking_id}} ({{vehicle}}) has changed to: <b>{{status}}</b>.</p>
+            <p>Best regards,<br>Your Garage Services Team</p>
+            </body></html>""", STATUS_VARIABLES);
+
+    private static final EmailTemplate REMINDER_SUBJECT = EmailTemplate.text("reminder-subject",
+            "⏰ Reminder: your garage appointment on {{appointment}}", REMINDER_VARIABLES);
+
+    private static final EmailTemplate REMINDER_TEXT = EmailTemplate.text("reminder-text", """
+            Dear {{name}},
+
+            This is a friendly reminder of your upcoming service appointment.
+
+            Vehicle Type: {{vehicle}}
+            Service Package: {{service_package}}
+            Appointment: {{appointment}}
+
+            Need to reschedule? Call us on {{contact_phone}}.
+
+            Best regards,
+            Your Garage Services Team""", REMINDER_VARIABLES);
+
+    private static final EmailTemplate REMINDER_HTML = EmailTemplate.html("reminder-html", """
+            <html><body style="font-family: Segoe UI, Arial, sans-serif; color: #2c3e50;">
+            <p>Dear {{name}},</p>
+            <p>This is a friendly reminder of your upcoming service appointment.</p>
+            <table style="border-collapse: collapse;">
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Vehicle Type</b></td><td>{{vehicle}}</td></tr>
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Service Package</b></td><td>{{service_package}}</td></tr>
+            <tr><td style="padding: 4px 12px 4px 0;"><b>Appointment</b></td><td>{{appointment}}</td></tr>
+            </table>
+            <p>Need to reschedule? Call us on {{contact_phone}}.</p>
+            <p>Best regards,<br>Your Garage Services Team</p>
+            </body></html>""", REMINDER_VARIABLES);
+
+    private EmailTemplates() {
+    }
+
+    // costPaise is shown as PricingEngine.format prints money everywhere else.
+    public static RenderedEmail bookingConfirmation(String name, String vehicle, String servicePackage, String appointment,
+                                                    long costPaise, String contactPhone, String contactEmail) {
+        String[] values = {name, vehicle, servicePackage, appointment, PricingEngine.format(costPaise),
+            contactPhone, contactEmail};
+        return new RenderedEmail(
+                CONFIRMATION_SUBJECT.render(values),
+                CONFIRMATION_TEXT.render(values),
+                CONFIRMATION_HTML.render(values)
+        );
+    }
+
+    public static RenderedEmail statusChange(String name, int bookingId, String vehicle, String status) {
+        String[] values = {name, String.valueOf(bookingId), vehicle, status};
+        return new RenderedEmail(
+                STATUS_SUBJECT.render(values),
+                STATUS_TEXT.render(values),
+                STATUS_HTML.render(values)
+        );
+    }
+
+    public static RenderedEmail reminder(String name, String vehicle, String servicePackage, String appointment,
+                                         String contactPhone) {
+        String[] values = {name, vehicle, servicePackage, appointment, contactPhone};
+        return new RenderedEmail(
+                REMINDER_SUBJECT.render(values),
+                REMINDER_TEXT.render(values),
+                REMINDER_HTML.render(values)
+        );
+    }
+
+    public static final class RenderedEmail {
+        private final String subject;
+        private final String text;
+        private final String html;
+
+        private RenderedEmail(String subject, String text, String html) {
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getHtml() {
+            return html;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// The CustomerFeedback statement GarageServiceApp's feedback form uses.
+public final class FeedbackDao {
+
+    private static final String INSERT_SQL = "INSERT INTO CustomerFeedback (feedback_text) VALUES (?)";
+
+    private final ConnectionPool connectionPool;
+
+    public FeedbackDao(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    public void insert(String feedbackText) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+
+            stmt.setString(1, feedbackText);
+            stmt.executeUpdate();
+        }
+    }
+}
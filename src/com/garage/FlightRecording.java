@@ -0,0 +1,55 @@
+package com.garage;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+// Continuous, rolling Java Flight Recorder recording for the apps, started when JAVA_JFR_ENABLED
+// is true. Only the last JAVA_JFR_MAX_AGE_MINUTES (and at most JAVA_JFR_MAX_SIZE_MB) are kept on
+// disk, so it can run all day. To look at "the app was slow at 11:40", dump it while it runs:
+//   jcmd <pid> JFR.dump name=garage filename=slow.jfr
+// and open the file in JDK Mission Control; it is also written to JAVA_JFR_FILE on exit.
+// Besides the JDK's own events it has the app's: DatabaseStatement, EmailSend and PanelBuild.
+public final class FlightRecording {
+
+    private static final int DEFAULT_MAX_AGE_MINUTES = 60;
+    private static final int DEFAULT_MAX_SIZE_MB = 250;
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    public static synchronized void startIfConfigured() {
+        if (recording != null || !AppConfig.getBoolean("JAVA_JFR_ENABLED", false)) {
+            return;
+        }
+        int maxAgeMinutes = Math.max(1, AppConfig.getInt("JAVA_JFR_MAX_AGE_MINUTES", DEFAULT_MAX_AGE_MINUTES));
+        int maxSizeMb = Math.max(1, AppConfig.getInt("JAVA_JFR_MAX_SIZE_MB", DEFAULT_MAX_SIZE_MB));
+        // Statements faster than this are left out, to keep busy days within the size limit.
+        int statementThresholdMs = Math.max(0, AppConfig.getInt("JAVA_JFR_STATEMENT_THRESHOLD_MS", 0));
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(
+                    AppConfig.getOrDefault("JAVA_JFR_SETTINGS", "default")));
+            started.setName("garage");
+            started.enable(DatabaseStatementEvent.class).withThreshold(Duration.ofMillis(statementThresholdMs));
+            started.enable(EmailSendEvent.class);
+            started.enable(PanelBuildEvent.class);
+            started.setToDisk(true);
+            started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            started.setMaxSize(maxSizeMb * 1024L * 1024L);
+            started.setDestination(Paths.get(AppConfig.getOrDefault("JAVA_JFR_FILE", "garage-flight.jfr")));
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            System.out.println("Flight recording 'garage' keeps the last " + maxAgeMinutes + " minutes; "
+                    + "save it with: jcmd " + ProcessHandle.current().pid() + " JFR.dump name=garage filename=garage.jfr");
+        } catch (IOException | ParseException | RuntimeException error) {
+            System.err.println("Could not start the flight recording: " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Simulates a number of front-desk terminals working against one database at the same time,
+// each running the desktop app's own BookingService code with its own connection pool, as
+// separate app instances would:
+//   java -cp ... com.garage.FrontDeskLoadTest [--terminals 20] [--seconds 60] [--warmup 5]
+//       [--mix insert=10,history=40,search=15,status=15,stats=20] [--think-ms 0] [--seed 42]
+//       [--users N --bookings N]   (seed a SyntheticDataset first)
+// Each terminal is a closed loop: it picks the next operation from the mix, runs it, waits
+// the think time and repeats. Latencies are kept per terminal and merged at the end into
+// throughput and p50/p99/p999/max per operation. Bookings inserted by the run are deleted again.
+public final class FrontDeskLoadTest {
+
+    private static final String[] OPERATIONS = {"insert", "history", "search", "status", "stats"};
+    private static final String DEFAULT_MIX = "insert=10,history=40,search=15,status=15,stats=20";
+    // The History tab's default page size (JAVA_HISTORY_PAGE_SIZE).
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_ERRORS_SHOWN = 5;
+    // Three-letter prefixes of SyntheticDataset's first names, typed into the search box.
+    private static final String[] SEARCH_TERMS = {"Aar", "Adi", "Arj", "Ana", "Kav", "Mee", "Rah", "Pri", "Roh",
+        "Vik", "Ash", "Kar", "Poo", "Nik", "Sha", "Pat", "Red", "Iye", "Nai", "Rao"};
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int[] mix = new int[OPERATIONS.length];
+    private final String marker = "frontdesk-" + Long.toHexString(System.nanoTime());
+    private final AtomicLong errors = new AtomicLong();
+    private int terminals = 20;
+    private int seconds = 60;
+    private int warmupSeconds = 5;
+    private int thinkMs = 0;
+    private long seed = 42;
+    private int seedUsers = 0;
+    private int seedBookings = 0;
+    private int[] userIds;
+    private int minBookingId;
+    private int maxBookingId;
+    private volatile boolean recording = false;
+    private volatile boolean stopped = false;
+
+    private FrontDeskLoadTest(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
+        if (!missingDb.isEmpty()) {
+            System.err.println("Missing required database configuration: " + String.join(", ", missingDb));
+            System.exit(2);
+        }
+        run(AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"), AppConfig.get("JAVA_DB_PASSWORD"), args);
+    }
+
+    // Entry point for other databases, such as the H2 stand-in in the benchmarks module.
+    public static void run(String url, String user, String password, String[] args) throws Exception {
+        FrontDeskLoadTest test = new FrontDeskLoadTest(url, user, password);
+        try {
+            test.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: FrontDeskLoadTest [--terminals N] [--seconds N] [--warmup N] "
+                    + "[--mix " + DEFAULT_MIX + "] [--think-ms N] [--seed S] [--users N --bookings N]");
+            System.exit(2);
+        }
+        test.run();
+    }
+
+    private void parse(String[] args) {
+        String mixSpec = DEFAULT_MIX;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(args[i] + " needs a value");
+            }
+            switch (args[i]) {
+                case "--terminals" -> terminals = positive(args[i], args[++i]);
+                case "--seconds" -> seconds = positive(args[i], args[++i]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "--mix" -> mixSpec = args[++i];
+                case "--think-ms" -> thinkMs = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--users" -> seedUsers = Integer.parseInt(args[++i]);
+                case "--bookings" -> seedBookings = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        parseMix(mixSpec);
+    }
+
+    // "insert=10,history=40,..." into cumulative weights; operations left out are not run.
+    private void parseMix(String spec) {
+        int[] weights = new int[OPERATIONS.length];
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            int index = Arrays.asList(OPERATIONS).indexOf(pair[0].trim());
+            if (index < 0 || pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "' (operations: "
+                        + String.join(", ", OPERATIONS) + ")");
+            }
+            weights[index] = Integer.parseInt(pair[1].trim());
+        }
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += Math.max(0, weights[i]);
+            mix[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("The mix has no operations");
+        }
+    }
+
+    private void run() throws Exception {
+        try (ConnectionPool setupPool = ConnectionPool.create(url, user, password)) {
+            if (seedBookings > 0) {
+                new SyntheticDataset(setupPool, seed).generate(Math.max(1, seedUsers), seedBookings,
+                        seedBookings / 2, seedBookings / 10);
+            }
+            loadTargets(setupPool);
+        }
+        System.out.printf(Locale.ROOT, "%d terminals for %d s (after %d s warm-up), mix %s, think time %d ms, "
+                        + "%d users, booking ids %d-%d%n", terminals, seconds, warmupSeconds, describeMix(), thinkMs,
+                userIds.length, minBookingId, maxBookingId);
+
+        List<Terminal> desks = new ArrayList<>(terminals);
+        CountDownLatch finished = new CountDownLatch(terminals);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < terminals; i++) {
+            Terminal desk = new Terminal(seeds.split());
+            desks.add(desk);
+            Thread thread = new Thread(() -> {
+                try {
+                    desk.work();
+                } finally {
+                    finished.countDown();
+                }
+            }, "garage-terminal-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Thread.sleep(warmupSeconds * 1000L);
+        errors.set(0);
+        recording = true;
+        long measuredFrom = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        recording = false;
+        double measured = (System.nanoTime() - measuredFrom) / 1e9;
+        stopped = true;
+        finished.await();
+
+        report(desks, measured);
+        cleanUp(desks);
+    }
+
+    // Users to book for and the range of booking ids that status updates pick from.
+    private void loadTargets(ConnectionPool pool) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = pool.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM Users ORDER BY id LIMIT 10000");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT MIN(id), MAX(id) FROM GarageServiceBookings");
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                minBookingId = rs.getInt(1);
+                maxBookingId = rs.getInt(2);
+            }
+        }
+        userIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        if (maxBookingId == 0 && mix[3] > mix[2]) {
+            throw new IllegalStateException("No bookings to update; seed some with --users N --bookings N");
+        }
+    }
+
+    private String describeMix() {
+        StringBuilder text = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (mix[i] > previous) {
+                text.append(text.length() == 0 ? "" : ",").append(OPERATIONS[i]).append('=').append(mix[i] - previous);
+            }
+            previous = mix[i];
+        }
+        return text.toString();
+    }
+
+    private void report(List<Terminal> desks, double measuredSeconds) {
+        System.out.printf(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s %9s%n", "op", "count", "ops/s", "p50 ms", "p99 ms",
+                "p999 ms", "max ms");
+        long total = 0;
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            int count = 0;
+            for (Terminal desk : desks) {
+                count += desk.counts[op];
+            }
+            long[] sorted = new long[count];
+            int offset = 0;
+            for (Terminal desk : desks) {
+                System.arraycopy(desk.latencies[op], 0, sorted, offset, desk.counts[op]);
+                offset += desk.counts[op];
+            }
+            Arrays.sort(sorted);
+            total += count;
+            System.out.printf(Locale.ROOT, "%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", OPERATIONS[op], count,
+                    count / measuredSeconds, percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 99.9),
+                    count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+        }
+        System.out.printf(Locale.ROOT, "total    %9d %9.1f   errors: %d%n", total, total / measuredSeconds, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Deletes the bookings the terminals inserted (their notes carry this run's marker).
+    private void cleanUp(List<Terminal> desks) {
+        try (ConnectionPool pool = ConnectionPool.create(url, user, password)) {
+            BookingService service = new BookingService(pool, new BookingStatsStore(pool), new SettingsCache(pool));
+            int deleted = 0;
+            for (Terminal desk : desks) {
+                for (int i = 0; i < desk.insertedCount; i++) {
+                    if (service.deleteBooking(desk.inserted[i])) {
+                        deleted++;
+                    }
+                }
+            }
+            System.out.println("Deleted " + deleted + " bookings inserted by the test (" + marker + ")");
+        } catch (SQLException e) {
+            System.err.println("Could not delete the test bookings (notes '" + marker + "'): " + e.getMessage());
+        }
+    }
+
+    private static int positive(String option, String value) {
+        int number = Integer.parseInt(value);
+        if (number < 1) {
+            throw new IllegalArgumentException(option + " must be at least 1");
+        }
+        return number;
+    }
+
+    // One simulated desk: its own pool, settings cache and BookingService, like one app instance.
+    private final class Terminal {
+        private final SplittableRandom random;
+        private final long[][] latencies = new long[OPERATIONS.length][1024];
+        private final int[] counts = new int[OPERATIONS.length];
+        private int[] inserted = new int[256];
+        private int insertedCount;
+
+        private Terminal(SplittableRandom random) {
+            this.random = random;
+        }
+
+        private void work() {
+            try (ConnectionPool pool = ConnectionPool.create(url, user, password)) {
+                SettingsCache settings = new SettingsCache(pool);
+                settings.reload();
+                BookingService service = new BookingService(pool, new BookingStatsStore(pool), settings);
+                while (!stopped) {
+                    int op = pickOperation();
+                    long start = System.nanoTime();
+                    try {
+                        perform(service, op);
+                        if (recording) {
+                            record(op, System.nanoTime() - start);
+                        }
+                    } catch (SQLException | RuntimeException e) {
+                        if (recording && errors.incrementAndGet() <= MAX_ERRORS_SHOWN) {
+                            System.err.println(OPERATIONS[op] + " failed: " + e);
+                        }
+                    }
+                    if (thinkMs > 0) {
+                        Thread.sleep(thinkMs);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println(Thread.currentThread().getName() + " could not start: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private int pickOperation() {
+            int roll = random.nextInt(mix[mix.length - 1]);
+            for (int i = 0; i < mix.length; i++) {
+                if (roll < mix[i]) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private void perform(BookingService service, int op) throws SQLException {
+            switch (OPERATIONS[op]) {
+                case "insert" -> {
+                    Integer customer = userIds.length == 0 ? null : userIds[random.nextInt(userIds.length)];
+                    Booking booking = service.createBooking(new BookingService.BookingRequest(customer,
+                            "Walk-in Customer", "walk-in" + SyntheticDataset.EMAIL_DOMAIN, "9876500000",
+                            (2 + random.nextInt(3)) + " Wheeler", random.nextInt(100) < 30, "2030-01-01 10:00",
+                            marker), false);
+                    remember(booking.getId());
+                }
+                case "history" -> {
+                    // Opening the History tab, then scrolling to the second page.
+                    List<Booking> page = service.listBookings(null, null, null, HISTORY_PAGE_SIZE);
+                    if (!page.isEmpty()) {
+                        service.listBookings(null, null, page.get(page.size() - 1).getId(), HISTORY_PAGE_SIZE);
+                    }
+                }
+                case "search" -> service.searchBookings(null, SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)],
+                        HISTORY_PAGE_SIZE);
+                case "status" -> service.updateStatus(minBookingId + random.nextInt(maxBookingId - minBookingId + 1),
+                        BookingService.STATUSES.get(random.nextInt(BookingService.STATUSES.size())));
+                default -> {
+                    // The dashboard: global counters and one customer's.
+                    service.getStats(null);
+                    if (userIds.length > 0) {
+                        service.getStats(userIds[random.nextInt(userIds.length)]);
+                    }
+                }
+            }
+        }
+
+        private void record(int op, long nanos) {
+            if (counts[op] == latencies[op].length) {
+                latencies[op] = Arrays.copyOf(latencies[op], counts[op] * 2);
+            }
+            latencies[op][counts[op]++] = nanos;
+        }
+
+        private void remember(int bookingId) {
+            if (insertedCount == inserted.length) {
+                inserted = Arrays.copyOf(inserted, insertedCount * 2);
+            }
+            inserted[insertedCount++] = bookingId;
+        }
+    }
+}
@@ -14,21 +14,17 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.HeadlessException;
 import java.awt.Insets;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 
 public class GarageServiceApp {
 
-    private static final double TWO_WHEELER_COST = 500.0;
-    private static final double THREE_WHEELER_COST = 750.0;
-    private static final double FOUR_WHEELER_COST = 1000.0;
-
-    private final String dbUrl;
-    private final String dbUser;
-    private final String dbPassword;
+    private final SettingsCache settingsCache;
+    private final BookingService bookingService;
+    private final FeedbackDao feedbackDao;
+    private final PricingEngine pricing;
+    private final boolean emailEnabled;
+    private final EmailDispatcher emailDispatcher;
 
     static {
         try {
@@ -38,10 +34,27 @@ public class GarageServiceApp {
         }
     }
 
-    public GarageServiceApp(String dbUrl, String dbUser, String dbPassword) {
-        this.dbUrl = dbUrl;
-        this.dbUser = dbUser;
-        this.dbPassword = dbPassword;
+    // Expects a pool whose schema main() has already migrated, and settings it has loaded.
+    public GarageServiceApp(ConnectionPool connectionPool, SettingsCache settingsCache) {
+        MetricsEndpoint.startIfConfigured();
+        FlightRecording.startIfConfigured();
+        EdtWatchdog.startIfConfigured();
+        AppConfig.watchDotEnv();
+        // Prices come from the Settings table, shared with ModernGarageApp's Settings tab.
+        this.settingsCache = settingsCache;
+        // Bookings are saved by BookingService, the same insert path as ModernGarageApp and the API.
+        this.bookingService = new BookingService(connectionPool, new BookingStatsStore(connectionPool), settingsCache);
+        this.feedbackDao = new FeedbackDao(connectionPool);
+        this.pricing = bookingService.getPricing();
+        settingsCache.scheduleRefresh();
+
+        // Email can be toggled by JAVA_EMAIL_ENABLED and uses SMTP values from .env.
+        // Confirmations are queued in EmailOutbox and delivered in the background.
+        this.emailEnabled = AppConfig.getBoolean("JAVA_EMAIL_ENABLED", false);
+        this.emailDispatcher = emailEnabled ? EmailDispatcher.start(connectionPool) : null;
+        if (emailDispatcher != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(emailDispatcher::close));
+        }
 
         JFrame frame = new JFrame("Garage Services");
         frame.setSize(500, 600);
@@ -141,7 +154,7 @@ public class GarageServiceApp {
         premium.addActionListener(e ->
                 updateServiceCost((String) vehicleCombo.getSelectedItem(), premium.isSelected(), costLabel));
         bookButton.addActionListener(e ->
-                handleBooking(nameField, emailField, vehicleCombo, premium));
+                handleBooking(nameField, emailField, vehicleCombo, premium, bookButton));
         feedbackButton.addActionListener(e -> handleFeedback(feedbackArea));
 
         frame.setLocationRelativeTo(null);
@@ -152,13 +165,13 @@ public class GarageServiceApp {
             JTextField nameField,
             JTextField emailField,
             JComboBox<String> vehicleCombo,
-            JCheckBox premium
+            JCheckBox premium,
+            JButton bookButton
     ) {
         String name = nameField.getText().trim();
         String email = emailField.getText().trim();
         String vehicleType = (String) vehicleCombo.getSelectedItem();
         boolean isPremium = premium.isSelected();
-        double cost = calculateCost(vehicleType, isPremium);
 
         if (name.isEmpty() || email.isEmpty()) {
             JOptionPane.showMessageDialog(
@@ -170,85 +183,40 @@ public class GarageServiceApp {
             return;
         }
 
-        if (saveBookingToDatabase(name, email, vehicleType, cost)) {
-            // Email can be toggled by JAVA_EMAIL_ENABLED and uses SMTP values from .env.
-            String emailEnabled = AppConfig.getOrDefault("JAVA_EMAIL_ENABLED", "false");
-            
-            if ("true".equalsIgnoreCase(emailEnabled)) {
-                try {
-                    String emailBody = "🚗 Welcome to Our Garage Services! 🚗\n\n"
-                            + "Dear " + name + ",\n\n"
-                            + "Great news! Your service booking has been confirmed.\n\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
-                            + "📋 BOOKING DETAILS\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
-                            + "Vehicle Type: " + vehicleType + "\n"
-                            + "Service Package: " + (isPremium ? "Premium ⭐" : "Standard") + "\n"
-                            + "Total Cost: Rs. " + String.format("%.2f", cost) + "\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n"
-                            + "✨ What's Next?\n"
-                            + "• Our team will contact you shortly to schedule your service\n"
-                            + "• Please bring your vehicle at the scheduled time\n"
-                            + "• Our expert technicians will take care of everything!\n\n"
-                            + "💡 Need to reschedule or have questions?\n"
-                            + "Feel free to reach out to us anytime.\n\n"
-                            + "Our contact details:\n"
-                            + "📞 Phone: +91 9876543210\n"
-                            + "📧 Email: support@garageservices.com\n"
-                            + "🌐 Website: www.garageservices.com\n\n"
-                            + "Thank you for choosing our services! We look forward to serving you.\n\n"
-                            + "Best regards,\n"
-                            + "Your Garage Services Team\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━";
-                    
-                    EmailService.sendEmail(
-                            email,
-                            "🎉 Your Garage Service Booking is Confirmed!",
-                            emailBody
-                    );
-                    JOptionPane.showMessageDialog(null, "Booking successful! Confirmation email sent.");
-                } catch (Exception emailError) {
-                    String errorMessage = simplifyEmailError(emailError);
+        BookingService.BookingRequest request = BookingService.BookingRequest.unscheduled(name, email, vehicleType, isPremium);
+        bookButton.setEnabled(false);
+        BackgroundTasks.run(
+                () -> bookingService.createBooking(request, emailEnabled),
+                booking -> {
+                    bookButton.setEnabled(true);
+                    if (emailDispatcher != null) {
+                        emailDispatcher.wake();
+                        JOptionPane.showMessageDialog(null, "Booking successful! A confirmation email will be sent shortly.");
+                    } else {
+                        JOptionPane.showMessageDialog(
+                                null,
+                                "Booking successful!\n\nName: " + name + "\nEmail: " + email + "\nVehicle: " + vehicleType + "\nCost: " + PricingEngine.format(PricingEngine.toPaise(booking.getCost())),
+                                "Booking Confirmed",
+                                JOptionPane.INFORMATION_MESSAGE
+                        );
+                    }
+
+                    nameField.setText("");
+                    emailField.setText("");
+                },
+                error -> {
+                    bookButton.setEnabled(true);
                     JOptionPane.showMessageDialog(
                             null,
-                            "Booking saved successfully!\n\n(Email sending failed: " + errorMessage + ")",
-                            "Booking Confirmed",
-                            JOptionPane.INFORMATION_MESSAGE
+                            error.getMessage(),
+                            "Database Error",
+                            JOptionPane.ERROR_MESSAGE
                     );
-                    System.err.println("Email error: " + errorMessage);
                 }
-            } else {
-                JOptionPane.showMessageDialog(
-                        null,
-                        "Booking successful!\n\nName: " + name + "\nEmail: " + email + "\nVehicle: " + vehicleType + "\nCost: Rs." + cost,
-                        "Booking Confirmed",
-                        JOptionPane.INFORMATION_MESSAGE
-                );
-            }
-
-            nameField.setText("");
-            emailField.setText("");
-        }
-    }
-
-    private static String simplifyEmailError(Throwable error) {
-        Throwable cursor = error;
-        while (cursor.getCause() != null && cursor.getCause() != cursor) {
-            cursor = cursor.getCause();
-        }
-
-        String message = cursor.getMessage();
-        if (message == null || message.isBlank()) {
-            message = error.getMessage();
-        }
-        if (message == null || message.isBlank()) {
-            return "Unknown email error.";
-        }
-
-        return message.replace("Email send failed: Email send failed:", "Email send failed:");
+        );
     }
 
-    private static void handleFeedback(JTextArea feedbackArea) {
+    private void handleFeedback(JTextArea feedbackArea) {
         String feedback = feedbackArea.getText().trim();
         if (feedback.isEmpty()) {
             JOptionPane.showMessageDialog(
@@ -260,65 +228,21 @@ public class GarageServiceApp {
             return;
         }
 
-        saveFeedbackToDatabase(feedback);
-        JOptionPane.showMessageDialog(null, "Feedback submitted.");
-        feedbackArea.setText("");
-    }
-
-    private static double calculateCost(String vehicleType, boolean premium) {
-        double baseCost = switch (vehicleType) {
-            case "2 Wheeler" -> TWO_WHEELER_COST;
-            case "3 Wheeler" -> THREE_WHEELER_COST;
-            case "4 Wheeler" -> FOUR_WHEELER_COST;
-            default -> 0;
-        };
-
-        return premium ? baseCost * 0.9 : baseCost;
-    }
-
-    private static void updateServiceCost(String vehicleType, boolean premium, JLabel label) {
-        label.setText("Service Cost: Rs." + calculateCost(vehicleType, premium));
+        BackgroundTasks.run(
+                () -> {
+                    feedbackDao.insert(feedback);
+                    return null;
+                },
+                ignored -> {
+                    JOptionPane.showMessageDialog(null, "Feedback submitted.");
+                    feedbackArea.setText("");
+                },
+                error -> System.err.println("Could not save feedback: " + error.getMessage())
+        );
     }
 
-    private boolean saveBookingToDatabase(String name, String email, String vehicleType, double cost) {
-        String sql = "INSERT INTO GarageServiceBookings (name, email, wheeler_type, cost) VALUES (?, ?, ?, ?)";
-
-        try (
-                Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-                PreparedStatement statement = connection.prepareStatement(sql)
-        ) {
-            statement.setString(1, name);
-            statement.setString(2, email);
-            statement.setString(3, vehicleType);
-            statement.setDouble(4, cost);
-            statement.executeUpdate();
-            return true;
-        } catch (SQLException error) {
-            JOptionPane.showMessageDialog(
-                    null,
-                    error.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
-            return false;
-        }
-    }
-
-    private static void saveFeedbackToDatabase(String feedback) {
-        String dbUrl = AppConfig.get("JAVA_DB_URL");
-        String dbUser = AppConfig.get("JAVA_DB_USER");
-        String dbPassword = AppConfig.get("JAVA_DB_PASSWORD");
-        String sql = "INSERT INTO CustomerFeedback (feedback_text) VALUES (?)";
-
-        try (
-                Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-                PreparedStatement statement = connection.prepareStatement(sql)
-        ) {
-            statement.setString(1, feedback);
-            statement.executeUpdate();
-        } catch (SQLException error) {
-            System.err.println("Could not save feedback: " + error.getMessage());
-        }
+    private void updateServiceCost(String vehicleType, boolean premium, JLabel label) {
+        label.setText("Service Cost: " + PricingEngine.format(pricing.quote(vehicleType, premium)));
     }
 
     private static void showStartupError(String message) {
@@ -331,6 +255,21 @@ public class GarageServiceApp {
     }
 
     public static void main(String[] args) {
+        // Command line modes: --import <file> (BookingImport), --export <file> (BookingExport)
+        // and --serve (BookingApiServer, the headless HTTP API).
+        if (args.length > 0 && "--import".equals(args[0])) {
+            BookingImport.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "--export".equals(args[0])) {
+            BookingExport.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            BookingApiServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
         if (!missingDb.isEmpty()) {
             showStartupError(
@@ -344,10 +283,17 @@ public class GarageServiceApp {
         // Allow empty password (some MySQL installations have no root password)
         String dbPassword = AppConfig.get("JAVA_DB_PASSWORD");
 
-        new GarageServiceApp(
+        ConnectionPool connectionPool = ConnectionPool.create(
                 AppConfig.get("JAVA_DB_URL"),
                 AppConfig.get("JAVA_DB_USER"),
                 dbPassword
         );
+        Runtime.getRuntime().addShutdownHook(new Thread(connectionPool::close));
+        // Migrations can wait on ALTER TABLE or another desk's lock; run them before any UI exists.
+        new SchemaMigrator(connectionPool).migrateAtStartup();
+        // Load prices before the form exists, so the first booking is not priced at the defaults.
+        SettingsCache settingsCache = new SettingsCache(connectionPool);
+        settingsCache.loadAtStartup();
+        new GarageServiceApp(connectionPool, settingsCache);
     }
 }
@@ -0,0 +1,149 @@
+package com.garage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for the import files and the HTTP API: flat objects whose values are
+// strings, numbers, booleans or null. Values are returned as text (numbers and booleans
+// as written, null as null). Malformed input throws IllegalArgumentException.
+public final class Json {
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    public static Map<String, String> parseObject(String text) {
+        return new Json(text).readObject();
+    }
+
+    public static StringBuilder appendString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    private Map<String, String> readObject() {
+        Map<String, String> object = new LinkedHashMap<>();
+        expect('{');
+        if (peekToken() == '}') {
+            position++;
+        } else {
+            while (true) {
+                String key = readString();
+                expect(':');
+                object.put(key, readValue());
+                char next = peekToken();
+                position++;
+                if (next == '}') {
+                    break;
+                }
+                if (next != ',') {
+                    throw new IllegalArgumentException("expected ',' or '}' at column " + position);
+                }
+            }
+        }
+        if (peekToken() != 0) {
+            throw new IllegalArgumentException("unexpected text after the JSON object");
+        }
+        return object;
+    }
+
+    private String readValue() {
+        char c = peekToken();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw new IllegalArgumentException("nested objects and arrays are not supported");
+        }
+        int start = position;
+        while (position < text.length() && ",}".indexOf(text.charAt(position)) < 0
+                && !Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        String literal = text.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            return literal;
+        }
+        throw new IllegalArgumentException("invalid JSON value '" + literal + "'");
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw new IllegalArgumentException("truncated \\u escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException error) {
+                        throw new IllegalArgumentException("invalid \\u escape");
+                    }
+                    position += 4;
+                }
+                default -> value.append(escaped);
+            }
+        }
+        throw new IllegalArgumentException("unterminated string");
+    }
+
+    private void expect(char expected) {
+        if (peekToken() != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at column " + (position + 1));
+        }
+        position++;
+    }
+
+    // Skips whitespace and returns the next character without consuming it (0 at the end).
+    private char peekToken() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Batched upserts for key/value tables such as Settings. Only entries whose stored value
+// differs are written, and all of them go to the server as one JDBC batch.
+// The key column must be unique (or the primary key) for ON DUPLICATE KEY UPDATE to apply.
+public final class KeyValueTable {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String selectForUpdatePrefix;
+    private final String upsertSql;
+
+    public KeyValueTable(String table, String keyColumn, String valueColumn) {
+        String tableName = identifier(table);
+        String keyName = identifier(keyColumn);
+        String valueName = identifier(valueColumn);
+
+        this.selectForUpdatePrefix = "SELECT " + keyName + ", " + valueName + " FROM " + tableName
+                + " WHERE " + keyName + " IN (";
+        this.upsertSql = "INSERT INTO " + tableName + " (" + keyName + ", " + valueName + ") VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE " + valueName + " = VALUES(" + valueName + ")";
+    }
+
+    // Runs in one transaction of its own and returns the keys that were written.
+    public Set<String> upsertChanged(ConnectionPool connectionPool, Map<String, String> entries) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Set<String> written = upsertChanged(conn, entries);
+                conn.commit();
+                return written;
+            } catch (SQLException | RuntimeException error) {
+                conn.rollback();
+                throw error;
+            }
+        }
+    }
+
+    // Runs on the caller's connection; the caller owns the transaction. The existing rows are
+    // read with FOR UPDATE so the changed-key comparison holds until the caller commits.
+    public Set<String> upsertChanged(Connection conn, Map<String, String> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<String> keys = new ArrayList<>(entries.keySet());
+        Map<String, String> stored = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(selectForUpdatePrefix + placeholders + ") FOR UPDATE")) {
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setString(i + 1, keys.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stored.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (String key : keys) {
+            String value = entries.get(key);
+            if (!stored.containsKey(key) || !Objects.equals(stored.get(key), value)) {
+                changed.add(key);
+            }
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+            for (String key : changed) {
+                stmt.setString(1, key);
+                stmt.setString(2, entries.get(key));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        return changed;
+    }
+
+    private static String identifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid SQL identifier: " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,131 @@
+package com.garage;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide registry of OperationMetrics, one per named operation, and of a few named gauges
+// (the Prometheus text and the Settings tab show those too). Each operation is registered as a
+// JMX MXBean when first used, and all of them can be rendered in the Prometheus text format
+// (see MetricsEndpoint) or shown in the desktop app's Settings tab.
+public final class Metrics {
+
+    // The operations instrumented across the apps.
+    public static final String LOGIN = "login";
+    public static final String BOOKING_INSERT = "booking.insert";
+    public static final String BOOKING_STATUS = "booking.status";
+    public static final String STATS = "stats";
+    public static final String HISTORY_LOAD = "history.load";
+    public static final String SEARCH = "search";
+    public static final String EMAIL_SEND = "email.send";
+    public static final String PASSWORD_HASH = "password.hash";
+    // Swing event dispatch thread: heartbeat dispatch delay, and stalls over the threshold (EdtWatchdog).
+    public static final String EDT_DISPATCH = "edt.dispatch";
+    public static final String EDT_STALL = "edt.stall";
+    // Gauges: values the app settles on at runtime rather than reads from configuration.
+    public static final String BCRYPT_COST = "password.bcrypt_cost";
+
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Long> GAUGES = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static OperationMetrics operation(String name) {
+        OperationMetrics existing = OPERATIONS.get(name);
+        return existing != null ? existing : OPERATIONS.computeIfAbsent(name, Metrics::register);
+    }
+
+    // Every operation used so far, by name.
+    public static List<OperationMetrics> all() {
+        List<OperationMetrics> operations = new ArrayList<>(OPERATIONS.values());
+        operations.sort(Comparator.comparing(OperationMetrics::getName));
+        return operations;
+    }
+
+    public static void setGauge(String name, long value) {
+        GAUGES.put(name, value);
+    }
+
+    // Every gauge set so far, by name.
+    public static Map<String, Long> gauges() {
+        return new TreeMap<>(GAUGES);
+    }
+
+    // Prometheus text exposition format, version 0.0.4: one summary per operation (quantiles,
+    // _sum and _count in seconds), plus error and in-flight series labelled the same way, and the gauges.
+    public static String prometheusText() {
+        List<OperationMetrics> operations = all();
+        StringBuilder text = new StringBuilder(256 + operations.size() * 512);
+        text.append("# HELP garage_operation_seconds Latency of application operations.\n");
+        text.append("# TYPE garage_operation_seconds summary\n");
+        for (OperationMetrics operation : operations) {
+            quantile(text, operation, "0.5", operation.getP50Millis());
+            quantile(text, operation, "0.99", operation.getP99Millis());
+            quantile(text, operation, "0.999", operation.getP999Millis());
+            sample(text, "garage_operation_seconds_sum", operation, operation.getSumNanos() / 1e9);
+            sample(text, "garage_operation_seconds_count", operation, operation.getCount());
+        }
+        text.append("# HELP garage_operation_errors_total Failed application operations.\n");
+        text.append("# TYPE garage_operation_errors_total counter\n");
+        for (OperationMetrics operation : operations) {
+            sample(text, "garage_operation_errors_total", operation, operation.getErrors());
+        }
+        text.append("# HELP garage_operation_cancelled_total Application operations abandoned because they were superseded.\n");
+        text.append("# TYPE garage_operation_cancelled_total counter\n");
+        for (OperationMetrics operation : operations) {
+            sample(text, "garage_operation_cancelled_total", operation, operation.getCancelled());
+        }
+        text.append("# HELP garage_operation_in_flight Application operations currently running.\n");
+        text.append("# TYPE garage_operation_in_flight gauge\n");
+        for (OperationMetrics operation : operations) {
+            sample(text, "garage_operation_in_flight", operation, operation.getInFlight());
+        }
+        text.append("# HELP garage_operation_max_seconds Slowest application operation since start or reset.\n");
+        text.append("# TYPE garage_operation_max_seconds gauge\n");
+        for (OperationMetrics operation : operations) {
+            sample(text, "garage_operation_max_seconds", operation, operation.getMaxMillis() / 1e3);
+        }
+        text.append("# HELP garage_gauge Values chosen by the app at runtime, such as the bcrypt cost.\n");
+        text.append("# TYPE garage_gauge gauge\n");
+        gauges().forEach((name, value) ->
+                text.append("garage_gauge{name=\"").append(name).append("\"} ").append(value).append('\n'));
+        return text.toString();
+    }
+
+    private static void quantile(StringBuilder text, OperationMetrics operation, String quantile, double millis) {
+        text.append("garage_operation_seconds{operation=\"").append(operation.getName())
+                .append("\",quantile=\"").append(quantile).append("\"} ")
+                .append(String.format(Locale.ROOT, "%.6f", millis / 1e3)).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String metric, OperationMetrics operation, double value) {
+        text.append(metric).append("{operation=\"").append(operation.getName()).append("\"} ");
+        if (value == Math.rint(value)) {
+            text.append((long) value);
+        } else {
+            text.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        text.append('\n');
+    }
+
+    private static OperationMetrics register(String name) {
+        OperationMetrics metrics = new OperationMetrics(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                    new ObjectName("com.garage:type=Operation,name=" + ObjectName.quote(name)));
+        } catch (JMException | RuntimeException error) {
+            // Still recorded and shown in the app; only the JMX view is missing.
+            System.err.println("Could not register JMX metrics for " + name + ": " + error.getMessage());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,63 @@
+package com.garage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Optional local HTTP endpoint serving Metrics.prometheusText() at /metrics, for a Prometheus
+// scraper or a quick curl. Off unless JAVA_METRICS_PORT is set; binds to JAVA_METRICS_HOST
+// (127.0.0.1 by default). The headless API serves the same page on its own port.
+public final class MetricsEndpoint implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private MetricsEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    // Returns null when the endpoint is disabled or could not start (the app runs on without it).
+    public static MetricsEndpoint startIfConfigured() {
+        int port = AppConfig.getInt("JAVA_METRICS_PORT", 0);
+        if (port <= 0) {
+            return null;
+        }
+        String host = AppConfig.getOrDefault("JAVA_METRICS_HOST", "127.0.0.1");
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+            server.createContext("/metrics", MetricsEndpoint::serve);
+            server.start();
+            System.out.println("Metrics at http://" + host + ":" + server.getAddress().getPort() + "/metrics");
+            return new MetricsEndpoint(server);
+        } catch (IOException error) {
+            System.err.println("Could not start the metrics endpoint on " + host + ":" + port + ": " + error.getMessage());
+            return null;
+        }
+    }
+
+    static void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.prometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
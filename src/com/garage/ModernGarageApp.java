@@ -2,13 +2,24 @@ package com.garage;
 
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.File;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
 
 public class ModernGarageApp extends JFrame {
     
@@ -20,10 +31,33 @@ public class ModernGarageApp extends JFrame {
     private static final Color CARD_COLOR = Color.WHITE;
     private static final Color TEXT_COLOR = new Color(44, 62, 80);
     
-    // Database credentials
-    private final String dbUrl;
-    private final String dbUser;
-    private final String dbPassword;
+    // Shown in the Settings tab when a key is missing from the Settings table
+    private static final Map<String, String> SETTING_DEFAULTS = Map.of(
+            "two_wheeler_cost", "500",
+            "three_wheeler_cost", "750",
+            "four_wheeler_cost", "1000",
+            "premium_discount", "10",
+            "business_name", "Premium Garage Services",
+            "business_email", "contact@garageservices.com",
+            "business_phone", "+1-234-567-8900"
+    );
+    
+    // Pause in typing before the Booking History search runs
+    private static final int DEFAULT_SEARCH_DEBOUNCE_MS = 250;
+    
+    // How often the Settings tab's diagnostics table is refreshed while it is visible
+    private static final int DIAGNOSTICS_REFRESH_MS = 2000;
+    private static final OperationMetrics LOGIN_METRICS = Metrics.operation(Metrics.LOGIN);
+    
+    // Shared database connections
+    private final ConnectionPool connectionPool;
+    private final BookingStatsStore statsStore;
+    private final SettingsCache settingsCache;
+    private final BookingService bookingService;
+    private final boolean emailEnabled;
+    private final EmailDispatcher emailDispatcher;
+    private final CredentialService credentials;
+    private final UserDao users;
     
     // Current logged-in user
     private Integer currentUserId = null;
@@ -37,11 +71,13 @@ public class ModernGarageApp extends JFrame {
     private JPanel historyPanel;
     private JPanel settingsPanel;
     
-    // Service costs (loaded from settings)
-    private double twoWheelerCost = 500.0;
-    private double threeWheelerCost = 750.0;
-    private double fourWheelerCost = 1000.0;
-    private double premiumDiscount = 10.0;
+    // Dashboard widgets refreshed in the background
+    private JLabel[] statValueLabels;
+    private BookingRowTableModel recentBookingsModel;
+    private JLabel recentBookingsLabel;
+    
+    // Background work bookkeeping (EDT only)
+    private int busyTasks = 0;
     
     static {
         try {
@@ -51,13 +87,29 @@ public class ModernGarageApp extends JFrame {
         }
     }
     
-    public ModernGarageApp(String dbUrl, String dbUser, String dbPassword) {
-        this.dbUrl = dbUrl;
-        this.dbUser = dbUser;
-        this.dbPassword = dbPassword;
+    // Expects a pool whose schema main() has already migrated, and settings it has loaded.
+    public ModernGarageApp(ConnectionPool connectionPool, SettingsCache settingsCache) {
+        this.connectionPool = connectionPool;
+        this.statsStore = new BookingStatsStore(connectionPool);
+        statsStore.scheduleReconciliation(false);
+        MetricsEndpoint.startIfConfigured();
+        FlightRecording.startIfConfigured();
+        EdtWatchdog.startIfConfigured();
+        AppConfig.watchDotEnv();
+        this.settingsCache = settingsCache;
+        this.bookingService = new BookingService(connectionPool, statsStore, settingsCache);
+        this.credentials = new CredentialService();
+        this.users = new UserDao(connectionPool);
+        
+        // Email can be toggled by JAVA_EMAIL_ENABLED; confirmations go through the EmailOutbox table
+        this.emailEnabled = AppConfig.getBoolean("JAVA_EMAIL_ENABLED", false);
+        this.emailDispatcher = emailEnabled ? EmailDispatcher.start(connectionPool) : null;
+        if (emailDispatcher != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(emailDispatcher::close));
+        }
         
-        loadSettings();
         initializeUI();
+        settingsCache.scheduleRefresh();
     }
     
     private void initializeUI() {
@@ -120,7 +172,7 @@ public class ModernGarageApp extends JFrame {
         JButton registerButton = createStyledButton("Create Account", ACCENT_COLOR);
         JButton guestButton = createStyledButton("Continue as Guest", SECONDARY_COLOR);
         
-        loginButton.addActionListener(e -> handleLogin(usernameField.getText(), new String(passwordField.getPassword())));
+        loginButton.addActionListener(e -> handleLogin(usernameField.getText(), new String(passwordField.getPassword()), loginButton));
         registerButton.addActionListener(e -> showRegisterDialog());
         guestButton.addActionListener(e -> {
             currentUserId = null;
@@ -217,12 +269,28 @@ public class ModernGarageApp extends JFrame {
                 return;
             }
             
-            if (registerUser(usernameField.getText(), password, fullNameField.getText(), 
-                           emailField.getText(), phoneField.getText())) {
-                JOptionPane.showMessageDialog(registerDialog, "Account created successfully! Please login.", 
-                                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                registerDialog.dispose();
-            }
+            String username = usernameField.getText();
+            String fullName = fullNameField.getText();
+            String email = emailField.getText();
+            String phone = phoneField.getText();
+            
+            setBusy(registerBtn, true);
+            BackgroundTasks.run(
+                    () -> {
+                        registerUser(username, password, fullName, email, phone);
+                        return null;
+                    },
+                    ignored -> {
+                        setBusy(registerBtn, false);
+                        JOptionPane.showMessageDialog(registerDialog, "Account created successfully! Please login.", 
+                                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                        registerDialog.dispose();
+                    },
+                    error -> {
+                        setBusy(registerBtn, false);
+                        JOptionPane.showMessageDialog(registerDialog, "Registration failed: " + error.getMessage(), 
+                                                    "Error", JOptionPane.ERROR_MESSAGE);
+                    });
         });
         
         panel.add(registerBtn);
@@ -234,53 +302,64 @@ public class ModernGarageApp extends JFrame {
         registerDialog.setVisible(true);
     }
     
-    private boolean registerUser(String username, String password, String fullName, String email, String phone) {
-        String sql = "INSERT INTO Users (username, password, full_name, email, phone) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, username);
-            stmt.setString(2, password); // In production, hash the password!
-            stmt.setString(3, fullName);
-            stmt.setString(4, email);
-            stmt.setString(5, phone);
-            stmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Registration failed: " + e.getMessage(), 
-                                        "Error", JOptionPane.ERROR_MESSAGE);
-            return false;
-        }
+    private void registerUser(String username, String password, String fullName, String email, String phone)
+            throws SQLException {
+        users.insert(username, credentials.hash(password), fullName, email, phone);
     }
     
-    private void handleLogin(String username, String password) {
+    private void handleLogin(String username, String password, JButton loginButton) {
         if (username.isEmpty() || password.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please enter username and password", 
                                         "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        String sql = "SELECT id, full_name FROM Users WHERE username = ? AND password = ?";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, username);
-            stmt.setString(2, password); //  In production, compare hashed passwords!
-            
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                currentUserId = rs.getInt("id");
-                currentUserName = rs.getString("full_name");
-                showMainApplication();
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid username or password", 
-                                            "Error", JOptionPane.ERROR_MESSAGE);
+        setBusy(loginButton, true);
+        BackgroundTasks.run(
+                () -> authenticate(username, password),
+                user -> {
+                    setBusy(loginButton, false);
+                    if (user != null) {
+                        currentUserId = user.id;
+                        currentUserName = user.fullName;
+                        showMainApplication();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Invalid username or password", 
+                                                    "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                },
+                error -> {
+                    setBusy(loginButton, false);
+                    JOptionPane.showMessageDialog(this, "Login failed: " + error.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                });
+    }
+    
+    private SignedInUser authenticate(String username, String password) throws SQLException {
+        long started = LOGIN_METRICS.begin();
+        boolean ok = false;
+        try {
+            // The hash check runs with the connection already back in the pool. An unknown username
+            // still pays for a full check, so the response time does not tell it apart.
+            UserDao.UserAccount account = users.findByUsername(username);
+            boolean verified = credentials.verify(password, account == null ? null : account.getPassword());
+            if (verified && credentials.needsRehash(account.getPassword())) {
+                upgradePasswordHash(account, password);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Login failed: " + e.getMessage(), 
-                                        "Error", JOptionPane.ERROR_MESSAGE);
+            ok = true;
+            return verified ? new SignedInUser(account.getId(), account.getFullName()) : null;
+        } finally {
+            LOGIN_METRICS.end(started, ok);
+        }
+    }
+    
+    // Replaces a plain-text or cheaper hash after a successful sign-in.
+    private void upgradePasswordHash(UserDao.UserAccount account, String password) {
+        try {
+            users.replacePassword(account.getId(), account.getPassword(), credentials.hash(password));
+        } catch (SQLException | RuntimeException error) {
+            // The sign-in still succeeds; the row is upgraded next time.
+            System.err.println("Could not upgrade the password hash for user " + account.getId() + ": " + error.getMessage());
         }
     }
     
@@ -314,10 +393,10 @@ public class ModernGarageApp extends JFrame {
         tabbedPane.setBackground(CARD_COLOR);
         
         // Create panels
-        dashboardPanel = createDashboardPanel();
-        bookingPanel = createBookingPanel();
-        historyPanel = createHistoryPanel();
-        settingsPanel = createSettingsPanel();
+        dashboardPanel = buildPanel("Dashboard", this::createDashboardPanel);
+        bookingPanel = buildPanel("New Booking", this::createBookingPanel);
+        historyPanel = buildPanel("History", this::createHistoryPanel);
+        settingsPanel = buildPanel("Settings", this::createSettingsPanel);
         
         // Add tabs with icons (using Unicode emojis)
         tabbedPane.addTab("  📊 Dashboard  ", dashboardPanel);
@@ -331,6 +410,21 @@ public class ModernGarageApp extends JFrame {
         repaint();
     }
     
+    // Builds a tab, recording a PanelBuild flight recorder event for it
+    private JPanel buildPanel(String name, Supplier<JPanel> builder) {
+        PanelBuildEvent event = new PanelBuildEvent();
+        event.begin();
+        try {
+            return builder.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.panel = name;
+                event.commit();
+            }
+        }
+    }
+    
     private JPanel createDashboardPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(BACKGROUND_COLOR);
@@ -345,11 +439,11 @@ public class ModernGarageApp extends JFrame {
         JPanel statsPanel = new JPanel(new GridLayout(1, 4, 15, 15));
         statsPanel.setBackground(BACKGROUND_COLOR);
         
-        int[] stats = getStatistics();
-        statsPanel.add(createStatCard("Total Bookings", String.valueOf(stats[0]), "📝", PRIMARY_COLOR));
-        statsPanel.add(createStatCard("Pending", String.valueOf(stats[1]), "⏳", new Color(241, 196, 15)));
-        statsPanel.add(createStatCard("Completed", String.valueOf(stats[2]), "✅", ACCENT_COLOR));
-        statsPanel.add(createStatCard("Total Revenue", "Rs. " + stats[3], "💰", new Color(155, 89, 182)));
+        statValueLabels = new JLabel[4];
+        statsPanel.add(createStatCard("Total Bookings", 0, "📝", PRIMARY_COLOR));
+        statsPanel.add(createStatCard("Pending", 1, "⏳", new Color(241, 196, 15)));
+        statsPanel.add(createStatCard("Completed", 2, "✅", ACCENT_COLOR));
+        statsPanel.add(createStatCard("Total Revenue", 3, "💰", new Color(155, 89, 182)));
         
         // Recent bookings table
         JPanel recentPanel = createStyledPanel();
@@ -362,19 +456,16 @@ public class ModernGarageApp extends JFrame {
         JLabel recentLabel = new JLabel("📋 Recent Bookings");
         recentLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
         recentLabel.setForeground(TEXT_COLOR);
+        recentBookingsLabel = recentLabel;
         
-        String[] columns = {"ID", "Name", "Vehicle", "Date", "Status", "Cost"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        
-        loadRecentBookings(model, 10);
+        BookingRowTableModel model = new BookingRowTableModel(BookingRow.Column.ID, BookingRow.Column.NAME,
+                BookingRow.Column.VEHICLE, BookingRow.Column.DATE, BookingRow.Column.STATUS, BookingRow.Column.COST);
+        recentBookingsModel = model;
         
         JTable table = new JTable(model);
         styleTable(table);
+        BookingCellRenderers.install(table, model.getColumns());
+        table.setAutoCreateRowSorter(true);
         
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(null);
@@ -392,9 +483,37 @@ public class ModernGarageApp extends JFrame {
         panel.add(statsPanel, BorderLayout.CENTER);
         panel.add(recentPanel, BorderLayout.SOUTH);
         
+        refreshDashboard();
+        
         return panel;
     }
     
+    private void refreshDashboard() {
+        Integer userId = currentUserId;
+        for (JLabel label : statValueLabels) {
+            label.setText("…");
+        }
+        recentBookingsLabel.setText("📋 Recent Bookings (loading…)");
+        setBusy(null, true);
+        
+        BackgroundTasks.run(
+                () -> new DashboardData(bookingService.getStats(userId), recentRows(bookingService.recentBookings(userId, 10))),
+                data -> {
+                    setBusy(null, false);
+                    statValueLabels[0].setText(String.valueOf(data.stats.getTotal()));
+                    statValueLabels[1].setText(String.valueOf(data.stats.getPending()));
+                    statValueLabels[2].setText(String.valueOf(data.stats.getCompleted()));
+                    statValueLabels[3].setText(PricingEngine.format(data.stats.getRevenuePaise()));
+                    recentBookingsModel.setRows(data.recentRows);
+                    recentBookingsLabel.setText("📋 Recent Bookings");
+                },
+                error -> {
+                    setBusy(null, false);
+                    error.printStackTrace();
+                    recentBookingsLabel.setText("📋 Recent Bookings (could not load)");
+                });
+    }
+    
     private JPanel createBookingPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(BACKGROUND_COLOR);
@@ -462,8 +581,8 @@ public class ModernGarageApp extends JFrame {
         ActionListener costUpdater = e -> {
             String vehicle = (String) vehicleCombo.getSelectedItem();
             boolean isPremium = serviceCombo.getSelectedIndex() == 1;
-            double cost = calculateCost(vehicle, isPremium);
-            costLabel.setText("Service Cost: Rs. " + String.format("%.2f", cost));
+            long price = bookingService.getPricing().quote(vehicle, isPremium);
+            costLabel.setText("Service Cost: " + PricingEngine.format(price));
         };
         
         vehicleCombo.addActionListener(costUpdater);
@@ -506,7 +625,7 @@ public class ModernGarageApp extends JFrame {
         bookButton.setPreferredSize(new Dimension(200, 45));
         bookButton.addActionListener(e -> {
             handleBookingSubmit(nameField, emailField, phoneField, vehicleCombo, 
-                              serviceCombo, dateField, notesArea, costLabel);
+                              serviceCombo, dateField, notesArea, bookButton);
         });
         
         // Layout components
@@ -574,31 +693,54 @@ public class ModernGarageApp extends JFrame {
         JButton searchButton = createStyledButton("🔍 Search", PRIMARY_COLOR);
         JButton refreshButton = createStyledButton("🔄 Refresh", SECONDARY_COLOR);
         
+        JLabel statusLabel = new JLabel(" ");
+        statusLabel.setForeground(TEXT_COLOR);
+        
         searchPanel.add(new JLabel("Search:"));
         searchPanel.add(searchField);
         searchPanel.add(searchButton);
         searchPanel.add(refreshButton);
+        searchPanel.add(statusLabel);
         
-        // Table
-        String[] columns = {"ID", "Name", "Email", "Phone", "Vehicle", "Service", "Date", "Status", "Cost"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        
-        JTable table = new JTable(model);
-        styleTable(table);
+        HistoryTable history = AppConfig.getBoolean("JAVA_HISTORY_IN_MEMORY", false)
+                ? createInMemoryHistoryTable(statusLabel)
+                : createPagedHistoryTable(statusLabel);
+        JTable table = history.table;
         
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(new LineBorder(PRIMARY_COLOR, 1));
         
-        // Load all bookings
-        loadAllBookings(model);
+        // Load the first page of bookings (or all of them, in memory)
+        history.reload.run();
         
-        searchButton.addActionListener(e -> searchBookings(model, searchField.getText()));
-        refreshButton.addActionListener(e -> loadAllBookings(model));
+        // Search as you type: the query runs once typing pauses, and each new search cancels the previous one
+        javax.swing.Timer searchDebounce = new javax.swing.Timer(
+                Math.max(0, AppConfig.getInt("JAVA_HISTORY_SEARCH_DEBOUNCE_MS", DEFAULT_SEARCH_DEBOUNCE_MS)),
+                e -> history.search.accept(searchField.getText()));
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        
+        ActionListener searchNow = e -> {
+            searchDebounce.stop();
+            history.search.accept(searchField.getText());
+        };
+        searchButton.addActionListener(searchNow);
+        searchField.addActionListener(searchNow);
+        refreshButton.addActionListener(e -> history.reload.run());
         
         // Action buttons
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
@@ -607,41 +749,43 @@ public class ModernGarageApp extends JFrame {
         JButton viewButton = createStyledButton("👁️ View Details", PRIMARY_COLOR);
         JButton updateButton = createStyledButton("✏️ Update Status", ACCENT_COLOR);
         JButton deleteButton = createStyledButton("🗑️ Delete", new Color(231, 76, 60));
+        JButton exportButton = createStyledButton("⬇️ Export", SECONDARY_COLOR);
         
         viewButton.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row >= 0) {
-                showBookingDetails(model, row);
+            int bookingId = selectedBookingId(history);
+            if (bookingId >= 0) {
+                showBookingDetails(bookingId);
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a booking to view");
             }
         });
         
         updateButton.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row >= 0) {
-                updateBookingStatus(model, row);
+            int bookingId = selectedBookingId(history);
+            if (bookingId >= 0) {
+                updateBookingStatus(history, bookingId);
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a booking to update");
             }
         });
         
         deleteButton.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row >= 0) {
-                int bookingId = (int) model.getValueAt(row, 0);
+            int bookingId = selectedBookingId(history);
+            if (bookingId >= 0) {
                 int confirm = JOptionPane.showConfirmDialog(this, 
                         "Are you sure you want to delete this booking?", 
                         "Confirm Delete", JOptionPane.YES_NO_OPTION);
                 if (confirm == JOptionPane.YES_OPTION) {
-                    deleteBooking(bookingId);
-                    loadAllBookings(model);
+                    deleteBooking(bookingId, () -> history.deleted.accept(bookingId));
                 }
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a booking to delete");
             }
         });
         
+        exportButton.addActionListener(e -> exportBookings(exportButton));
+        
+        actionPanel.add(exportButton);
         actionPanel.add(viewButton);
         actionPanel.add(updateButton);
         actionPanel.add(deleteButton);
@@ -654,6 +798,68 @@ public class ModernGarageApp extends JFrame {
         return panel;
     }
     
+    // Pages are fetched on demand as the user scrolls, sorted and searched by the database
+    private HistoryTable createPagedHistoryTable(JLabel statusLabel) {
+        BookingHistoryTableModel model = new BookingHistoryTableModel(connectionPool);
+        model.setUserId(currentUserId);
+        model.setStateListener(() -> {
+            if (model.getLastError() != null) {
+                statusLabel.setText("Could not load bookings");
+            } else if (model.isLoading()) {
+                statusLabel.setText("Loading…");
+            } else {
+                statusLabel.setText(model.getRowCount() + (model.hasMoreRows() ? "+" : "") + " bookings");
+            }
+        });
+        
+        JTable table = new JTable(model);
+        styleTable(table);
+        BookingCellRenderers.install(table, model.getColumns());
+        table.getTableHeader().setToolTipText("Click a column to sort");
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                model.toggleSort(table.columnAtPoint(e.getPoint()));
+                for (int i = 0; i < model.getColumnCount(); i++) {
+                    table.getColumnModel().getColumn(i).setHeaderValue(model.getColumnName(i));
+                }
+                table.getTableHeader().repaint();
+            }
+        });
+        
+        return new HistoryTable(table, model::setSearchTerm, model::reload, model::getBookingId,
+                model::updateStatus, bookingId -> model.reload());
+    }
+    
+    // The whole history is loaded once into columns; sorting and searching then happen in memory
+    private HistoryTable createInMemoryHistoryTable(JLabel statusLabel) {
+        BookingStoreTableModel model = new BookingStoreTableModel(bookingService);
+        model.setUserId(currentUserId);
+        BookingStoreSorter sorter = new BookingStoreSorter(model);
+        Runnable showState = () -> {
+            if (model.getLastError() != null) {
+                statusLabel.setText("Could not load bookings");
+            } else if (model.isLoading()) {
+                statusLabel.setText("Loading…");
+            } else if (sorter.getViewRowCount() < model.getRowCount()) {
+                statusLabel.setText(sorter.getViewRowCount() + " of " + model.getRowCount() + " bookings");
+            } else {
+                statusLabel.setText(model.getRowCount() + " bookings");
+            }
+        };
+        model.setStateListener(showState);
+        sorter.addRowSorterListener(e -> showState.run());
+        
+        JTable table = new JTable(model);
+        table.setRowSorter(sorter);
+        styleTable(table);
+        BookingCellRenderers.install(table, model.getColumns());
+        table.getTableHeader().setToolTipText("Click a column to sort");
+        
+        return new HistoryTable(table, sorter::setSearchTerm, model::reload, model::getBookingId,
+                model::updateStatus, model::removeBooking);
+    }
+    
     private JPanel createSettingsPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(BACKGROUND_COLOR);
@@ -674,32 +880,27 @@ public class ModernGarageApp extends JFrame {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.insets = new Insets(10, 10, 10, 10);
         
-        // Cost settings
+        // Fields mirror the settings cache; the values are filled in by syncSettingsFields
+        Map<String, JTextField> settingFields = new LinkedHashMap<>();
         JTextField twoWheelerField = createStyledTextField();
-        twoWheelerField.setText(String.valueOf(twoWheelerCost));
-        
         JTextField threeWheelerField = createStyledTextField();
-        threeWheelerField.setText(String.valueOf(threeWheelerCost));
-        
         JTextField fourWheelerField = createStyledTextField();
-        fourWheelerField.setText(String.valueOf(fourWheelerCost));
-        
         JTextField discountField = createStyledTextField();
-        discountField.setText(String.valueOf(premiumDiscount));
-        
-        // Business info
-        String businessName = getSettingValue("business_name", "Premium Garage Services");
-        String businessEmail = getSettingValue("business_email", "contact@garageservices.com");
-        String businessPhone = getSettingValue("business_phone", "+1-234-567-8900");
-        
         JTextField businessNameField = createStyledTextField();
-        businessNameField.setText(businessName);
-        
         JTextField businessEmailField = createStyledTextField();
-        businessEmailField.setText(businessEmail);
-        
         JTextField businessPhoneField = createStyledTextField();
-        businessPhoneField.setText(businessPhone);
+        settingFields.put("two_wheeler_cost", twoWheelerField);
+        settingFields.put("three_wheeler_cost", threeWheelerField);
+        settingFields.put("four_wheeler_cost", fourWheelerField);
+        settingFields.put("premium_discount", discountField);
+        settingFields.put("business_name", businessNameField);
+        settingFields.put("business_email", businessEmailField);
+        settingFields.put("business_phone", businessPhoneField);
+        
+        Map<String, String> shownValues = new HashMap<>();
+        syncSettingsFields(settingFields, shownValues, settingsCache.current());
+        settingsCache.addListener(snapshot -> SwingUtilities.invokeLater(
+                () -> syncSettingsFields(settingFields, shownValues, snapshot)));
         
         // Layout
         int row = 0;
@@ -741,18 +942,28 @@ public class ModernGarageApp extends JFrame {
         saveButton.setPreferredSize(new Dimension(200, 45));
         saveButton.addActionListener(e -> {
             try {
-                twoWheelerCost = Double.parseDouble(twoWheelerField.getText());
-                threeWheelerCost = Double.parseDouble(threeWheelerField.getText());
-                fourWheelerCost = Double.parseDouble(fourWheelerField.getText());
-                premiumDiscount = Double.parseDouble(discountField.getText());
+                // Validate only; the prices take effect through the settings cache once saved
+                for (JTextField field : List.of(twoWheelerField, threeWheelerField, fourWheelerField, discountField)) {
+                    Double.parseDouble(field.getText());
+                }
                 
-                saveSettings(twoWheelerField.getText(), threeWheelerField.getText(), 
-                            fourWheelerField.getText(), discountField.getText(),
-                            businessNameField.getText(), businessEmailField.getText(), 
-                            businessPhoneField.getText());
+                Map<String, String> values = new LinkedHashMap<>();
+                settingFields.forEach((key, field) -> values.put(key, field.getText()));
                 
-                JOptionPane.showMessageDialog(this, "Settings saved successfully!", 
-                                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                setBusy(saveButton, true);
+                BackgroundTasks.run(
+                        () -> settingsCache.save(values),
+                        ignored -> {
+                            setBusy(saveButton, false);
+                            settingFields.forEach((key, field) -> shownValues.put(key, field.getText()));
+                            JOptionPane.showMessageDialog(this, "Settings saved successfully!", 
+                                                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                        },
+                        error -> {
+                            setBusy(saveButton, false);
+                            JOptionPane.showMessageDialog(this, "Failed to save settings: " + error.getMessage(), 
+                                                        "Error", JOptionPane.ERROR_MESSAGE);
+                        });
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Please enter valid numbers for costs and discount", 
                                             "Error", JOptionPane.ERROR_MESSAGE);
@@ -770,10 +981,90 @@ public class ModernGarageApp extends JFrame {
         
         panel.add(titleLabel, BorderLayout.NORTH);
         panel.add(settingsForm, BorderLayout.CENTER);
+        panel.add(createDiagnosticsPanel(), BorderLayout.SOUTH);
         
         return panel;
     }
     
+    // Latency and error counts per operation from Metrics, refreshed while the Settings tab is shown
+    private JPanel createDiagnosticsPanel() {
+        JPanel panel = createStyledPanel();
+        panel.setLayout(new BorderLayout(5, 5));
+        panel.setBorder(BorderFactory.createCompoundBorder(
+                new LineBorder(PRIMARY_COLOR, 1, true),
+                new EmptyBorder(10, 15, 10, 15)
+        ));
+        
+        JLabel titleLabel = new JLabel("🩺 Diagnostics");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        
+        String[] columns = {"Operation", "Calls", "Errors", "Cancelled", "In Flight", "Mean ms", "p50 ms", "p99 ms", "p99.9 ms", "Max ms"};
+        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(model);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        table.setRowHeight(22);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(0, 150));
+        
+        JLabel gaugesLabel = new JLabel(" ");
+        gaugesLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        
+        JButton resetButton = createSmallButton("Reset");
+        resetButton.addActionListener(e -> {
+            Metrics.all().forEach(OperationMetrics::reset);
+            refreshDiagnostics(model, gaugesLabel);
+        });
+        
+        JPanel header = new JPanel(new BorderLayout());
+        header.setOpaque(false);
+        header.add(titleLabel, BorderLayout.WEST);
+        header.add(resetButton, BorderLayout.EAST);
+        
+        panel.add(header, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(gaugesLabel, BorderLayout.SOUTH);
+        
+        javax.swing.Timer refreshTimer = new javax.swing.Timer(DIAGNOSTICS_REFRESH_MS, e -> {
+            if (panel.isShowing()) {
+                refreshDiagnostics(model, gaugesLabel);
+            }
+        });
+        refreshTimer.setInitialDelay(0);
+        refreshTimer.start();
+        return panel;
+    }
+    
+    private void refreshDiagnostics(DefaultTableModel model, JLabel gaugesLabel) {
+        List<OperationMetrics> operations = Metrics.all();
+        model.setRowCount(operations.size());
+        for (int row = 0; row < operations.size(); row++) {
+            OperationMetrics operation = operations.get(row);
+            Object[] values = {
+                operation.getName(),
+                operation.getCount(),
+                operation.getErrors(),
+                operation.getCancelled(),
+                operation.getInFlight(),
+                String.format("%.1f", operation.getMeanMillis()),
+                String.format("%.1f", operation.getP50Millis()),
+                String.format("%.1f", operation.getP99Millis()),
+                String.format("%.1f", operation.getP999Millis()),
+                String.format("%.1f", operation.getMaxMillis())
+            };
+            for (int column = 0; column < values.length; column++) {
+                model.setValueAt(values[column], row, column);
+            }
+        }
+        StringJoiner gauges = new StringJoiner("    ");
+        Metrics.gauges().forEach((name, value) -> gauges.add(name + " = " + value));
+        gaugesLabel.setText(gauges.length() == 0 ? " " : gauges.toString());
+    }
+    
     // Helper methods for UI components
     private JPanel createStyledPanel() {
         JPanel panel = new JPanel();
@@ -846,7 +1137,7 @@ public class ModernGarageApp extends JFrame {
         return button;
     }
     
-    private JPanel createStatCard(String title, String value, String icon, Color color) {
+    private JPanel createStatCard(String title, int statIndex, String icon, Color color) {
         JPanel card = createStyledPanel();
         card.setLayout(new BorderLayout(10, 10));
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -863,7 +1154,8 @@ public class ModernGarageApp extends JFrame {
         titleLabel.setForeground(TEXT_COLOR);
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
-        JLabel valueLabel = new JLabel(value);
+        JLabel valueLabel = new JLabel("…");
+        statValueLabels[statIndex] = valueLabel;
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
         valueLabel.setForeground(color);
         valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
@@ -914,103 +1206,29 @@ public class ModernGarageApp extends JFrame {
     }
     
     // Database operations
-    private void loadSettings() {
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             Statement stmt = conn.createStatement()) {
+    // Updates each settings field to the new value unless the user has edited it since it was last shown.
+    private void syncSettingsFields(Map<String, JTextField> fields, Map<String, String> shownValues,
+                                    SettingsCache.Snapshot settings) {
+        for (Map.Entry<String, JTextField> entry : fields.entrySet()) {
+            String key = entry.getKey();
+            JTextField field = entry.getValue();
+            String value = settings.getString(key, SETTING_DEFAULTS.get(key));
+            String shown = shownValues.get(key);
             
-            ResultSet rs = stmt.executeQuery("SELECT setting_key, setting_value FROM Settings");
-            while (rs.next()) {
-                String key = rs.getString("setting_key");
-                String value = rs.getString("setting_value");
-                
-                switch (key) {
-                    case "two_wheeler_cost" -> twoWheelerCost = Double.parseDouble(value);
-                    case "three_wheeler_cost" -> threeWheelerCost = Double.parseDouble(value);
-                    case "four_wheeler_cost" -> fourWheelerCost = Double.parseDouble(value);
-                    case "premium_discount" -> premiumDiscount = Double.parseDouble(value);
-                }
+            if (shown == null || field.getText().equals(shown)) {
+                field.setText(value);
+                shownValues.put(key, value);
             }
-        } catch (SQLException e) {
-            System.err.println("Could not load settings: " + e.getMessage());
         }
     }
     
-    private String getSettingValue(String key, String defaultValue) {
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement("SELECT setting_value FROM Settings WHERE setting_key = ?")) {
-            
-            stmt.setString(1, key);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("setting_value");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return defaultValue;
-    }
-    
-    private void saveSettings(String twoWheeler, String threeWheeler, String fourWheeler, 
-                             String discount, String bizName, String bizEmail, String bizPhone) {
-        String sql = "INSERT INTO Settings (setting_key, setting_value) VALUES (?, ?) " +
-                    "ON DUPLICATE KEY UPDATE setting_value = VALUES(setting_value)";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, "two_wheeler_cost");
-            stmt.setString(2, twoWheeler);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "three_wheeler_cost");
-            stmt.setString(2, threeWheeler);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "four_wheeler_cost");
-            stmt.setString(2, fourWheeler);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "premium_discount");
-            stmt.setString(2, discount);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "business_name");
-            stmt.setString(2, bizName);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "business_email");
-            stmt.setString(2, bizEmail);
-            stmt.executeUpdate();
-            
-            stmt.setString(1, "business_phone");
-            stmt.setString(2, bizPhone);
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Failed to save settings: " + e.getMessage(), 
-                                        "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-    
-    private double calculateCost(String vehicleType, boolean isPremium) {
-        double baseCost = switch (vehicleType) {
-            case "2 Wheeler" -> twoWheelerCost;
-            case "3 Wheeler" -> threeWheelerCost;
-            case "4 Wheeler" -> fourWheelerCost;
-            default -> 0;
-        };
-        
-        return isPremium ? baseCost * (1 - premiumDiscount / 100) : baseCost;
-    }
-    
     private void handleBookingSubmit(JTextField nameField, JTextField emailField, JTextField phoneField,
                                     JComboBox<String> vehicleCombo, JComboBox<String> serviceCombo,
-                                    JTextField dateField, JTextArea notesArea, JLabel costLabel) {
+                                    JTextField dateField, JTextArea notesArea, JButton bookButton) {
         String name = nameField.getText().trim();
         String email = emailField.getText().trim();
         String phone = phoneField.getText().trim();
         String vehicle = (String) vehicleCombo.getSelectedItem();
-        String service = serviceCombo.getSelectedIndex() == 1 ? "Premium" : "Standard";
         String dateStr = dateField.getText().trim();
         String notes = notesArea.getText().trim();
         
@@ -1021,258 +1239,105 @@ public class ModernGarageApp extends JFrame {
         }
         
         boolean isPremium = serviceCombo.getSelectedIndex() == 1;
-        double cost = calculateCost(vehicle, isPremium);
-        
-        String sql = "INSERT INTO GarageServiceBookings (user_id, name, email, phone, wheeler_type, " +
-                    "service_type, cost, appointment_date, notes, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            if (currentUserId != null) {
-                stmt.setInt(1, currentUserId);
-            } else {
-                stmt.setNull(1, Types.INTEGER);
-            }
-            stmt.setString(2, name);
-            stmt.setString(3, email);
-            stmt.setString(4, phone);
-            stmt.setString(5, vehicle);
-            stmt.setString(6, service);
-            stmt.setDouble(7, cost);
-            stmt.setString(8, dateStr);
-            stmt.setString(9, notes);
-            stmt.setString(10, "Pending");
-            
-            stmt.executeUpdate();
-            
-            // Send email
-            String emailEnabled = AppConfig.getOrDefault("JAVA_EMAIL_ENABLED", "false");
-            if ("true".equalsIgnoreCase(emailEnabled)) {
-                try {
-                    String emailBody = "🚗 Welcome to Our Garage Services! 🚗\n\n"
-                            + "Dear " + name + ",\n\n"
-                            + "Great news! Your service booking has been confirmed.\n\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
-                            + "📋 BOOKING DETAILS\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
-                            + "Vehicle Type: " + vehicle + "\n"
-                            + "Service Package: " + service + (isPremium ? " ⭐" : "") + "\n"
-                            + "Appointment: " + dateStr + "\n"
-                            + "Total Cost: Rs. " + String.format("%.2f", cost) + "\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n"
-                            + "✨ What's Next?\n"
-                            + "• Our team will contact you shortly to confirm your appointment\n"
-                            + "• Please bring your vehicle at the scheduled time\n"
-                            + "• Our expert technicians will take care of everything!\n\n"
-                            + "💡 Need to reschedule or have questions?\n"
-                            + "Feel free to reach out to us anytime.\n\n"
-                            + "Thank you for choosing our services! We look forward to serving you.\n\n"
-                            + "Best regards,\n"
-                            + "Your Garage Services Team\n"
-                            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━";
+        BookingService.BookingRequest request = new BookingService.BookingRequest(
+                currentUserId, name, email, phone, vehicle, isPremium, dateStr, notes);
+        
+        setBusy(bookButton, true);
+        BackgroundTasks.run(
+                () -> bookingService.createBooking(request, emailEnabled),
+                ignored -> {
+                    setBusy(bookButton, false);
+                    if (emailDispatcher != null) {
+                        emailDispatcher.wake();
+                        JOptionPane.showMessageDialog(this, "Booking successful! A confirmation email will be sent shortly.", 
+                                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Booking created successfully!", 
+                                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                    }
                     
-                    EmailService.sendEmail(email, "🎉 Your Garage Service Booking is Confirmed!", emailBody);
-                    JOptionPane.showMessageDialog(this, "Booking successful! Confirmation email sent.", 
-                                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception emailError) {
-                    JOptionPane.showMessageDialog(this, 
-                            "Booking saved but email failed: " + emailError.getMessage(), 
-                            "Warning", JOptionPane.WARNING_MESSAGE);
-                }
-            } else {
-                JOptionPane.showMessageDialog(this, "Booking created successfully!", 
-                                            "Success", JOptionPane.INFORMATION_MESSAGE);
-            }
-            
-            // Clear form
-            nameField.setText("");
-            emailField.setText("");
-            phoneField.setText("");
-            notesArea.setText("");
-            
-            // Refresh dashboard if on that tab
-            if (tabbedPane.getSelectedIndex() == 0) {
-                dashboardPanel = createDashboardPanel();
-                tabbedPane.setComponentAt(0, dashboardPanel);
-            }
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Booking failed: " + e.getMessage(), 
-                                        "Error", JOptionPane.ERROR_MESSAGE);
-        }
+                    // Clear form
+                    nameField.setText("");
+                    emailField.setText("");
+                    phoneField.setText("");
+                    notesArea.setText("");
+                    
+                    // Refresh dashboard if on that tab
+                    if (tabbedPane.getSelectedIndex() == 0) {
+                        refreshDashboard();
+                    }
+                },
+                error -> {
+                    setBusy(bookButton, false);
+                    JOptionPane.showMessageDialog(this, "Booking failed: " + error.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                });
     }
     
-    private int[] getStatistics() {
-        int[] stats = new int[4]; // total, pending, completed, revenue
-        
-        String userFilter = currentUserId != null ? " WHERE user_id = " + currentUserId : "";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             Statement stmt = conn.createStatement()) {
-            
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as total, " +
-                    "SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END) as pending, " +
-                    "SUM(CASE WHEN status = 'Completed' THEN 1 ELSE 0 END) as completed, " +
-                    "SUM(cost) as revenue FROM GarageServiceBookings" + userFilter);
-            
-            if (rs.next()) {
-                stats[0] = rs.getInt("total");
-                stats[1] = rs.getInt("pending");
-                stats[2] = rs.getInt("completed");
-                stats[3] = rs.getInt("revenue");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private List<BookingRow> recentRows(List<Booking> bookings) {
+        List<BookingRow> rows = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            rows.add(BookingRow.of(booking));
         }
-        
-        return stats;
+        return rows;
     }
     
-    private void loadRecentBookings(DefaultTableModel model, int limit) {
-        model.setRowCount(0);
-        
-        String userFilter = currentUserId != null ? " WHERE user_id = " + currentUserId : "";
-        
-        String sql = "SELECT id, name, wheeler_type, appointment_date, status, cost " +
-                    "FROM GarageServiceBookings" + userFilter + 
-                    " ORDER BY booking_date DESC LIMIT ?";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, limit);
-            ResultSet rs = stmt.executeQuery();
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("wheeler_type"),
-                    rs.getString("appointment_date"),
-                    rs.getString("status"),
-                    String.format("Rs. %.2f", rs.getDouble("cost"))
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private int selectedBookingId(HistoryTable history) {
+        int row = history.table.getSelectedRow();
+        return row >= 0 ? history.bookingIdAt.applyAsInt(history.table.convertRowIndexToModel(row)) : -1;
     }
     
-    private void loadAllBookings(DefaultTableModel model) {
-        model.setRowCount(0);
-        
-        String userFilter = currentUserId != null ? " WHERE user_id = " + currentUserId : "";
-        
-        String sql = "SELECT id, name, email, phone, wheeler_type, service_type, " +
-                    "appointment_date, status, cost FROM GarageServiceBookings" + userFilter + 
-                    " ORDER BY booking_date DESC";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("wheeler_type"),
-                    rs.getString("service_type"),
-                    rs.getString("appointment_date"),
-                    rs.getString("status"),
-                    String.format("Rs. %.2f", rs.getDouble("cost"))
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private void showBookingDetails(int bookingId) {
+        setBusy(null, true);
+        BackgroundTasks.run(
+                () -> bookingDetails(bookingService.getBooking(bookingId)),
+                details -> {
+                    setBusy(null, false);
+                    openBookingDetailsDialog(details);
+                },
+                error -> {
+                    setBusy(null, false);
+                    error.printStackTrace();
+                    openBookingDetailsDialog(Collections.emptyMap());
+                });
     }
     
-    private void searchBookings(DefaultTableModel model, String searchTerm) {
-        model.setRowCount(0);
-        
-        String userFilter = currentUserId != null ? " AND user_id = " + currentUserId : "";
-        
-        String sql = "SELECT id, name, email, phone, wheeler_type, service_type, " +
-                    "appointment_date, status, cost FROM GarageServiceBookings " +
-                    "WHERE (name LIKE ? OR email LIKE ? OR phone LIKE ? OR wheeler_type LIKE ?)" + 
-                    userFilter + " ORDER BY booking_date DESC";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            String pattern = "%" + searchTerm + "%";
-            stmt.setString(1, pattern);
-            stmt.setString(2, pattern);
-            stmt.setString(3, pattern);
-            stmt.setString(4, pattern);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("wheeler_type"),
-                    rs.getString("service_type"),
-                    rs.getString("appointment_date"),
-                    rs.getString("status"),
-                    String.format("Rs. %.2f", rs.getDouble("cost"))
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private Map<String, String> bookingDetails(Booking booking) {
+        Map<String, String> details = new LinkedHashMap<>();
+        if (booking != null) {
+            details.put("Booking ID:", String.valueOf(booking.getId()));
+            details.put("Customer Name:", booking.getName());
+            details.put("Email:", booking.getEmail());
+            details.put("Phone:", booking.getPhone());
+            details.put("Vehicle Type:", booking.getWheelerType());
+            details.put("Service Type:", booking.getServiceType());
+            details.put("Appointment Date:", booking.getAppointmentDate());
+            details.put("Status:", booking.getStatus());
+            details.put("Cost:", PricingEngine.format(PricingEngine.toPaise(booking.getCost())));
+            details.put("Booking Date:", booking.getBookingDate());
+            details.put("Notes:", booking.getNotes());
         }
+        return details;
     }
     
-    private void showBookingDetails(DefaultTableModel model, int row) {
+    private void openBookingDetailsDialog(Map<String, String> details) {
         JDialog dialog = new JDialog(this, "Booking Details", true);
         dialog.setSize(500, 600);
         dialog.setLocationRelativeTo(this);
         
-        int bookingId = (int) model.getValueAt(row, 0);
-        
-        String sql = "SELECT * FROM GarageServiceBookings WHERE id = ?";
-        
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, bookingId);
-            ResultSet rs = stmt.executeQuery();
+        if (!details.isEmpty()) {
+            JPanel panel = new JPanel();
+            panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+            panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+            panel.setBackground(Color.WHITE);
             
-            if (rs.next()) {
-                JPanel panel = new JPanel();
-                panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-                panel.setBorder(new EmptyBorder(20, 20, 20, 20));
-                panel.setBackground(Color.WHITE);
-                
-                addDetailRow(panel, "Booking ID:", String.valueOf(rs.getInt("id")));
-                addDetailRow(panel, "Customer Name:", rs.getString("name"));
-                addDetailRow(panel, "Email:", rs.getString("email"));
-                addDetailRow(panel, "Phone:", rs.getString("phone"));
-                addDetailRow(panel, "Vehicle Type:", rs.getString("wheeler_type"));
-                addDetailRow(panel, "Service Type:", rs.getString("service_type"));
-                addDetailRow(panel, "Appointment Date:", rs.getString("appointment_date"));
-                addDetailRow(panel, "Status:", rs.getString("status"));
-                addDetailRow(panel, "Cost:", String.format("Rs. %.2f", rs.getDouble("cost")));
-                addDetailRow(panel, "Booking Date:", rs.getString("booking_date"));
-                addDetailRow(panel, "Notes:", rs.getString("notes"));
-                
-                JScrollPane scrollPane = new JScrollPane(panel);
-                scrollPane.setBorder(null);
-                dialog.add(scrollPane);
+            for (Map.Entry<String, String> detail : details.entrySet()) {
+                addDetailRow(panel, detail.getKey(), detail.getValue());
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            
+            JScrollPane scrollPane = new JScrollPane(panel);
+            scrollPane.setBorder(null);
+            dialog.add(scrollPane);
         }
         
         dialog.setVisible(true);
@@ -1296,10 +1361,8 @@ public class ModernGarageApp extends JFrame {
         panel.add(row);
     }
     
-    private void updateBookingStatus(DefaultTableModel model, int row) {
-        int bookingId = (int) model.getValueAt(row, 0);
-        
-        String[] statuses = {"Pending", "Confirmed", "In Progress", "Completed", "Cancelled"};
+    private void updateBookingStatus(HistoryTable history, int bookingId) {
+        String[] statuses = BookingService.STATUSES.toArray(new String[0]);
         String newStatus = (String) JOptionPane.showInputDialog(this, 
                 "Select new status:", 
                 "Update Status", 
@@ -1309,57 +1372,202 @@ public class ModernGarageApp extends JFrame {
                 statuses[0]);
         
         if (newStatus != null) {
-            String sql = "UPDATE GarageServiceBookings SET status = ? WHERE id = ?";
-            
-            try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setString(1, newStatus);
-                stmt.setInt(2, bookingId);
-                stmt.executeUpdate();
-                
-                model.setValueAt(newStatus, row, 7);
-                
-                JOptionPane.showMessageDialog(this, "Status updated successfully!", 
-                                            "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Update failed: " + e.getMessage(), 
-                                            "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            setBusy(null, true);
+            BackgroundTasks.run(
+                    () -> bookingService.updateStatus(bookingId, newStatus),
+                    ignored -> {
+                        setBusy(null, false);
+                        history.statusUpdated.accept(bookingId, newStatus);
+                        
+                        JOptionPane.showMessageDialog(this, "Status updated successfully!", 
+                                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                    },
+                    error -> {
+                        setBusy(null, false);
+                        JOptionPane.showMessageDialog(this, "Update failed: " + error.getMessage(), 
+                                                    "Error", JOptionPane.ERROR_MESSAGE);
+                    });
         }
     }
     
-    private void deleteBooking(int bookingId) {
-        String sql = "DELETE FROM GarageServiceBookings WHERE id = ?";
+    private void deleteBooking(int bookingId, Runnable onDeleted) {
+        setBusy(null, true);
+        BackgroundTasks.run(
+                () -> bookingService.deleteBooking(bookingId),
+                ignored -> {
+                    setBusy(null, false);
+                    JOptionPane.showMessageDialog(this, "Booking deleted successfully!", 
+                                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                    onDeleted.run();
+                },
+                error -> {
+                    setBusy(null, false);
+                    JOptionPane.showMessageDialog(this, "Delete failed: " + error.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                });
+    }
+    
+    // Streams the selected bookings to a file (see BookingExport) with a progress dialog that can cancel it
+    private void exportBookings(JButton exportButton) {
+        JTextField fromField = createStyledTextField();
+        JTextField toField = createStyledTextField();
+        toField.setText(LocalDate.now().toString());
+        // "Any" (no filter) first, then the statuses a booking can actually have
+        JComboBox<String> statusCombo = new JComboBox<>();
+        statusCombo.addItem("Any");
+        BookingService.STATUSES.forEach(statusCombo::addItem);
+        
+        JPanel filterPanel = new JPanel(new GridLayout(0, 2, 10, 10));
+        filterPanel.add(new JLabel("From (yyyy-MM-dd, blank = all):"));
+        filterPanel.add(fromField);
+        filterPanel.add(new JLabel("To (yyyy-MM-dd, blank = all):"));
+        filterPanel.add(toField);
+        filterPanel.add(new JLabel("Status:"));
+        filterPanel.add(statusCombo);
+        
+        if (JOptionPane.showConfirmDialog(this, filterPanel, "Export Bookings",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
         
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, bookingId);
-            stmt.executeUpdate();
-            
-            JOptionPane.showMessageDialog(this, "Booking deleted successfully!", 
-                                        "Success", JOptionPane.INFORMATION_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Delete failed: " + e.getMessage(), 
+        BookingExport.Filter filter;
+        try {
+            String from = fromField.getText().trim();
+            String to = toField.getText().trim();
+            filter = new BookingExport.Filter(
+                    from.isEmpty() ? null : LocalDate.parse(from),
+                    to.isEmpty() ? null : LocalDate.parse(to),
+                    statusCombo.getSelectedIndex() == 0 ? null : (String) statusCombo.getSelectedItem(),
+                    currentUserId);
+        } catch (RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Dates must be in yyyy-MM-dd format",
                                         "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export to (.csv, .csv.gz, .jsonl or .jsonl.gz)");
+        chooser.setSelectedFile(new File("bookings-" + LocalDate.now() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        BookingExport export = new BookingExport(connectionPool, filter, chooser.getSelectedFile().toPath());
+        
+        JLabel progressLabel = new JLabel("Starting export…");
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        JButton cancelButton = new JButton("Cancel");
+        JDialog progressDialog = new JDialog(this, "Exporting Bookings", false);
+        progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        JPanel progressPanel = new JPanel(new BorderLayout(10, 10));
+        progressPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        progressPanel.add(progressLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(cancelButton, BorderLayout.SOUTH);
+        progressDialog.add(progressPanel);
+        progressDialog.setSize(320, 140);
+        progressDialog.setLocationRelativeTo(this);
+        
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            progressLabel.setText("Cancelling…");
+            export.cancel();
+        });
+        
+        exportButton.setEnabled(false);
+        progressDialog.setVisible(true);
+        BackgroundTasks.run(
+                () -> export.run(rows -> SwingUtilities.invokeLater(() -> {
+                    if (cancelButton.isEnabled()) {
+                        progressLabel.setText(String.format("%,d bookings exported…", rows));
+                    }
+                })),
+                rows -> {
+                    exportButton.setEnabled(true);
+                    progressDialog.dispose();
+                    JOptionPane.showMessageDialog(this, String.format("Exported %,d bookings.", rows),
+                                                "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                },
+                error -> {
+                    exportButton.setEnabled(true);
+                    progressDialog.dispose();
+                    if (!(error instanceof CancellationException)) {
+                        JOptionPane.showMessageDialog(this, "Export failed: " + error.getMessage(),
+                                                    "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+    }
+    
+    // Marks a background operation as running: disables its trigger and shows the wait cursor.
+    private void setBusy(JComponent trigger, boolean busy) {
+        if (trigger != null) {
+            trigger.setEnabled(!busy);
+        }
+        busyTasks = Math.max(0, busyTasks + (busy ? 1 : -1));
+        setCursor(Cursor.getPredefinedCursor(busyTasks > 0 ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
+    
+    private static final class SignedInUser {
+        private final int id;
+        private final String fullName;
+        
+        private SignedInUser(int id, String fullName) {
+            this.id = id;
+            this.fullName = fullName;
+        }
+    }
+    
+    // What the History tab's search box and buttons need from the table behind it.
+    private static final class HistoryTable {
+        private final JTable table;
+        private final Consumer<String> search;
+        private final Runnable reload;
+        // Model row to booking id, -1 while that row is not loaded
+        private final IntUnaryOperator bookingIdAt;
+        private final BiConsumer<Integer, String> statusUpdated;
+        private final IntConsumer deleted;
+        
+        private HistoryTable(JTable table, Consumer<String> search, Runnable reload, IntUnaryOperator bookingIdAt,
+                             BiConsumer<Integer, String> statusUpdated, IntConsumer deleted) {
+            this.table = table;
+            this.search = search;
+            this.reload = reload;
+            this.bookingIdAt = bookingIdAt;
+            this.statusUpdated = statusUpdated;
+            this.deleted = deleted;
+        }
+    }
+    
+    private static final class DashboardData {
+        private final BookingStats stats;
+        private final List<BookingRow> recentRows;
+        
+        private DashboardData(BookingStats stats, List<BookingRow> recentRows) {
+            this.stats = stats;
+            this.recentRows = recentRows;
         }
     }
     
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            String dbUrl = AppConfig.get("JAVA_DB_URL");
-            String dbUser = AppConfig.get("JAVA_DB_USER");
-            String dbPassword = AppConfig.getOrDefault("JAVA_DB_PASSWORD", "");
-            
-            if (dbUrl == null || dbUser == null) {
-                JOptionPane.showMessageDialog(null, 
-                        "Database configuration missing! Check .env file", 
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            new ModernGarageApp(dbUrl, dbUser, dbPassword);
-        });
+        String dbUrl = AppConfig.get("JAVA_DB_URL");
+        String dbUser = AppConfig.get("JAVA_DB_USER");
+        String dbPassword = AppConfig.getOrDefault("JAVA_DB_PASSWORD", "");
+        
+        if (dbUrl == null || dbUser == null) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, 
+                    "Database configuration missing! Check .env file", 
+                    "Error", JOptionPane.ERROR_MESSAGE));
+            return;
+        }
+        
+        ConnectionPool connectionPool = ConnectionPool.create(dbUrl, dbUser, dbPassword);
+        Runtime.getRuntime().addShutdownHook(new Thread(connectionPool::close));
+        // Schema changes (ALTER TABLE, waiting on another desk's migration lock) can take a while,
+        // so they run here before the window is built rather than on the Event Dispatch Thread.
+        new SchemaMigrator(connectionPool).migrateAtStartup();
+        // Prices too, so the first booking is not quoted at PricingEngine's defaults.
+        SettingsCache settingsCache = new SettingsCache(connectionPool);
+        settingsCache.loadAtStartup();
+        SwingUtilities.invokeLater(() -> new ModernGarageApp(connectionPool, settingsCache));
     }
 }
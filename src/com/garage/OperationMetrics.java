@@ -0,0 +1,112 @@
+package com.garage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency, error count and in-flight gauge for one named operation. Callers bracket the work:
+//   long started = METRICS.begin();
+//   boolean ok = false;
+//   try { ...; ok = true; } finally { METRICS.end(started, ok); }
+// Failed calls count as errors and their time is still recorded, so a slow timeout shows up
+// in the percentiles too. Calls abandoned on purpose (a superseded search) end with endCancelled
+// instead: they are counted apart and left out of the latencies and the error rate.
+// Obtain instances from Metrics.operation.
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public long begin() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void end(long started, boolean success) {
+        latencies.record(System.nanoTime() - started);
+        inFlight.decrement();
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void endCancelled(long started) {
+        inFlight.decrement();
+        cancelled.increment();
+    }
+
+    // For durations measured elsewhere, e.g. a stall that is only known once it is over.
+    public void record(long nanos, boolean success) {
+        latencies.record(nanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public long getSumNanos() {
+        return latencies.getSumNanos();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = latencies.getCount();
+        return count == 0 ? 0.0 : latencies.getSumNanos() / 1e6 / count;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.percentileNanos(50) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.percentileNanos(99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latencies.percentileNanos(99.9) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errors.reset();
+        cancelled.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package com.garage;
+
+// What JMX clients (JConsole, VisualVM, a JMX exporter) see for each instrumented operation,
+// as com.garage:type=Operation,name=<operation>. Times are in milliseconds.
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCount();
+
+    long getErrors();
+
+    long getCancelled();
+
+    long getInFlight();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
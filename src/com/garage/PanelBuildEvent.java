@@ -0,0 +1,16 @@
+package com.garage;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Building one of ModernGarageApp's tabs on the event dispatch thread.
+@Name("com.garage.PanelBuild")
+@Label("Panel Build")
+@Category({"Garage", "UI"})
+final class PanelBuildEvent extends Event {
+
+    @Label("Panel")
+    String panel;
+}
@@ -0,0 +1,36 @@
+package com.garage;
+
+// One statement as the app runs it, with sample parameters, for QueryPlanCheck to EXPLAIN.
+// The DAOs list theirs (plannedQueries) from the same SQL constants they execute, so the check
+// cannot drift from the code. fullScanExpected marks statements that read every row by design
+// (a LIKE fallback search, a staff sort on an unindexed column, a whole-table aggregate).
+final class PlannedQuery {
+
+    private final String name;
+    private final String sql;
+    private final boolean fullScanExpected;
+    private final Object[] parameters;
+
+    PlannedQuery(String name, String sql, boolean fullScanExpected, Object... parameters) {
+        this.name = name;
+        this.sql = sql;
+        this.fullScanExpected = fullScanExpected;
+        this.parameters = parameters;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    boolean isFullScanExpected() {
+        return fullScanExpected;
+    }
+
+    Object[] getParameters() {
+        return parameters.clone();
+    }
+}
@@ -0,0 +1,210 @@
+package com.garage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Service prices for both desktop apps, the importer and the HTTP API. Money is held as whole
+// paise (long), so discounts round once, half up, instead of drifting in double arithmetic.
+// The price of every vehicle/service combination is computed when the settings change: the
+// rules below are applied to each cell of a small table, and a quote is then one array lookup.
+// Settings keys: two_wheeler_cost, three_wheeler_cost, four_wheeler_cost (rupees),
+// premium_discount (percent off Premium), service_surcharge (rupees added to every service).
+public final class PricingEngine {
+
+    public enum VehicleType {
+        TWO_WHEELER("2 Wheeler", "two_wheeler_cost", 500_00),
+        THREE_WHEELER("3 Wheeler", "three_wheeler_cost", 750_00),
+        FOUR_WHEELER("4 Wheeler", "four_wheeler_cost", 1000_00);
+
+        private final String label;
+        private final String settingKey;
+        private final long defaultPaise;
+
+        VehicleType(String label, String settingKey, long defaultPaise) {
+            this.label = label;
+            this.settingKey = settingKey;
+            this.defaultPaise = defaultPaise;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static VehicleType fromLabel(String label) {
+            if (label != null) {
+                switch (label) {
+                    case "2 Wheeler":
+                        return TWO_WHEELER;
+                    case "3 Wheeler":
+                        return THREE_WHEELER;
+                    case "4 Wheeler":
+                        return FOUR_WHEELER;
+                    default:
+                        break;
+                }
+            }
+            throw new IllegalArgumentException("Unknown vehicle type: " + label);
+        }
+    }
+
+    public enum ServiceType {
+        STANDARD("Standard"),
+        PREMIUM("Premium");
+
+        private final String label;
+
+        ServiceType(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static ServiceType of(boolean premium) {
+            return premium ? PREMIUM : STANDARD;
+        }
+    }
+
+    // One pricing step, applied in order to the price (in paise) of every vehicle/service pair
+    // when the table is compiled. Rules see the settings the table is built from.
+    @FunctionalInterface
+    public interface Rule {
+        long apply(VehicleType vehicle, ServiceType service, long paise, SettingsCache.Snapshot settings);
+    }
+
+    public static final Rule PREMIUM_DISCOUNT = (vehicle, service, paise, settings) -> service == ServiceType.PREMIUM
+            ? percentOff(paise, settings.getDouble("premium_discount", 10.0))
+            : paise;
+
+    public static final Rule SERVICE_SURCHARGE = (vehicle, service, paise, settings) ->
+            paise + toPaise(settings.getDouble("service_surcharge", 0.0));
+
+    private static final int SERVICES = ServiceType.values().length;
+
+    private final Supplier<SettingsCache.Snapshot> settings;
+    private final List<Rule> rules;
+    private volatile PriceTable table;
+
+    // Prices follow the given settings, recompiled whenever a different snapshot is returned.
+    public PricingEngine(Supplier<SettingsCache.Snapshot> settings) {
+        this(settings, List.of(PREMIUM_DISCOUNT, SERVICE_SURCHARGE));
+    }
+
+    public PricingEngine(Supplier<SettingsCache.Snapshot> settings, List<Rule> rules) {
+        this.settings = settings;
+        this.rules = List.copyOf(rules);
+    }
+
+    // Price in paise.
+    public long quote(VehicleType vehicle, ServiceType service) {
+        return currentTable().prices[vehicle.ordinal() * SERVICES + service.ordinal()];
+    }
+
+    // Price in paise for the form labels ("2 Wheeler", ...).
+    public long quote(String vehicleLabel, boolean premium) {
+        return quote(VehicleType.fromLabel(vehicleLabel), ServiceType.of(premium));
+    }
+
+    // Prices in paise for many requests, all from the same settings snapshot.
+    public long[] quoteAll(List<QuoteRequest> requests) {
+        long[] prices = currentTable().prices;
+        long[] quotes = new long[requests.size()];
+        for (int i = 0; i < quotes.length; i++) {
+            QuoteRequest request = requests.get(i);
+            quotes[i] = prices[request.vehicle.ordinal() * SERVICES + request.service.ordinal()];
+        }
+        return quotes;
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    public static long toPaise(double rupees) {
+        return Math.round(rupees * 100);
+    }
+
+    // "Rs. 1234.50", built directly rather than through String.format (used for every table row).
+    public static String format(long paise) {
+        return appendAmount(new StringBuilder(16).append("Rs. "), paise).toString();
+    }
+
+    // Appends "1234.50": exact, and the same in every locale (the API's JSON numbers).
+    public static StringBuilder appendAmount(StringBuilder text, long paise) {
+        if (paise < 0) {
+            text.append('-');
+        }
+        long amount = Math.abs(paise);
+        long fraction = amount % 100;
+        text.append(amount / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction);
+    }
+
+    // Half-up rounding to whole paise; percent is e.g. 10 or 12.5.
+    private static long percentOff(long paise, double percent) {
+        long basisPoints = Math.round(percent * 100);
+        return Math.floorDiv(paise * (10_000 - basisPoints) + 5_000, 10_000);
+    }
+
+    private PriceTable currentTable() {
+        SettingsCache.Snapshot snapshot = settings.get();
+        PriceTable current = table;
+        if (current == null || current.source != snapshot) {
+            // Racing threads may both compile; the tables are equal, so either one can win.
+            current = compile(snapshot);
+            table = current;
+        }
+        return current;
+    }
+
+    private PriceTable compile(SettingsCache.Snapshot snapshot) {
+        VehicleType[] vehicles = VehicleType.values();
+        ServiceType[] services = ServiceType.values();
+        long[] prices = new long[vehicles.length * SERVICES];
+        List<String> negative = new ArrayList<>();
+        for (VehicleType vehicle : vehicles) {
+            long base = toPaise(snapshot.getDouble(vehicle.settingKey, toRupees(vehicle.defaultPaise)));
+            for (ServiceType service : services) {
+                long price = base;
+                for (Rule rule : rules) {
+                    price = rule.apply(vehicle, service, price, snapshot);
+                }
+                if (price < 0) {
+                    negative.add(vehicle.label + " " + service.label);
+                    price = 0;
+                }
+                prices[vehicle.ordinal() * SERVICES + service.ordinal()] = price;
+            }
+        }
+        if (!negative.isEmpty()) {
+            System.err.println("Pricing settings give a negative price for " + String.join(", ", negative)
+                    + "; charging 0 instead.");
+        }
+        return new PriceTable(snapshot, prices);
+    }
+
+    public static final class QuoteRequest {
+        private final VehicleType vehicle;
+        private final ServiceType service;
+
+        public QuoteRequest(VehicleType vehicle, ServiceType service) {
+            this.vehicle = vehicle;
+            this.service = service;
+        }
+    }
+
+    private static final class PriceTable {
+        private final SettingsCache.Snapshot source;
+        private final long[] prices;
+
+        private PriceTable(SettingsCache.Snapshot source, long[] prices) {
+            this.source = source;
+            this.prices = prices;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.garage;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Lets one thread cancel a query that another thread is running. Statement.cancel() alone is
+// racy with a pool: Connector/J cancels by sending KILL QUERY for the statement's connection,
+// and once the statement has finished that connection may be back in the pool running someone
+// else's query. So the running side attaches its statement before executing and detaches it
+// before closing; cancel() only reaches a statement that is still attached and holds the lock
+// while the driver sends the kill, so detach() cannot return the connection before that is done.
+public final class QueryCancellation {
+
+    private final Object lock = new Object();
+    private Statement statement;
+    private boolean cancelled;
+
+    // Throws if cancel() already ran, so a superseded query is not started at all.
+    public void attach(Statement statement) throws SQLException {
+        synchronized (lock) {
+            if (cancelled) {
+                throw new SQLException("Query cancelled before it started");
+            }
+            this.statement = statement;
+        }
+    }
+
+    public void detach() {
+        synchronized (lock) {
+            statement = null;
+        }
+    }
+
+    // Blocks while the driver sends the cancel (it opens a connection for it); not for the EDT.
+    public void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+            if (statement == null) {
+                return;
+            }
+            try {
+                statement.cancel();
+            } catch (SQLException | RuntimeException error) {
+                // The query still runs to completion; its result is ignored.
+                System.err.println("Could not cancel a superseded query: " + error.getMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        synchronized (lock) {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Runs EXPLAIN on every query the DAOs run (each lists its own statements, with sample
+// parameters, in plannedQueries) and exits with status 1 if any of them reads a table with a
+// full scan (type ALL). A full scan is only reported as a failure when EXPLAIN estimates at least
+// minRows rows, since MySQL rightly scans tiny tables; run it against a database with realistic
+// data. Statements marked fullScanExpected (whole-table reads by design) are shown but not failed.
+//   mvnw compile exec:java -Dexec.mainClass=com.garage.QueryPlanCheck -Dexec.args=1000
+public final class QueryPlanCheck {
+
+    private static final int DEFAULT_MIN_ROWS = 1000;
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> missingDb = AppConfig.missing("JAVA_DB_URL", "JAVA_DB_USER");
+        if (!missingDb.isEmpty()) {
+            System.err.println("Missing required database configuration: " + String.join(", ", missingDb));
+            System.exit(1);
+        }
+
+        long minRows = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MIN_ROWS;
+        List<String> failures = new ArrayList<>();
+        List<PlannedQuery> queries = new ArrayList<>(BookingDao.plannedQueries());
+        queries.addAll(BookingStatsStore.plannedQueries());
+        queries.addAll(EmailOutbox.plannedQueries());
+        queries.addAll(SettingsDao.plannedQueries());
+        queries.addAll(UserDao.plannedQueries());
+
+        try (ConnectionPool pool = ConnectionPool.create(
+                AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"), AppConfig.get("JAVA_DB_PASSWORD"));
+             Connection conn = pool.getConnection()) {
+
+            System.out.printf(Locale.ROOT, "%-48s %-22s %-8s %-26s %10s%n", "query", "table", "type", "key", "rows");
+            for (PlannedQuery query : queries) {
+                try {
+                    for (PlanRow row : explain(conn, query)) {
+                        boolean fullScan = "ALL".equals(row.type) && row.rows >= minRows;
+                        System.out.printf(Locale.ROOT, "%-48s %-22s %-8s %-26s %10d%s%n",
+                                query.getName(), row.table, row.type, row.key == null ? "-" : row.key, row.rows,
+                                fullScan && query.isFullScanExpected() ? "  (expected)" : "");
+                        if (fullScan && !query.isFullScanExpected()) {
+                            failures.add(query.getName() + ": full scan of " + row.table + " (~" + row.rows + " rows)");
+                        }
+                    }
+                } catch (SQLException error) {
+                    failures.add(query.getName() + ": EXPLAIN failed: " + error.getMessage());
+                }
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("No unexpected full table scans in " + queries.size() + " checked queries.");
+            return;
+        }
+        System.err.println();
+        for (String failure : failures) {
+            System.err.println("FAIL " + failure);
+        }
+        System.exit(1);
+    }
+
+    private static List<PlanRow> explain(Connection conn, PlannedQuery query) throws SQLException {
+        List<PlanRow> rows = new ArrayList<>();
+        Object[] parameters = query.getParameters();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query.getSql())) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new PlanRow(rs.getString("table"), rs.getString("type"), rs.getString("key"), rs.getLong("rows")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static final class PlanRow {
+        private final String table;
+        private final String type;
+        private final String key;
+        private final long rows;
+
+        private PlanRow(String table, String type, String key, long rows) {
+            this.table = table;
+            this.type = type;
+            this.key = key;
+            this.rows = rows;
+        }
+    }
+}
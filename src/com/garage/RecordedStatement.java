@@ -0,0 +1,201 @@
+package com.garage;
+
+import jdk.jfr.EventType;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Emits a DatabaseStatementEvent for every execute* call on a statement from ConnectionPool.
+// The pool only wraps statements while a flight recording has the event enabled, so with no
+// recording running statements are the driver's own objects and nothing here is on the path.
+final class RecordedStatement implements InvocationHandler {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(DatabaseStatementEvent.class);
+
+    private final Statement physical;
+    private final String preparedSql;
+    private QueryRecording openQuery;
+
+    private RecordedStatement(Statement physical, String preparedSql) {
+        this.physical = physical;
+        this.preparedSql = preparedSql;
+    }
+
+    static boolean isEnabled() {
+        return EVENT_TYPE.isEnabled();
+    }
+
+    // preparedSql is the SQL a PreparedStatement was created with, or null for a plain Statement.
+    static Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(RecordedStatement.class.getClassLoader(), new Class<?>[]{type},
+                new RecordedStatement(statement, preparedSql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return "RecordedStatement[" + physical + "]";
+            }
+            case "close" -> finishOpenQuery();
+            default -> {
+                if (name.startsWith("execute")) {
+                    return execute(proxy, method, args);
+                }
+            }
+        }
+        return call(physical, method, args);
+    }
+
+    private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+        finishOpenQuery();
+        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+        DatabaseStatementEvent event = new DatabaseStatementEvent();
+        event.begin();
+        Object result;
+        try {
+            result = call(physical, method, args);
+        } catch (Throwable error) {
+            event.failed = true;
+            commit(event, sql, method.getName(), 0);
+            throw error;
+        }
+
+        if (result instanceof ResultSet resultSet) {
+            // Committed when the rows have been read and the ResultSet is closed.
+            openQuery = new QueryRecording(event, sql, method.getName());
+            return Proxy.newProxyInstance(RecordedStatement.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new RecordedResultSet(resultSet, openQuery, proxy));
+        }
+        commit(event, sql, method.getName(), rowsOf(result));
+        return result;
+    }
+
+    private long rowsOf(Object result) throws Exception {
+        if (result instanceof Number count) {
+            return count.longValue();
+        }
+        if (result instanceof int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+        if (result instanceof long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+        // execute() returned false: an update; true would have produced a ResultSet to read.
+        return Boolean.FALSE.equals(result) ? Math.max(0, physical.getUpdateCount()) : 0;
+    }
+
+    private void finishOpenQuery() {
+        if (openQuery != null) {
+            openQuery.finish();
+            openQuery = null;
+        }
+    }
+
+    private static void commit(DatabaseStatementEvent event, String sql, String method, long rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = sql;
+            event.sqlId = sql == null ? null : Integer.toHexString(sql.hashCode());
+            event.method = method;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException error) {
+            throw error.getCause();
+        }
+    }
+
+    private static final class QueryRecording {
+        private final DatabaseStatementEvent event;
+        private final String sql;
+        private final String method;
+        private long rows;
+        private boolean finished;
+
+        private QueryRecording(DatabaseStatementEvent event, String sql, String method) {
+            this.event = event;
+            this.sql = sql;
+            this.method = method;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                commit(event, sql, method, rows);
+            }
+        }
+    }
+
+    // Counts rows as they are read and ends the query's event when the ResultSet is closed.
+    private static final class RecordedResultSet implements InvocationHandler {
+        private final ResultSet physical;
+        private final QueryRecording query;
+        private final Object statement;
+
+        private RecordedResultSet(ResultSet physical, QueryRecording query, Object statement) {
+            this.physical = physical;
+            this.query = query;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    Object more = call(physical, method, args);
+                    if (Boolean.TRUE.equals(more)) {
+                        query.rows++;
+                    }
+                    return more;
+                }
+                case "close" -> query.finish();
+                case "getStatement" -> {
+                    return statement;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "RecordedResultSet[" + physical + "]";
+                }
+                default -> {
+                    // Everything else goes straight to the driver's ResultSet.
+                }
+            }
+            return call(physical, method, args);
+        }
+    }
+}
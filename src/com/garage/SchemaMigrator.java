@@ -0,0 +1,206 @@
+package com.garage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Versioned schema changes applied by the desktop apps at startup. Each migration runs once
+// and is recorded in SchemaMigrations with a checksum of its statements; editing a migration
+// that was already applied is reported instead of silently diverging. When everything is
+// applied, startup costs one small SELECT. A named lock keeps desks that start together
+// from running the same migration twice.
+// sql/migrate.sql remains for databases created before this runner existed; new schema
+// changes go here as the next version (and into sql/setup.sql for fresh installs).
+public final class SchemaMigrator {
+
+    private static final String LOCK_NAME = "garage.schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final String MISSING_TABLE_STATE = "42S02";
+    // Duplicate column / duplicate key name: the change is already there (e.g. created by sql/setup.sql).
+    private static final int DUPLICATE_COLUMN = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS SchemaMigrations ("
+            + "version INT PRIMARY KEY, "
+            + "description VARCHAR(255) NOT NULL, "
+            + "checksum CHAR(64) NOT NULL, "
+            + "execution_ms BIGINT NOT NULL, "
+            + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Indexes for booking history, recent bookings and status filters",
+                    // Recent bookings and the history tab per customer: WHERE user_id = ? ORDER BY booking_date.
+                    // Also serves the user_id foreign key, so MySQL drops its implicit single-column index.
+                    "ALTER TABLE GarageServiceBookings ADD INDEX idx_bookings_user_date (user_id, booking_date)",
+                    // The same lists for staff (no user filter), including keyset pages after the first.
+                    "ALTER TABLE GarageServiceBookings ADD INDEX idx_bookings_date (booking_date)",
+                    // Status filters (api-server admin list, pending work) ordered by date.
+                    "ALTER TABLE GarageServiceBookings ADD INDEX idx_bookings_status_date (status, booking_date)")
+    );
+
+    private final ConnectionPool connectionPool;
+
+    public SchemaMigrator(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // Startup entry point: problems are logged rather than stopping the app, which still works
+    // (more slowly) without the newest indexes. JAVA_DB_AUTO_MIGRATE=false skips it, e.g. when
+    // the desk's database user may not run ALTER TABLE.
+    public void migrateAtStartup() {
+        if (!AppConfig.getBoolean("JAVA_DB_AUTO_MIGRATE", true)) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (SQLException | IllegalStateException error) {
+            System.err.println("Schema migration failed: " + error.getMessage());
+        }
+    }
+
+    // Returns the number of migrations applied by this call.
+    public int migrate() throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            if (isUpToDate(readApplied(conn))) {
+                return 0;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+            }
+            acquireLock(conn);
+            try {
+                // Another desk may have finished while we waited for the lock.
+                Map<Integer, String> applied = readApplied(conn);
+                int count = 0;
+                for (Migration migration : MIGRATIONS) {
+                    if (!applied.containsKey(migration.version)) {
+                        apply(conn, migration);
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    private static boolean isUpToDate(Map<Integer, String> applied) {
+        for (Migration migration : MIGRATIONS) {
+            String checksum = applied.get(migration.version);
+            if (checksum == null) {
+                return false;
+            }
+            if (!checksum.equals(migration.checksum)) {
+                throw new IllegalStateException("Migration " + migration.version + " (" + migration.description
+                        + ") was changed after it was applied; add a new version instead of editing it");
+            }
+        }
+        return true;
+    }
+
+    private static Map<Integer, String> readApplied(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM SchemaMigrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        } catch (SQLException error) {
+            if (!MISSING_TABLE_STATE.equals(error.getSQLState())) {
+                throw error;
+            }
+        }
+        return applied;
+    }
+
+    // MySQL commits DDL implicitly, so a migration cannot be rolled back as a whole. Statements
+    // that already took effect are tolerated on a rerun, which makes a half-applied migration safe to retry.
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException error) {
+                    if (error.getErrorCode() != DUPLICATE_COLUMN && error.getErrorCode() != DUPLICATE_KEY_NAME) {
+                        throw new SQLException("Migration " + migration.version + " failed on: " + sql
+                                + " (" + error.getMessage() + ")", error.getSQLState(), error.getErrorCode(), error);
+                    }
+                }
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO SchemaMigrations (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setString(3, migration.checksum);
+            stmt.setLong(4, elapsedMs);
+            stmt.executeUpdate();
+        }
+        System.out.println("Schema migration " + migration.version + " (" + migration.description
+                + ") applied in " + elapsedMs + " ms");
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another desk to finish schema migrations");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        }
+    }
+
+    private static String checksum(int version, String description, String[] statements) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((version + "\n" + description).getBytes(StandardCharsets.UTF_8));
+            for (String sql : statements) {
+                digest.update((byte) '\n');
+                digest.update(sql.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException("SHA-256 is not available", error);
+        }
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+        private final String checksum;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.checksum = SchemaMigrator.checksum(version, description, statements);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.garage;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Holds the whole Settings table as an immutable snapshot so lookups never touch the
+// database. A background refresh compares COUNT(*) and MAX(updated_at) with the snapshot
+// and only re-reads the rows when another desk (or the web app) changed something.
+public final class SettingsCache {
+
+    private static final int DEFAULT_REFRESH_SECONDS = 5;
+
+    private final SettingsDao settingsDao;
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private ScheduledExecutorService refresher;
+
+    public SettingsCache(ConnectionPool connectionPool) {
+        this.settingsDao = new SettingsDao(connectionPool);
+    }
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    public String getString(String key, String defaultValue) {
+        return snapshot.getString(key, defaultValue);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return snapshot.getDouble(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    // Listeners run on the thread that noticed the change, never on the EDT.
+    public void addListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    // Re-reads the table only if its version moved. Returns true when a new snapshot was published.
+    public synchronized boolean refresh() throws SQLException {
+        SettingsDao.Version version = settingsDao.readVersion();
+        if (snapshot.isVersion(version.getRowCount(), version.getLastUpdated())) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    // Unconditionally reads every row and publishes the result.
+    public synchronized Snapshot reload() throws SQLException {
+        SettingsDao.Rows rows = settingsDao.loadAll();
+        // The version comes from the rows themselves, so it always describes exactly this content.
+        publish(new Snapshot(rows.getValues(), rows.getValues().size(), rows.getLastUpdated()));
+        return snapshot;
+    }
+
+    // Writes the keys whose value differs from the database in one batched transaction,
+    // then brings the snapshot up to date. Returns the new settings version.
+    public synchronized long save(Map<String, String> values) throws SQLException {
+        if (settingsDao.saveChanged(values).isEmpty()) {
+            refresh();
+        } else {
+            reload();
+        }
+        return snapshot.getVersion();
+    }
+
+    // Reads the first snapshot on the calling thread; mains call it before anything can take a
+    // booking. On failure the snapshot stays unloaded: scheduleRefresh keeps retrying and
+    // BookingService refuses bookings until it has loaded.
+    public void loadAtStartup() {
+        try {
+            reload();
+        } catch (SQLException error) {
+            System.err.println("Could not load settings: " + error.getMessage());
+        }
+    }
+
+    public synchronized void scheduleRefresh() {
+        if (refresher != null) {
+            return;
+        }
+        long intervalSeconds = Math.max(1, AppConfig.getInt("JAVA_SETTINGS_REFRESH_SECONDS", DEFAULT_REFRESH_SECONDS));
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "garage-settings-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (SQLException error) {
+                System.err.println("Could not refresh settings: " + error.getMessage());
+            }
+        }, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void publish(Snapshot next) {
+        snapshot = next;
+        for (Consumer<Snapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException error) {
+                error.printStackTrace();
+            }
+        }
+    }
+
+    // One consistent view of the Settings table.
+    public static final class Snapshot {
+
+        public static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), -1, 0);
+
+        private final Map<String, String> values;
+        private final int rowCount;
+        private final long lastUpdated;
+
+        private Snapshot(Map<String, String> values, int rowCount, long lastUpdated) {
+            this.values = Collections.unmodifiableMap(new HashMap<>(values));
+            this.rowCount = rowCount;
+            this.lastUpdated = lastUpdated;
+        }
+
+        // Fixed settings without a database, for benchmarks.
+        static Snapshot of(Map<String, String> values) {
+            return new Snapshot(values, values.size(), 0);
+        }
+
+        // MAX(updated_at) in epoch milliseconds; grows whenever any setting changes.
+        public long getVersion() {
+            return lastUpdated;
+        }
+
+        public boolean isLoaded() {
+            return rowCount >= 0;
+        }
+
+        public Map<String, String> asMap() {
+            return values;
+        }
+
+        public String getString(String key, String defaultValue) {
+            String value = values.get(key);
+            return value == null ? defaultValue : value;
+        }
+
+        public double getDouble(String key, double defaultValue) {
+            String value = values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number for setting " + key + ": " + value);
+                return defaultValue;
+            }
+        }
+
+        public int getInt(String key, int defaultValue) {
+            String value = values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid integer for setting " + key + ": " + value);
+                return defaultValue;
+            }
+        }
+
+        private boolean isVersion(int otherRowCount, long otherLastUpdated) {
+            return rowCount == otherRowCount && lastUpdated == otherLastUpdated;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The Settings table statements behind SettingsCache.
+public final class SettingsDao {
+
+    private static final String VERSION_SQL = "SELECT COUNT(*) AS row_count, MAX(updated_at) AS last_updated FROM Settings";
+    private static final String LOAD_SQL = "SELECT setting_key, setting_value, updated_at FROM Settings";
+    private static final KeyValueTable SETTINGS_TABLE = new KeyValueTable("Settings", "setting_key", "setting_value");
+
+    private final ConnectionPool connectionPool;
+
+    // For QueryPlanCheck. Settings is a small table, read whole.
+    static List<PlannedQuery> plannedQueries() {
+        return List.of(new PlannedQuery("settings version", VERSION_SQL, true),
+                new PlannedQuery("settings load", LOAD_SQL, true));
+    }
+
+    public SettingsDao(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // Row count and newest updated_at; either moves whenever a setting is added, changed or removed.
+    public Version readVersion() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(VERSION_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (!rs.next()) {
+                return new Version(0, 0);
+            }
+            return new Version(rs.getInt("row_count"), toMillis(rs.getTimestamp("last_updated")));
+        }
+    }
+
+    public Rows loadAll() throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        long lastUpdated = 0;
+
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LOAD_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                values.put(rs.getString("setting_key"), rs.getString("setting_value"));
+                lastUpdated = Math.max(lastUpdated, toMillis(rs.getTimestamp("updated_at")));
+            }
+        }
+        return new Rows(values, lastUpdated);
+    }
+
+    // Writes only the keys whose value differs, in one batched transaction; returns those keys.
+    public Set<String> saveChanged(Map<String, String> values) throws SQLException {
+        return SETTINGS_TABLE.upsertChanged(connectionPool, values);
+    }
+
+    private static long toMillis(Timestamp timestamp) {
+        return timestamp == null ? 0 : timestamp.getTime();
+    }
+
+    public static final class Version {
+        private final int rowCount;
+        private final long lastUpdated;
+
+        private Version(int rowCount, long lastUpdated) {
+            this.rowCount = rowCount;
+            this.lastUpdated = lastUpdated;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        // Epoch milliseconds, 0 for an empty table.
+        public long getLastUpdated() {
+            return lastUpdated;
+        }
+    }
+
+    public static final class Rows {
+        private final Map<String, String> values;
+        private final long lastUpdated;
+
+        private Rows(Map<String, String> values, long lastUpdated) {
+            this.values = values;
+            this.lastUpdated = lastUpdated;
+        }
+
+        public Map<String, String> getValues() {
+            return values;
+        }
+
+        public long getLastUpdated() {
+            return lastUpdated;
+        }
+    }
+}
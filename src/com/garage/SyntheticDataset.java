@@ -0,0 +1,359 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Fills Users, GarageServiceBookings, Notifications and CustomerFeedback with synthetic but
+// plausible rows, for load tests at production scale:
+//   java -cp ... com.garage.SyntheticDataset [--users N] [--bookings N] [--notifications N]
+//       [--feedback N] [--seed S] [--clear]
+// The same seed always produces the same rows (names, vehicles, dates, statuses), so runs on
+// different machines are comparable. Rows are written with batched INSERTs, committed every
+// COMMIT_ROWS rows. Every synthetic account and booking uses an @synthetic.test email address,
+// which is how --clear finds them again; it never touches real data.
+public final class SyntheticDataset {
+
+    public static final String EMAIL_DOMAIN = "@synthetic.test";
+
+    private static final int BATCH_ROWS = 1000;
+    private static final int COMMIT_ROWS = 20_000;
+    private static final int PROGRESS_EVERY_ROWS = 100_000;
+    // Bookings are spread over two years of history ending here, so the data does not depend on today.
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(2025, 12, 31, 18, 0);
+    private static final int HISTORY_DAYS = 730;
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh",
+        "Ayaan", "Krishna", "Ishaan", "Ananya", "Diya", "Aadhya", "Saanvi", "Pari", "Anika", "Navya", "Myra",
+        "Kavya", "Meera", "Rahul", "Priya", "Rohan", "Sneha", "Vikram", "Asha", "Karan", "Pooja", "Nikhil", "Lakshmi"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Patel", "Reddy", "Iyer", "Nair", "Gupta", "Singh",
+        "Kumar", "Rao", "Das", "Menon", "Joshi", "Kulkarni", "Mehta", "Chopra", "Bose", "Pillai", "Shetty", "Khan"};
+    private static final String[] VEHICLES = {"2 Wheeler", "3 Wheeler", "4 Wheeler"};
+    // Out of 100: most customers bring two-wheelers, few bring three-wheelers.
+    private static final int[] VEHICLE_WEIGHTS = {55, 10, 35};
+    private static final String[] NOTES = {null, null, null, "Check brakes", "Oil change due",
+        "Strange noise from engine", "Customer waiting on site", "Pick-up requested", "Replace wiper blades"};
+    private static final String[] FEEDBACK = {"Quick and friendly service.", "Bike runs much smoother now.",
+        "Took longer than promised.", "Fair price for the premium package.", "Staff explained every repair.",
+        "Had to come back for the same issue.", "Very clean workshop.", "Booking was easy, will come again."};
+
+    private static final String USER_SQL = "INSERT INTO Users (username, password, full_name, email, phone, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String BOOKING_SQL = "INSERT INTO GarageServiceBookings (user_id, name, email, phone, "
+            + "wheeler_type, service_type, cost, appointment_date, status, notes, booking_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NOTIFICATION_SQL = "INSERT INTO Notifications (user_id, booking_id, type, title, "
+            + "message, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String FEEDBACK_SQL = "INSERT INTO CustomerFeedback (user_id, name, feedback_text, rating, "
+            + "feedback_date) VALUES (?, ?, ?, ?, ?)";
+    // Not a bcrypt hash, so synthetic accounts cannot sign in to the web app.
+    private static final String NO_LOGIN_PASSWORD = "!synthetic";
+
+    private final ConnectionPool connectionPool;
+    private final long seed;
+    private PricingEngine pricing;
+
+    public SyntheticDataset(ConnectionPool connectionPool, long seed) {
+        this.connectionPool = connectionPool;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        int users = 1000;
+        int bookings = 100_000;
+        int notifications = -1;
+        int feedback = -1;
+        long seed = 42;
+        boolean clear = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--clear")) {
+                    clear = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException(args[i] + " needs a value");
+                }
+                switch (args[i]) {
+                    case "--users" -> users = Integer.parseInt(args[++i]);
+                    case "--bookings" -> bookings = Integer.parseInt(args[++i]);
+                    case "--notifications" -> notifications = Integer.parseInt(args[++i]);
+                    case "--feedback" -> feedback = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SyntheticDataset [--users N] [--bookings N] [--notifications N] [--feedback N] "
+                    + "[--seed S] [--clear]");
+            System.exit(2);
+        }
+
+        try (ConnectionPool pool = ConnectionPool.create(AppConfig.get("JAVA_DB_URL"), AppConfig.get("JAVA_DB_USER"),
+                AppConfig.get("JAVA_DB_PASSWORD"))) {
+            SyntheticDataset dataset = new SyntheticDataset(pool, seed);
+            if (clear) {
+                dataset.clear();
+            } else {
+                // By default a notification for every other booking and feedback from one customer in ten.
+                dataset.generate(users, bookings, notifications < 0 ? bookings / 2 : notifications,
+                        feedback < 0 ? bookings / 10 : feedback);
+            }
+        } catch (SQLException e) {
+            System.err.println("Synthetic data failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Inserts the given number of rows into each table. Users come first so every booking,
+    // notification and feedback row can point at one of them.
+    public void generate(int users, int bookings, int notifications, int feedback) throws SQLException {
+        if (users < 1 && (bookings > 0 || notifications > 0 || feedback > 0)) {
+            throw new IllegalArgumentException("At least one user is needed for bookings, notifications and feedback");
+        }
+        SettingsCache.Snapshot settings = new SettingsCache(connectionPool).reload();
+        pricing = new PricingEngine(() -> settings);
+        long started = System.nanoTime();
+
+        int[] userIds = insertUsers(users);
+        int[][] bookingIdsAndUsers = insertBookings(bookings, userIds);
+        insertNotifications(notifications, bookingIdsAndUsers[0], bookingIdsAndUsers[1]);
+        insertFeedback(feedback, userIds);
+
+        // The stats triggers have kept the counters current on MySQL; this also covers databases without them.
+        int repaired = new BookingStatsStore(connectionPool).reconcile();
+        System.out.printf(Locale.ROOT, "Synthetic data (seed %d): %d users, %d bookings, %d notifications, "
+                        + "%d feedback rows in %.1f s (%d stats scopes reconciled)%n", seed, userIds.length, bookings,
+                notifications, feedback, (System.nanoTime() - started) / 1e9, repaired);
+    }
+
+    // Deletes every synthetic row: bookings and feedback first, then the users (which cascades
+    // to their notifications).
+    public void clear() throws SQLException {
+        String synthetic = "%" + EMAIL_DOMAIN;
+        try (Connection conn = connectionPool.getConnection()) {
+            int feedback = update(conn, "DELETE FROM CustomerFeedback WHERE user_id IN "
+                    + "(SELECT id FROM Users WHERE email LIKE ?)", synthetic);
+            int notifications = update(conn, "DELETE FROM Notifications WHERE user_id IN "
+                    + "(SELECT id FROM Users WHERE email LIKE ?)", synthetic);
+            int bookings = update(conn, "DELETE FROM GarageServiceBookings WHERE email LIKE ?", synthetic);
+            int users = update(conn, "DELETE FROM Users WHERE email LIKE ?", synthetic);
+            new BookingStatsStore(connectionPool).reconcile();
+            System.out.println("Removed " + users + " synthetic users, " + bookings + " bookings, "
+                    + notifications + " notifications and " + feedback + " feedback rows");
+        }
+    }
+
+    private int[] insertUsers(int count) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] ids = new int[count];
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
+            BatchWriter writer = new BatchWriter(conn, stmt, ids, "users", count);
+            for (int i = 0; i < count; i++) {
+                String first = pick(random, FIRST_NAMES);
+                String last = pick(random, LAST_NAMES);
+                // The seed is part of the name, so data sets with different seeds can live side by side.
+                String username = "syn" + seed + "_" + i;
+                stmt.setString(1, username);
+                stmt.setString(2, NO_LOGIN_PASSWORD);
+                stmt.setString(3, first + " " + last);
+                stmt.setString(4, username + EMAIL_DOMAIN);
+                stmt.setString(5, phone(random));
+                stmt.setTimestamp(6, Timestamp.valueOf(HISTORY_END.minusDays(HISTORY_DAYS + random.nextInt(365))));
+                writer.add();
+            }
+            writer.finish();
+        }
+        return ids;
+    }
+
+    // Returns the new booking ids and, in the same order, the user each booking belongs to.
+    private int[][] insertBookings(int count, int[] userIds) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        int[] ids = new int[count];
+        int[] owners = new int[count];
+        long historySeconds = HISTORY_DAYS * 86_400L;
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(BOOKING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
+            BatchWriter writer = new BatchWriter(conn, stmt, ids, "bookings", count);
+            for (int i = 0; i < count; i++) {
+                // Booked in time order, like a real table grown one booking at a time.
+                LocalDateTime booked = HISTORY_END.minusSeconds(historySeconds - historySeconds * i / Math.max(1, count)
+                        - random.nextInt(600));
+                LocalDateTime appointment = booked.plusDays(random.nextInt(15)).withHour(9 + random.nextInt(9))
+                        .withMinute(random.nextBoolean() ? 0 : 30).withSecond(0);
+                int owner = userIds[random.nextInt(userIds.length)];
+                String vehicle = vehicle(random);
+                boolean premium = random.nextInt(100) < 30;
+                owners[i] = owner;
+
+                stmt.setInt(1, owner);
+                stmt.setString(2, pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+                stmt.setString(3, "syn" + seed + "_b" + i + EMAIL_DOMAIN);
+                stmt.setString(4, phone(random));
+                stmt.setString(5, vehicle);
+                stmt.setString(6, premium ? "Premium" : "Standard");
+                stmt.setDouble(7, PricingEngine.toRupees(pricing.quote(vehicle, premium)));
+                stmt.setTimestamp(8, Timestamp.valueOf(appointment));
+                stmt.setString(9, status(random, appointment));
+                String note = pick(random, NOTES);
+                if (note != null) {
+                    stmt.setString(10, note);
+                } else {
+                    stmt.setNull(10, Types.VARCHAR);
+                }
+                stmt.setTimestamp(11, Timestamp.valueOf(booked));
+                writer.add();
+            }
+            writer.finish();
+        }
+        return new int[][]{ids, owners};
+    }
+
+    private void insertNotifications(int count, int[] bookingIds, int[] bookingOwners) throws SQLException {
+        if (count > 0 && bookingIds.length == 0) {
+            throw new IllegalArgumentException("Notifications need bookings to refer to");
+        }
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(NOTIFICATION_SQL)) {
+            conn.setAutoCommit(false);
+            BatchWriter writer = new BatchWriter(conn, stmt, null, "notifications", count);
+            for (int i = 0; i < count; i++) {
+                int booking = random.nextInt(bookingIds.length);
+                boolean statusChange = random.nextBoolean();
+                stmt.setInt(1, bookingOwners[booking]);
+                stmt.setInt(2, bookingIds[booking]);
+                stmt.setString(3, statusChange ? "Status" : "Booking");
+                stmt.setString(4, statusChange ? "Booking status updated" : "Booking received");
+                stmt.setString(5, statusChange
+                        ? "Your booking #" + bookingIds[booking] + " has a new status."
+                        : "We have received your booking #" + bookingIds[booking] + ".");
+                // Older notifications have mostly been read.
+                stmt.setInt(6, random.nextInt(100) < 70 ? 1 : 0);
+                stmt.setTimestamp(7, Timestamp.valueOf(HISTORY_END.minusMinutes(random.nextInt(HISTORY_DAYS * 1440))));
+                writer.add();
+            }
+            writer.finish();
+        }
+    }
+
+    private void insertFeedback(int count, int[] userIds) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 3);
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FEEDBACK_SQL)) {
+            conn.setAutoCommit(false);
+            BatchWriter writer = new BatchWriter(conn, stmt, null, "feedback rows", count);
+            for (int i = 0; i < count; i++) {
+                stmt.setInt(1, userIds[random.nextInt(userIds.length)]);
+                stmt.setString(2, pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+                stmt.setString(3, pick(random, FEEDBACK));
+                // Skewed towards good ratings, as real feedback is.
+                stmt.setInt(4, Math.min(5, 2 + random.nextInt(4) + (random.nextBoolean() ? 1 : 0)));
+                stmt.setTimestamp(5, Timestamp.valueOf(HISTORY_END.minusMinutes(random.nextInt(HISTORY_DAYS * 1440))));
+                writer.add();
+            }
+            writer.finish();
+        }
+    }
+
+    // Older appointments are mostly finished; upcoming ones are still open.
+    private static String status(SplittableRandom random, LocalDateTime appointment) {
+        int roll = random.nextInt(100);
+        if (appointment.isBefore(HISTORY_END.minusDays(14))) {
+            return roll < 85 ? "Completed" : roll < 95 ? "Cancelled" : "Confirmed";
+        }
+        return roll < 45 ? "Pending" : roll < 75 ? "Confirmed" : roll < 90 ? "In Progress" : "Completed";
+    }
+
+    private static String vehicle(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < VEHICLES.length; i++) {
+            roll -= VEHICLE_WEIGHTS[i];
+            if (roll < 0) {
+                return VEHICLES[i];
+            }
+        }
+        return VEHICLES[0];
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "9" + (100_000_000 + random.nextInt(900_000_000));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int update(Connection conn, String sql, String parameter) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, parameter);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Sends the statement's batch every BATCH_ROWS rows and commits every COMMIT_ROWS, collecting
+    // the generated ids when asked to.
+    private static final class BatchWriter {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final int[] ids;
+        private final String label;
+        private final int total;
+        private int added;
+        private int collected;
+
+        private BatchWriter(Connection conn, PreparedStatement stmt, int[] ids, String label, int total) {
+            this.conn = conn;
+            this.stmt = stmt;
+            this.ids = ids;
+            this.label = label;
+            this.total = total;
+        }
+
+        private void add() throws SQLException {
+            stmt.addBatch();
+            added++;
+            if (added % BATCH_ROWS == 0) {
+                flush();
+            }
+            if (added % COMMIT_ROWS == 0) {
+                conn.commit();
+            }
+            if (added % PROGRESS_EVERY_ROWS == 0) {
+                System.out.println("  " + added + " / " + total + " " + label);
+            }
+        }
+
+        private void finish() throws SQLException {
+            flush();
+            conn.commit();
+            if (ids != null && collected != ids.length) {
+                throw new SQLException("Expected " + ids.length + " generated " + label + " ids, got " + collected);
+            }
+        }
+
+        private void flush() throws SQLException {
+            stmt.executeBatch();
+            if (ids == null) {
+                return;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                while (keys.next() && collected < ids.length) {
+                    ids[collected++] = keys.getInt(1);
+                }
+            }
+        }
+    }
+}
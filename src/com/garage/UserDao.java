@@ -0,0 +1,95 @@
+package com.garage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+// The Users statements the desktop sign-in and registration use. Passwords are stored as
+// given here; hashing them is CredentialService's job.
+public final class UserDao {
+
+    private static final String BY_USERNAME_SQL = "SELECT id, full_name, password FROM Users WHERE username = ?";
+    private static final String INSERT_SQL = "INSERT INTO Users (username, password, full_name, email, phone) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String REPLACE_PASSWORD_SQL = "UPDATE Users SET password = ? WHERE id = ? AND password = ?";
+
+    private final ConnectionPool connectionPool;
+
+    public UserDao(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    // For QueryPlanCheck.
+    static List<PlannedQuery> plannedQueries() {
+        return List.of(new PlannedQuery("login", BY_USERNAME_SQL, false, "admin"));
+    }
+
+    // Null if there is no such user.
+    public UserAccount findByUsername(String username) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(BY_USERNAME_SQL)) {
+
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new UserAccount(rs.getInt("id"), rs.getString("full_name"), rs.getString("password"));
+            }
+        }
+    }
+
+    public void insert(String username, String passwordHash, String fullName, String email, String phone)
+            throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+
+            stmt.setString(1, username);
+            stmt.setString(2, passwordHash);
+            stmt.setString(3, fullName);
+            stmt.setString(4, email);
+            stmt.setString(5, phone);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Only if the row still holds expected, so a password changed meanwhile is left alone.
+    // Returns whether it was replaced.
+    public boolean replacePassword(int userId, String expected, String replacement) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(REPLACE_PASSWORD_SQL)) {
+
+            stmt.setString(1, replacement);
+            stmt.setInt(2, userId);
+            stmt.setString(3, expected);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public static final class UserAccount {
+        private final int id;
+        private final String fullName;
+        private final String password;
+
+        private UserAccount(int id, String fullName, String password) {
+            this.id = id;
+            this.fullName = fullName;
+            this.password = password;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        // The stored value: a bcrypt hash, or plain text on rows not yet migrated.
+        public String getPassword() {
+            return password;
+        }
+    }
+}